@@ -0,0 +1,54 @@
+package com.coursepath.lms.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-endpoint latency histograms in microseconds. Recording is thread safe and
+ * allocation free once an endpoint has been seen. Only operations that started
+ * at or after the measurement start are kept, so warmup work that finishes late
+ * does not leak into the results.
+ */
+public class LatencyRecorder {
+
+    private static final long MAX_LATENCY_US = TimeUnit.MINUTES.toMicros(2);
+
+    private final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+    private volatile long measureFrom = Long.MAX_VALUE;
+
+    public void measureFrom(long startNanos) {
+        measureFrom = startNanos;
+    }
+
+    public boolean isMeasured(long startNanos) {
+        return startNanos - measureFrom >= 0;
+    }
+
+    public void record(String endpoint, long startNanos, long latencyNanos, boolean success) {
+        if (!isMeasured(startNanos)) {
+            return;
+        }
+        long micros = Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), MAX_LATENCY_US);
+        histograms.computeIfAbsent(endpoint, e -> new ConcurrentHistogram(MAX_LATENCY_US, 3))
+                .recordValue(Math.max(micros, 1));
+        if (!success) {
+            errors.computeIfAbsent(endpoint, e -> new LongAdder()).increment();
+        }
+    }
+
+    public Map<String, Histogram> histograms() {
+        return new TreeMap<>(histograms);
+    }
+
+    public long errors(String endpoint) {
+        LongAdder adder = errors.get(endpoint);
+        return adder == null ? 0 : adder.sum();
+    }
+}
@@ -0,0 +1,114 @@
+package com.coursepath.lms.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Executors;
+
+/**
+ * Thin HTTP client for the LMS API. Every call is timed and recorded under its
+ * endpoint template so per-endpoint percentiles can be compared across runs.
+ */
+public class LmsClient {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final HttpClient httpClient;
+    private final String baseUrl;
+    private final LatencyRecorder recorder;
+
+    public LmsClient(String baseUrl, LatencyRecorder recorder, int maxConnections) {
+        this.baseUrl = baseUrl;
+        this.recorder = recorder;
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newFixedThreadPool(Math.max(2, maxConnections / 4)))
+                .build();
+    }
+
+    public void register(String username, String password) throws IOException {
+        send("POST /api/auth/register", "POST", "/api/auth/register", null, Map.of(
+                "username", username,
+                "password", password,
+                "name", "Load Test " + username,
+                "email", username + "@loadtest.local"));
+    }
+
+    public String login(String username, String password) throws IOException {
+        JsonNode body = send("POST /api/auth/login", "POST", "/api/auth/login", null,
+                Map.of("username", username, "password", password));
+        return body.path("token").asText();
+    }
+
+    public JsonNode getAllCourses() throws IOException {
+        return send("GET /api/courses/all", "GET", "/api/courses/all", null, null);
+    }
+
+    // Anonymous callers, and students not enrolled in the course, get the modules without their content
+    public JsonNode getCourse(String token, String courseId) throws IOException {
+        return send("GET /api/courses/{id}", "GET", "/api/courses/" + courseId, token, null);
+    }
+
+    public JsonNode enroll(String token, String courseId) throws IOException {
+        return send("POST /api/courses/enroll", "POST", "/api/courses/enroll", token,
+                Map.of("courseId", courseId));
+    }
+
+    public JsonNode getEnrollments(String token) throws IOException {
+        return send("GET /api/courses/enrollments", "GET", "/api/courses/enrollments", token, null);
+    }
+
+    public JsonNode updateProgress(String token, String courseId, String moduleId, boolean completed)
+            throws IOException {
+        return send("POST /api/courses/progress/{courseId}", "POST", "/api/courses/progress/" + courseId, token,
+                Map.of("moduleId", moduleId, "completed", completed));
+    }
+
+    private JsonNode send(String endpoint, String method, String path, String token, Object body)
+            throws IOException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Accept", "application/json");
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        if (body != null) {
+            builder.header("Content-Type", "application/json")
+                    .method(method, HttpRequest.BodyPublishers.ofByteArray(MAPPER.writeValueAsBytes(body)));
+        } else {
+            builder.method(method, HttpRequest.BodyPublishers.noBody());
+        }
+
+        long start = System.nanoTime();
+        HttpResponse<byte[]> response;
+        try {
+            response = httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofByteArray());
+        } catch (IOException e) {
+            recorder.record(endpoint, start, System.nanoTime() - start, false);
+            throw e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while calling " + endpoint, e);
+        }
+        long elapsed = System.nanoTime() - start;
+
+        boolean success = response.statusCode() < 400;
+        recorder.record(endpoint, start, elapsed, success);
+        if (!success) {
+            throw new IOException(endpoint + " returned HTTP " + response.statusCode());
+        }
+
+        byte[] bytes = response.body();
+        if (bytes.length == 0 || bytes[0] != '{' && bytes[0] != '[') {
+            return MAPPER.nullNode();
+        }
+        return MAPPER.readTree(bytes);
+    }
+}
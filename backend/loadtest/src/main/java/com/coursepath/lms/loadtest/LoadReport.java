@@ -0,0 +1,120 @@
+package com.coursepath.lms.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Renders a run as a console table and a JSON document. When a baseline report
+ * is supplied, each percentile is printed next to its change from the baseline.
+ */
+public class LoadReport {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private final LoadTestOptions options;
+    private final LatencyRecorder recorder;
+    private final double measuredSeconds;
+    private final long dropped;
+
+    public LoadReport(LoadTestOptions options, LatencyRecorder recorder, double measuredSeconds, long dropped) {
+        this.options = options;
+        this.recorder = recorder;
+        this.measuredSeconds = measuredSeconds;
+        this.dropped = dropped;
+    }
+
+    public ObjectNode toJson() {
+        ObjectNode root = MAPPER.createObjectNode();
+        root.put("label", options.label);
+        root.put("timestamp", Instant.now().toString());
+        root.put("baseUrl", options.baseUrl);
+        root.put("arrivalRate", options.arrivalRate);
+        root.put("users", options.users);
+        root.put("durationSeconds", measuredSeconds);
+        root.put("droppedIterations", dropped);
+        root.set("mix", MAPPER.valueToTree(options.mix));
+
+        ArrayNode endpoints = root.putArray("endpoints");
+        for (Map.Entry<String, Histogram> entry : recorder.histograms().entrySet()) {
+            Histogram histogram = entry.getValue();
+            ObjectNode node = endpoints.addObject();
+            node.put("endpoint", entry.getKey());
+            node.put("count", histogram.getTotalCount());
+            node.put("errors", recorder.errors(entry.getKey()));
+            node.put("throughput", histogram.getTotalCount() / measuredSeconds);
+            node.put("meanMs", histogram.getMean() / 1000.0);
+            for (double p : PERCENTILES) {
+                node.put(percentileKey(p), histogram.getValueAtPercentile(p) / 1000.0);
+            }
+            node.put("maxMs", histogram.getMaxValue() / 1000.0);
+        }
+        return root;
+    }
+
+    public void write(PrintStream out) throws IOException {
+        ObjectNode report = toJson();
+        MAPPER.writeValue(options.report.toFile(), report);
+
+        JsonNode baseline = null;
+        if (options.baseline != null && Files.exists(options.baseline)) {
+            baseline = MAPPER.readTree(options.baseline.toFile());
+        }
+
+        out.printf("%nRun '%s': %.0f/s arrival rate, %d users, %.0fs measured, %d dropped iterations%n",
+                options.label, options.arrivalRate, options.users, measuredSeconds, dropped);
+        if (baseline != null) {
+            out.printf("Compared against '%s' (%s)%n", baseline.path("label").asText(), options.baseline);
+        }
+        out.printf("%-40s %8s %7s %9s", "endpoint", "count", "errors", "req/s");
+        for (double p : PERCENTILES) {
+            out.printf(" %18s", "p" + formatPercentile(p) + " ms");
+        }
+        out.printf(" %10s%n", "max ms");
+
+        for (JsonNode endpoint : report.path("endpoints")) {
+            JsonNode previous = baseline == null ? null : find(baseline, endpoint.path("endpoint").asText());
+            out.printf("%-40s %8d %7d %9.1f", endpoint.path("endpoint").asText(), endpoint.path("count").asLong(),
+                    endpoint.path("errors").asLong(), endpoint.path("throughput").asDouble());
+            for (double p : PERCENTILES) {
+                String key = percentileKey(p);
+                double value = endpoint.path(key).asDouble();
+                if (previous != null && previous.path(key).asDouble() > 0) {
+                    double change = (value - previous.path(key).asDouble()) / previous.path(key).asDouble() * 100;
+                    out.printf(" %9.2f (%+5.0f%%)", value, change);
+                } else {
+                    out.printf(" %18.2f", value);
+                }
+            }
+            out.printf(" %10.2f%n", endpoint.path("maxMs").asDouble());
+        }
+        out.printf("%nReport written to %s%n", options.report.toAbsolutePath());
+    }
+
+    private static JsonNode find(JsonNode report, String endpoint) {
+        for (JsonNode node : report.path("endpoints")) {
+            if (endpoint.equals(node.path("endpoint").asText())) {
+                return node;
+            }
+        }
+        return null;
+    }
+
+    private static String percentileKey(double percentile) {
+        return "p" + formatPercentile(percentile).replace(".", "_") + "Ms";
+    }
+
+    private static String formatPercentile(double percentile) {
+        return percentile == Math.rint(percentile) ? String.valueOf((int) percentile) : String.valueOf(percentile);
+    }
+}
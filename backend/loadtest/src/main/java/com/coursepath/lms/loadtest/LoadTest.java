@@ -0,0 +1,142 @@
+package com.coursepath.lms.loadtest;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load generator for the LMS API.
+ *
+ * Scenario iterations arrive at a fixed rate regardless of how fast the server
+ * responds, and are executed by a bounded pool of virtual users. Scenario
+ * latency is measured from the intended start time, so queueing caused by a
+ * slow server shows up in the percentiles instead of silently lowering the
+ * offered load (coordinated omission).
+ */
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        LatencyRecorder recorder = new LatencyRecorder();
+        LmsClient client = new LmsClient(options.baseUrl, recorder, options.users);
+
+        List<WeightedScenario> scenarios = resolveMix(options.mix);
+        LinkedBlockingQueue<VirtualUser> idleUsers = new LinkedBlockingQueue<>(createUsers(client, options));
+        ExecutorService workers = Executors.newFixedThreadPool(options.users);
+        AtomicInteger backlog = new AtomicInteger();
+        AtomicLong dropped = new AtomicLong();
+        int maxBacklog = options.users * 10;
+
+        System.out.printf("Running for %ds (+%ds warmup) at %.1f iterations/s with %d virtual users against %s%n",
+                options.duration.toSeconds(), options.warmup.toSeconds(), options.arrivalRate, options.users,
+                options.baseUrl);
+
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / options.arrivalRate);
+        long start = System.nanoTime();
+        long measureFrom = start + options.warmup.toNanos();
+        long end = measureFrom + options.duration.toNanos();
+        recorder.measureFrom(measureFrom);
+
+        for (long intended = start; intended < end; intended += intervalNanos) {
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            if (backlog.get() >= maxBacklog) {
+                if (recorder.isMeasured(intended)) {
+                    dropped.incrementAndGet();
+                }
+                continue;
+            }
+
+            WeightedScenario scenario = pick(scenarios);
+            long intendedStart = intended;
+            backlog.incrementAndGet();
+            workers.execute(() -> {
+                VirtualUser user = null;
+                boolean success = false;
+                try {
+                    user = idleUsers.take();
+                    scenario.scenario.run(client, user);
+                    success = true;
+                } catch (IOException e) {
+                    // Failed requests are already counted against their endpoint
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    recorder.record("scenario " + scenario.name, intendedStart, System.nanoTime() - intendedStart,
+                            success);
+                    if (user != null) {
+                        idleUsers.add(user);
+                    }
+                    backlog.decrementAndGet();
+                }
+            });
+        }
+
+        workers.shutdown();
+        if (!workers.awaitTermination(60, TimeUnit.SECONDS)) {
+            workers.shutdownNow();
+        }
+
+        new LoadReport(options, recorder, options.duration.toMillis() / 1000.0, dropped.get()).write(System.out);
+        System.exit(0);
+    }
+
+    private static List<VirtualUser> createUsers(LmsClient client, LoadTestOptions options) {
+        String prefix = "lt" + Long.toString(System.currentTimeMillis(), 36);
+        List<VirtualUser> users = new ArrayList<>();
+        for (int i = 0; i < options.users; i++) {
+            VirtualUser user = new VirtualUser(prefix + "u" + i, "loadtest123");
+            try {
+                client.register(user.username, user.password);
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not register virtual user " + user.username, e);
+            }
+            users.add(user);
+        }
+        return users;
+    }
+
+    private static List<WeightedScenario> resolveMix(Map<String, Integer> mix) {
+        List<WeightedScenario> scenarios = new ArrayList<>();
+        int cumulative = 0;
+        for (Map.Entry<String, Integer> entry : mix.entrySet()) {
+            Scenario scenario = Scenario.ALL.get(entry.getKey());
+            if (scenario == null) {
+                throw new IllegalArgumentException("Unknown scenario '" + entry.getKey() + "', expected one of "
+                        + Scenario.ALL.keySet());
+            }
+            if (entry.getValue() > 0) {
+                cumulative += entry.getValue();
+                scenarios.add(new WeightedScenario(entry.getKey(), scenario, cumulative));
+            }
+        }
+        if (scenarios.isEmpty()) {
+            throw new IllegalArgumentException("Scenario mix must have at least one positive weight");
+        }
+        return scenarios;
+    }
+
+    private static WeightedScenario pick(List<WeightedScenario> scenarios) {
+        int roll = ThreadLocalRandom.current().nextInt(scenarios.get(scenarios.size() - 1).cumulativeWeight);
+        for (WeightedScenario scenario : scenarios) {
+            if (roll < scenario.cumulativeWeight) {
+                return scenario;
+            }
+        }
+        return scenarios.get(scenarios.size() - 1);
+    }
+
+    private record WeightedScenario(String name, Scenario scenario, int cumulativeWeight) {
+    }
+}
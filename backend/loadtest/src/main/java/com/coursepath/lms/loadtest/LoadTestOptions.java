@@ -0,0 +1,55 @@
+package com.coursepath.lms.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class LoadTestOptions {
+
+    String baseUrl = "http://localhost:8080";
+    double arrivalRate = 20;
+    int users = 50;
+    Duration duration = Duration.ofSeconds(60);
+    Duration warmup = Duration.ofSeconds(10);
+    Map<String, Integer> mix = new LinkedHashMap<>(Map.of("browse", 60, "study", 30, "enroll", 10));
+    Path report = Path.of("loadtest-report.json");
+    Path baseline;
+    String label = "run";
+
+    static LoadTestOptions parse(String[] args) {
+        LoadTestOptions options = new LoadTestOptions();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            String name = arg.substring(2, arg.indexOf('='));
+            String value = arg.substring(arg.indexOf('=') + 1);
+            switch (name) {
+                case "base-url" -> options.baseUrl = value.replaceAll("/+$", "");
+                case "rate" -> options.arrivalRate = Double.parseDouble(value);
+                case "users" -> options.users = Integer.parseInt(value);
+                case "duration" -> options.duration = Duration.ofSeconds(Long.parseLong(value));
+                case "warmup" -> options.warmup = Duration.ofSeconds(Long.parseLong(value));
+                case "mix" -> options.mix = parseMix(value);
+                case "report" -> options.report = Path.of(value);
+                case "baseline" -> options.baseline = Path.of(value);
+                case "label" -> options.label = value;
+                default -> throw new IllegalArgumentException("Unknown option: --" + name);
+            }
+        }
+        if (options.arrivalRate <= 0 || options.users <= 0) {
+            throw new IllegalArgumentException("--rate and --users must be positive");
+        }
+        return options;
+    }
+
+    private static Map<String, Integer> parseMix(String value) {
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        for (String part : value.split(",")) {
+            String[] pair = part.split(":");
+            mix.put(pair[0].trim(), Integer.parseInt(pair[1].trim()));
+        }
+        return mix;
+    }
+}
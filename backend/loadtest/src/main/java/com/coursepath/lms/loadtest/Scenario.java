@@ -0,0 +1,83 @@
+package com.coursepath.lms.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A scripted user journey. Scenarios are stateless; per-user state such as the
+ * access token and enrolled courses lives on the {@link VirtualUser}.
+ */
+public interface Scenario {
+
+    void run(LmsClient client, VirtualUser user) throws IOException;
+
+    Map<String, Scenario> ALL = Map.of(
+            "browse", Scenario::browse,
+            "enroll", Scenario::enroll,
+            "study", Scenario::study
+    );
+
+    // Anonymous visitor: browse the catalog and open one course
+    static void browse(LmsClient client, VirtualUser user) throws IOException {
+        String courseId = pickCourse(client.getAllCourses(), user, false);
+        if (courseId != null) {
+            client.getCourse(null, courseId);
+        }
+    }
+
+    // Student logs in, browses the catalog, views a course they have not joined yet and enrolls in it
+    static void enroll(LmsClient client, VirtualUser user) throws IOException {
+        user.token = client.login(user.username, user.password);
+        String courseId = pickCourse(client.getAllCourses(), user, true);
+        if (courseId == null) {
+            return;
+        }
+        client.getCourse(user.token, courseId);
+        client.enroll(user.token, courseId);
+        user.enrolledCourses.add(courseId);
+    }
+
+    // Student logs in, opens the dashboard and ticks or unticks a few modules of a course they joined
+    static void study(LmsClient client, VirtualUser user) throws IOException {
+        user.token = client.login(user.username, user.password);
+        client.getEnrollments(user.token)
+                .forEach(e -> user.enrolledCourses.add(e.path("courseId").asText()));
+        if (user.enrolledCourses.isEmpty()) {
+            String courseId = pickCourse(client.getAllCourses(), user, true);
+            if (courseId == null) {
+                return;
+            }
+            client.enroll(user.token, courseId);
+            user.enrolledCourses.add(courseId);
+        }
+
+        List<String> courseIds = new ArrayList<>(user.enrolledCourses);
+        String courseId = courseIds.get(user.random().nextInt(courseIds.size()));
+        JsonNode modules = client.getCourse(user.token, courseId).path("modules");
+        if (modules.isEmpty()) {
+            return;
+        }
+        for (int i = 0; i < 3; i++) {
+            String moduleId = modules.get(user.random().nextInt(modules.size())).path("id").asText();
+            client.updateProgress(user.token, courseId, moduleId, user.random().nextBoolean());
+        }
+    }
+
+    private static String pickCourse(JsonNode courses, VirtualUser user, boolean notJoined) {
+        if (!courses.isArray()) {
+            return null;
+        }
+        List<String> candidates = new ArrayList<>();
+        courses.forEach(course -> {
+            String id = course.path("id").asText();
+            if (!notJoined || !user.enrolledCourses.contains(id)) {
+                candidates.add(id);
+            }
+        });
+        return candidates.isEmpty() ? null : candidates.get(user.random().nextInt(candidates.size()));
+    }
+}
@@ -0,0 +1,26 @@
+package com.coursepath.lms.loadtest;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Session state for one simulated student. A virtual user is only ever driven
+ * by one scenario at a time, so its fields need no synchronization.
+ */
+public class VirtualUser {
+
+    final String username;
+    final String password;
+    final Set<String> enrolledCourses = new HashSet<>();
+    String token;
+
+    VirtualUser(String username, String password) {
+        this.username = username;
+        this.password = password;
+    }
+
+    ThreadLocalRandom random() {
+        return ThreadLocalRandom.current();
+    }
+}
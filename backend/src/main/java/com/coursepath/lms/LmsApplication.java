@@ -3,8 +3,10 @@ package com.coursepath.lms;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class LmsApplication {
     public static void main(String[] args) {
         SpringApplication.run(LmsApplication.class, args);
@@ -0,0 +1,40 @@
+package com.coursepath.lms.config;
+
+import com.mongodb.ReadPreference;
+
+import java.util.function.Supplier;
+
+/**
+ * The read preference in effect for the current thread. Unset means the
+ * template default, which is the primary.
+ */
+public final class ReadRouting {
+
+    private static final ThreadLocal<ReadPreference> CURRENT = new ThreadLocal<>();
+
+    private ReadRouting() {
+    }
+
+    public static ReadPreference current() {
+        return CURRENT.get();
+    }
+
+    // Forces the primary, even inside a @ReplicaRead method, for reads that must see the latest write
+    public static <T> T primary(Supplier<T> reads) {
+        return with(ReadPreference.primary(), reads);
+    }
+
+    static <T> T with(ReadPreference preference, Supplier<T> reads) {
+        ReadPreference previous = CURRENT.get();
+        CURRENT.set(preference);
+        try {
+            return reads.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+}
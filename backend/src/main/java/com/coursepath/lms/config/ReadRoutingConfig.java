@@ -0,0 +1,91 @@
+package com.coursepath.lms.config;
+
+import com.mongodb.ReadPreference;
+import com.mongodb.client.MongoCollection;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.bson.Document;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.annotation.Role;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends the reads of {@link ReplicaRead} methods to secondaries.
+ *
+ * An advisor puts the configured read preference (secondaryPreferred or
+ * nearest, bounded by a maximum staleness) on the calling thread for the
+ * duration of the method, and the MongoTemplate applies the thread's read
+ * preference to every collection it prepares. Writes always go to the primary
+ * regardless, and an outer scope keeps its routing when it calls into an
+ * annotated method.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "lms.read-routing", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ReadRoutingConfig {
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static Advisor replicaReadAdvisor(
+            @Value("${lms.read-routing.read-preference:secondaryPreferred}") String readPreference,
+            @Value("${lms.read-routing.max-staleness:120000}") long maxStalenessMs) {
+        ReadPreference replica = ReadPreference.valueOf(readPreference, List.of(), maxStalenessMs, TimeUnit.MILLISECONDS);
+        MethodInterceptor interceptor = invocation -> {
+            if (ReadRouting.current() != null) {
+                return invocation.proceed();
+            }
+            return ReadRouting.with(replica, () -> {
+                try {
+                    return invocation.proceed();
+                } catch (RuntimeException | Error e) {
+                    throw e;
+                } catch (Throwable e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+        };
+        return new DefaultPointcutAdvisor(AnnotationMatchingPointcut.forMethodAnnotation(ReplicaRead.class), interceptor);
+    }
+
+    // Replaces Boot's default template, which backs off when one is defined
+    @Bean
+    @Profile("!inmemory")
+    public MongoTemplate mongoTemplate(MongoDatabaseFactory mongoDatabaseFactory, MongoConverter mongoConverter) {
+        return new RoutingMongoTemplate(mongoDatabaseFactory, mongoConverter);
+    }
+
+    static class RoutingMongoTemplate extends MongoTemplate {
+
+        RoutingMongoTemplate(MongoDatabaseFactory mongoDatabaseFactory, MongoConverter mongoConverter) {
+            super(mongoDatabaseFactory, mongoConverter);
+        }
+
+        @Override
+        protected MongoCollection<Document> prepareCollection(MongoCollection<Document> collection) {
+            ReadPreference preference = ReadRouting.current();
+            return preference == null ? super.prepareCollection(collection) : collection.withReadPreference(preference);
+        }
+
+        @Override
+        public boolean hasReadPreference() {
+            return ReadRouting.current() != null || super.hasReadPreference();
+        }
+
+        @Override
+        public ReadPreference getReadPreference() {
+            ReadPreference preference = ReadRouting.current();
+            return preference == null ? super.getReadPreference() : preference;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.coursepath.lms.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a read-only service method whose MongoDB reads may be served by a
+ * secondary that lags the primary by up to {@code lms.read-routing.max-staleness}.
+ *
+ * Only use it where slightly stale data is acceptable. Methods that must see
+ * the caller's own writes, and anything that writes, stay unannotated so they
+ * run against the primary.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface ReplicaRead {
+}
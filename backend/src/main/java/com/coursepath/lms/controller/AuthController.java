@@ -3,9 +3,12 @@ package com.coursepath.lms.controller;
 
 import com.coursepath.lms.dto.AuthRequest;
 import com.coursepath.lms.dto.JwtResponse;
+import com.coursepath.lms.dto.RefreshTokenRequest;
 import com.coursepath.lms.dto.RegisterRequest;
+import com.coursepath.lms.model.RefreshToken;
 import com.coursepath.lms.model.User;
 import com.coursepath.lms.security.JwtTokenProvider;
+import com.coursepath.lms.service.RefreshTokenService;
 import com.coursepath.lms.service.UserService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,6 +17,7 @@ import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
@@ -29,6 +33,9 @@ public class AuthController {
     @Autowired
     private JwtTokenProvider tokenProvider;
 
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
     @PostMapping("/login")
     public ResponseEntity<?> login(@Valid @RequestBody AuthRequest request) {
         Authentication authentication = authenticationManager.authenticate(
@@ -38,9 +45,11 @@ public class AuthController {
         String jwt = tokenProvider.generateToken(authentication);
         
         User user = userService.getUserByUsername(request.getUsername());
+        RefreshToken refreshToken = refreshTokenService.createRefreshToken(user.getId());
         
         return ResponseEntity.ok(new JwtResponse(
                 jwt,
+                refreshToken.getToken(),
                 user.getId(),
                 user.getUsername(),
                 user.getName(),
@@ -61,4 +70,35 @@ public class AuthController {
         
         return ResponseEntity.ok("User registered successfully");
     }
+
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@Valid @RequestBody RefreshTokenRequest request) {
+        RefreshToken refreshToken = refreshTokenService.rotate(request.getRefreshToken());
+        User user = userService.getUserById(refreshToken.getUserId());
+        String jwt = tokenProvider.generateToken(user);
+        
+        return ResponseEntity.ok(new JwtResponse(
+                jwt,
+                refreshToken.getToken(),
+                user.getId(),
+                user.getUsername(),
+                user.getName(),
+                user.getEmail(),
+                user.getRole()
+        ));
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(
+            @RequestHeader(value = "Authorization", required = false) String authorization,
+            @RequestBody(required = false) RefreshTokenRequest request) {
+        if (StringUtils.hasText(authorization) && authorization.startsWith("Bearer ")) {
+            tokenProvider.revokeToken(authorization.substring(7));
+        }
+        if (request != null && StringUtils.hasText(request.getRefreshToken())) {
+            refreshTokenService.revoke(request.getRefreshToken());
+        }
+        
+        return ResponseEntity.noContent().build();
+    }
 }
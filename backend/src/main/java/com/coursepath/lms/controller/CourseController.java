@@ -1,22 +1,43 @@
 
 package com.coursepath.lms.controller;
 
+import com.coursepath.lms.dto.ActivityReport;
+import com.coursepath.lms.dto.CourseDeletionView;
+import com.coursepath.lms.dto.CourseSummary;
+import com.coursepath.lms.dto.CourseView;
+import com.coursepath.lms.dto.DashboardPage;
 import com.coursepath.lms.dto.EnrollRequest;
+import com.coursepath.lms.dto.EnrollmentView;
 import com.coursepath.lms.dto.ModuleProgressRequest;
+import com.coursepath.lms.dto.RosterPage;
+import com.coursepath.lms.dto.StreamTicketResponse;
 import com.coursepath.lms.model.Course;
 import com.coursepath.lms.model.Enrollment;
+import com.coursepath.lms.model.Role;
 import com.coursepath.lms.model.User;
+import com.coursepath.lms.security.JwtTokenProvider;
+import com.coursepath.lms.service.ActivityRollupService;
+import com.coursepath.lms.service.CourseDeletionService;
 import com.coursepath.lms.service.CourseService;
+import com.coursepath.lms.service.LiveUpdateService;
 import com.coursepath.lms.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
-import java.util.List;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.stream.Stream;
 
 @RestController
 @RequestMapping("/api/courses")
@@ -27,86 +48,195 @@ public class CourseController {
     
     @Autowired
     private UserService userService;
+    
+    @Autowired
+    private LiveUpdateService liveUpdateService;
+    
+    @Autowired
+    private CourseDeletionService courseDeletionService;
+    
+    @Autowired
+    private ActivityRollupService activityRollupService;
+    
+    @Autowired
+    private JwtTokenProvider tokenProvider;
 
-    // Public endpoints
+    // Public endpoints; courses are returned as views, with enrolled students reduced to a count.
+    // Lists are returned as streams, which Jackson writes element by element.
+    // Module content is only returned to admins and to students enrolled in the course; everyone else gets the
+    // module titles
     
     @GetMapping("/all")
-    public ResponseEntity<List<Course>> getAllCourses() {
-        return ResponseEntity.ok(courseService.getAllCourses());
+    public ResponseEntity<Stream<CourseSummary>> getAllCourses() {
+        return ResponseEntity.ok(courseService.getCourseSummaries());
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<Course> getCourseById(@PathVariable String id) {
-        return ResponseEntity.ok(courseService.getCourseById(id));
+    public ResponseEntity<?> getCourseById(@PathVariable String id) {
+        if (canSeeContent(id)) {
+            return ResponseEntity.ok(courseService.getCourseView(id));
+        }
+        return ResponseEntity.ok(courseService.getCourseSummary(id));
     }
     
     // Admin endpoints
     
     @PostMapping("/admin/create")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<Course> createCourse(@Valid @RequestBody Course course) {
-        return ResponseEntity.ok(courseService.createCourse(course));
+    public ResponseEntity<CourseView> createCourse(@Valid @RequestBody Course course) {
+        return ResponseEntity.ok(CourseView.of(courseService.createCourse(course)));
     }
     
     @PutMapping("/admin/{id}")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<Course> updateCourse(@PathVariable String id, @Valid @RequestBody Course course) {
+    public ResponseEntity<CourseView> updateCourse(@PathVariable String id, @Valid @RequestBody Course course) {
         return ResponseEntity.ok(courseService.updateCourse(id, course));
     }
     
     @DeleteMapping("/admin/{id}")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<?> deleteCourse(@PathVariable String id) {
-        courseService.deleteCourse(id);
-        return ResponseEntity.ok("Course deleted successfully");
+    public ResponseEntity<CourseDeletionView> deleteCourse(@PathVariable String id) {
+        return ResponseEntity.accepted().body(CourseDeletionView.of(courseService.deleteCourse(id)));
+    }
+    
+    @GetMapping("/admin/{id}/deletion")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CourseDeletionView> getCourseDeletion(@PathVariable String id) {
+        return ResponseEntity.ok(CourseDeletionView.of(courseDeletionService.getDeletion(id)));
+    }
+    
+    // Hourly or daily activity from the rollup buckets; from/to are ISO-8601 instants and default to a recent window
+    @GetMapping("/admin/{id}/activity")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ActivityReport> getCourseActivity(
+            @PathVariable String id,
+            @RequestParam(defaultValue = "day") String granularity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to) {
+        return ResponseEntity.ok(activityRollupService.getCourseActivity(id, granularity, from, to));
+    }
+    
+    // Instructor endpoints
+    
+    // Keyset-paginated; pass nextCursor from the previous page as cursor. Instructors only see the roster of
+    // their own courses
+    @GetMapping("/{id}/roster")
+    @PreAuthorize("hasAnyRole('ADMIN','INSTRUCTOR')")
+    public ResponseEntity<RosterPage> getCourseRoster(
+            @PathVariable String id,
+            @RequestParam(defaultValue = "enrolledDate") String sort,
+            @RequestParam(defaultValue = "asc") String direction,
+            @RequestParam(required = false) Double minProgress,
+            @RequestParam(required = false) Double maxProgress,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        User user = (User) authentication.getPrincipal();
+        if (user.getRole() != Role.ADMIN && !teaches(user, id)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Not the instructor of this course");
+        }
+        return ResponseEntity.ok(courseService.getCourseRoster(
+                id, sort, direction, minProgress, maxProgress, cursor, limit));
     }
     
     // Student endpoints
     
     @GetMapping("/enrolled")
     @PreAuthorize("hasRole('STUDENT')")
-    public ResponseEntity<List<Course>> getEnrolledCourses() {
+    public ResponseEntity<Stream<CourseView>> getEnrolledCourses() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         User user = (User) authentication.getPrincipal();
-        return ResponseEntity.ok(courseService.getEnrolledCourses(user.getId()));
+        return ResponseEntity.ok(courseService.getEnrolledCourses(user.getId()).stream().map(CourseView::of));
     }
     
     @PostMapping("/enroll")
     @PreAuthorize("hasRole('STUDENT')")
-    public ResponseEntity<Enrollment> enrollCourse(@Valid @RequestBody EnrollRequest request) {
+    public ResponseEntity<EnrollmentView> enrollCourse(@Valid @RequestBody EnrollRequest request) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         User user = (User) authentication.getPrincipal();
-        return ResponseEntity.ok(courseService.enrollStudent(request.getCourseId(), user.getId()));
+        return ResponseEntity.ok(EnrollmentView.of(courseService.enrollStudent(request.getCourseId(), user.getId())));
     }
     
     @GetMapping("/enrollments")
     @PreAuthorize("hasRole('STUDENT')")
-    public ResponseEntity<List<Enrollment>> getEnrollments() {
+    public ResponseEntity<Stream<EnrollmentView>> getEnrollments() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         User user = (User) authentication.getPrincipal();
-        return ResponseEntity.ok(courseService.getStudentEnrollments(user.getId()));
+        return ResponseEntity.ok(courseService.getStudentEnrollments(user.getId()).stream().map(EnrollmentView::of));
+    }
+    
+    @GetMapping("/dashboard")
+    @PreAuthorize("hasRole('STUDENT')")
+    public ResponseEntity<DashboardPage> getDashboard(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        User user = (User) authentication.getPrincipal();
+        return ResponseEntity.ok(courseService.getStudentDashboard(user.getId(), page, size));
     }
     
     @GetMapping("/enrollment/{courseId}")
     @PreAuthorize("hasRole('STUDENT')")
-    public ResponseEntity<Enrollment> getEnrollment(@PathVariable String courseId) {
+    public ResponseEntity<EnrollmentView> getEnrollment(@PathVariable String courseId) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         User user = (User) authentication.getPrincipal();
-        return ResponseEntity.ok(courseService.getEnrollment(courseId, user.getId()));
+        Enrollment enrollment = courseService.getEnrollment(courseId, user.getId());
+        return ResponseEntity.ok(enrollment == null ? null : EnrollmentView.of(enrollment));
     }
     
     @PostMapping("/progress/{courseId}")
     @PreAuthorize("hasRole('STUDENT')")
-    public ResponseEntity<Enrollment> updateProgress(
+    public ResponseEntity<EnrollmentView> updateProgress(
             @PathVariable String courseId,
             @Valid @RequestBody ModuleProgressRequest request) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         User user = (User) authentication.getPrincipal();
-        return ResponseEntity.ok(courseService.updateProgress(
+        return ResponseEntity.ok(EnrollmentView.of(courseService.updateProgress(
                 courseId,
                 user.getId(),
                 request.getModuleId(),
                 request.isCompleted()
-        ));
+        )));
+    }
+    
+    // Live updates: students get their enrollment/progress changes, admins get per-course enrollment counts.
+    // Browsers open the stream with EventSource, which cannot send headers, so they first exchange their access
+    // token for a short-lived stream ticket and pass that as ?ticket=
+    
+    @PostMapping("/events/ticket")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<StreamTicketResponse> createStreamTicket() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        User user = (User) authentication.getPrincipal();
+        return ResponseEntity.ok(new StreamTicketResponse(
+                tokenProvider.generateStreamTicket(user), tokenProvider.getStreamTicketExpirationInMs()));
+    }
+    
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("isAuthenticated()")
+    public void streamEvents(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        User user = (User) authentication.getPrincipal();
+        if (user.getRole() == Role.ADMIN) {
+            liveUpdateService.subscribeAdmin(request, response);
+        } else {
+            liveUpdateService.subscribeStudent(request, response, user.getId());
+        }
+    }
+    
+    // Courses name their instructor rather than referencing a user, so ownership is matched on the user's name
+    private boolean teaches(User user, String courseId) {
+        return user.getName() != null
+                && user.getName().equals(courseService.getCourseSummary(courseId).getInstructor());
+    }
+    
+    // The user is loaded fresh for every request, so a student sees the content as soon as they have enrolled
+    private boolean canSeeContent(String courseId) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof User user)) {
+            return false;
+        }
+        return user.getRole() == Role.ADMIN
+                || (user.getEnrolledCourses() != null && user.getEnrolledCourses().contains(courseId));
     }
 }
@@ -0,0 +1,33 @@
+package com.coursepath.lms.controller;
+
+import com.coursepath.lms.dto.ProvisioningReport;
+import com.coursepath.lms.service.UserProvisioningService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/api/users")
+public class UserController {
+
+    @Autowired
+    private UserProvisioningService userProvisioningService;
+
+    // Admin endpoints
+
+    // Body is CSV with a header row (username,password,name,email[,role]) or NDJSON with the same fields
+    @PostMapping(value = "/admin/provision", consumes = {"text/csv", "application/x-ndjson"})
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ProvisioningReport> provisionUsers(HttpServletRequest request) throws IOException {
+        UserProvisioningService.Format format = MediaType.parseMediaType(request.getContentType())
+                .isCompatibleWith(MediaType.parseMediaType("text/csv"))
+                ? UserProvisioningService.Format.CSV
+                : UserProvisioningService.Format.NDJSON;
+        return ResponseEntity.ok(userProvisioningService.provision(request.getInputStream(), format));
+    }
+}
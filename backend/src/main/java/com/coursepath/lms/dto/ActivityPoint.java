@@ -0,0 +1,18 @@
+package com.coursepath.lms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActivityPoint {
+    private Instant start;
+    private long enrollments;
+    private long completions;
+    private long reopened;
+    private int activeLearners;
+}
@@ -0,0 +1,25 @@
+package com.coursepath.lms.dto;
+
+import com.coursepath.lms.model.ActivityGranularity;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActivityReport {
+    private String courseId;
+    private ActivityGranularity granularity;
+    private Instant from;
+    private Instant to;
+    // Only buckets with activity are listed
+    private List<ActivityPoint> buckets;
+    private long enrollments;
+    private long completions;
+    // Distinct students active anywhere in the range
+    private int activeLearners;
+}
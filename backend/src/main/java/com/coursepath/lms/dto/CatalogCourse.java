@@ -0,0 +1,15 @@
+package com.coursepath.lms.dto;
+
+import com.coursepath.lms.model.Course;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// A course as the catalog needs it: enrolled student ids are left in the database and only counted
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogCourse {
+    private Course course;
+    private int enrolledCount;
+}
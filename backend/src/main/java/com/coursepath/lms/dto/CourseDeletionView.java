@@ -0,0 +1,26 @@
+package com.coursepath.lms.dto;
+
+import com.coursepath.lms.model.CourseDeletion;
+import com.coursepath.lms.model.DeletionStatus;
+import lombok.Value;
+
+import java.time.Instant;
+
+// Progress of a course's cleanup job, without the lease of the node working on it
+@Value
+public class CourseDeletionView {
+    String id;
+    String title;
+    DeletionStatus status;
+    long enrollmentsRemoved;
+    long usersUpdated;
+    Instant requestedAt;
+    Instant startedAt;
+    Instant completedAt;
+
+    public static CourseDeletionView of(CourseDeletion deletion) {
+        return new CourseDeletionView(deletion.getId(), deletion.getTitle(), deletion.getStatus(),
+                deletion.getEnrollmentsRemoved(), deletion.getUsersUpdated(), deletion.getRequestedAt(),
+                deletion.getStartedAt(), deletion.getCompletedAt());
+    }
+}
@@ -0,0 +1,9 @@
+package com.coursepath.lms.dto;
+
+import lombok.Value;
+
+@Value
+public class CourseEnrollmentCount {
+    String courseId;
+    int enrolledCount;
+}
@@ -0,0 +1,28 @@
+package com.coursepath.lms.dto;
+
+import lombok.Value;
+
+import java.util.List;
+
+// What anyone may see of a course: the outline of its modules, but not their content. Immutable like CourseView
+@Value
+public class CourseSummary {
+    String id;
+    String title;
+    String description;
+    String thumbnail;
+    String instructor;
+    String duration;
+    List<ModuleSummary> modules;
+    int enrolledCount;
+
+    public static CourseSummary of(CourseView view) {
+        return new CourseSummary(view.getId(), view.getTitle(), view.getDescription(), view.getThumbnail(),
+                view.getInstructor(), view.getDuration(), view.getModules().stream().map(ModuleSummary::of).toList(),
+                view.getEnrolledCount());
+    }
+
+    public CourseSummary withEnrolledCount(int enrolledCount) {
+        return new CourseSummary(id, title, description, thumbnail, instructor, duration, modules, enrolledCount);
+    }
+}
@@ -0,0 +1,35 @@
+package com.coursepath.lms.dto;
+
+import com.coursepath.lms.model.Course;
+import lombok.Value;
+
+import java.util.List;
+
+// What clients see of a course: the enrolled student ids are reduced to a count. Immutable, as the course cache
+// hands the same instance to every request
+@Value
+public class CourseView {
+    String id;
+    String title;
+    String description;
+    String thumbnail;
+    String instructor;
+    String duration;
+    List<ModuleView> modules;
+    int enrolledCount;
+
+    public static CourseView of(Course course) {
+        return of(course, course.getEnrolledStudents() == null ? 0 : course.getEnrolledStudents().size());
+    }
+
+    public static CourseView of(Course course, int enrolledCount) {
+        List<ModuleView> modules = course.getModules() == null ? List.of()
+                : course.getModules().stream().map(ModuleView::of).toList();
+        return new CourseView(course.getId(), course.getTitle(), course.getDescription(), course.getThumbnail(),
+                course.getInstructor(), course.getDuration(), modules, enrolledCount);
+    }
+
+    public CourseView withEnrolledCount(int enrolledCount) {
+        return new CourseView(id, title, description, thumbnail, instructor, duration, modules, enrolledCount);
+    }
+}
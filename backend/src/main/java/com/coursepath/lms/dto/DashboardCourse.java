@@ -0,0 +1,24 @@
+package com.coursepath.lms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DashboardCourse {
+    private String enrollmentId;
+    private String courseId;
+    private String title;
+    private String thumbnail;
+    private String instructor;
+    private String duration;
+    private int moduleCount;
+    private int completedModuleCount;
+    private double progress;
+    private LocalDateTime enrolledDate;
+    private LocalDateTime lastActivity;
+}
@@ -0,0 +1,17 @@
+package com.coursepath.lms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DashboardPage {
+    private List<DashboardCourse> items;
+    private int page;
+    private int size;
+    private long total;
+}
@@ -0,0 +1,26 @@
+package com.coursepath.lms.dto;
+
+import com.coursepath.lms.model.Enrollment;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// What a student sees of one of their enrollments
+@Value
+public class EnrollmentView {
+    String id;
+    String courseId;
+    String studentId;
+    LocalDateTime enrolledDate;
+    double progress;
+    List<String> completedModules;
+    LocalDateTime lastActivity;
+
+    public static EnrollmentView of(Enrollment enrollment) {
+        return new EnrollmentView(enrollment.getId(), enrollment.getCourseId(), enrollment.getStudentId(),
+                enrollment.getEnrolledDate(), enrollment.getProgress(),
+                enrollment.getCompletedModules() == null ? List.of() : List.copyOf(enrollment.getCompletedModules()),
+                enrollment.getLastActivity());
+    }
+}
@@ -9,6 +9,7 @@ import lombok.Data;
 @AllArgsConstructor
 public class JwtResponse {
     private String token;
+    private String refreshToken;
     private String type = "Bearer";
     private String id;
     private String username;
@@ -16,8 +17,9 @@ public class JwtResponse {
     private String email;
     private Role role;
     
-    public JwtResponse(String token, String id, String username, String name, String email, Role role) {
+    public JwtResponse(String token, String refreshToken, String id, String username, String name, String email, Role role) {
         this.token = token;
+        this.refreshToken = refreshToken;
         this.id = id;
         this.username = username;
         this.name = name;
@@ -0,0 +1,14 @@
+package com.coursepath.lms.dto;
+
+import lombok.Value;
+
+// A module as listed in the public catalog, without its content or video
+@Value
+public class ModuleSummary {
+    String id;
+    String title;
+
+    public static ModuleSummary of(ModuleView module) {
+        return new ModuleSummary(module.getId(), module.getTitle());
+    }
+}
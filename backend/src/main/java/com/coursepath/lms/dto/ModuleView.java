@@ -0,0 +1,17 @@
+package com.coursepath.lms.dto;
+
+import com.coursepath.lms.model.Module;
+import lombok.Value;
+
+// A module with its content, for admins and enrolled students
+@Value
+public class ModuleView {
+    String id;
+    String title;
+    String content;
+    String videoUrl;
+
+    public static ModuleView of(Module module) {
+        return new ModuleView(module.getId(), module.getTitle(), module.getContent(), module.getVideoUrl());
+    }
+}
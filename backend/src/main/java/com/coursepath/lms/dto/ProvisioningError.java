@@ -0,0 +1,14 @@
+package com.coursepath.lms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProvisioningError {
+    private long line;
+    private String username;
+    private String message;
+}
@@ -0,0 +1,18 @@
+package com.coursepath.lms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProvisioningReport {
+    private long received;
+    private long created;
+    private long failed;
+    // Capped; failed holds the full count
+    private List<ProvisioningError> errors;
+}
@@ -0,0 +1,21 @@
+package com.coursepath.lms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RosterEntry {
+    private String enrollmentId;
+    private String studentId;
+    private String studentName;
+    private String studentUsername;
+    private double progress;
+    private int completedModuleCount;
+    private LocalDateTime enrolledDate;
+    private LocalDateTime lastActivity;
+}
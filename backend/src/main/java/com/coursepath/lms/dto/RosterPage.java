@@ -0,0 +1,16 @@
+package com.coursepath.lms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RosterPage {
+    private List<RosterEntry> items;
+    // Pass back as cursor to get the next page; null on the last page
+    private String nextCursor;
+}
@@ -0,0 +1,11 @@
+package com.coursepath.lms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class StreamTicketResponse {
+    private String ticket;
+    private long expiresIn;
+}
@@ -0,0 +1,46 @@
+package com.coursepath.lms.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "activity_buckets")
+@CompoundIndex(name = "course_granularity_start", def = "{'courseId': 1, 'granularity': 1, 'start': 1}")
+public class ActivityBucket {
+    
+    // Long enough for the longest daily report; learner markers expire with their bucket
+    public static final String RETENTION = "P366D";
+    
+    // courseId:granularity:start, so every node upserts the same document for a bucket
+    @Id
+    private String id;
+    
+    private String courseId;
+    private ActivityGranularity granularity;
+    
+    @Indexed(expireAfter = RETENTION)
+    private Instant start;
+    
+    private long enrollments;
+    private long completions;
+    private long reopened;
+    
+    // Distinct students with any activity in the bucket, counted through their activity_learners markers
+    private long activeLearners;
+    
+    // Id of the last event of the newest rollup batch applied, so a retried batch is not counted twice
+    private String appliedThrough;
+    
+    public static String idOf(String courseId, ActivityGranularity granularity, Instant start) {
+        return courseId + ":" + granularity + ":" + start;
+    }
+}
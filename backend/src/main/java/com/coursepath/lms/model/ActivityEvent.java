@@ -0,0 +1,34 @@
+package com.coursepath.lms.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "activity_events")
+public class ActivityEvent {
+    
+    // Raw events are only kept until long after they have been rolled up
+    public static final String RETENTION = "P30D";
+    
+    // Assigned when the event happens, so ids sort by event time
+    @Id
+    private String id;
+    
+    private String courseId;
+    private String studentId;
+    private ActivityType type;
+    
+    // Null for enrollments
+    private String moduleId;
+    
+    @Indexed(expireAfter = RETENTION)
+    private Instant at;
+}
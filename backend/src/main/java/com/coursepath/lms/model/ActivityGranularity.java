@@ -0,0 +1,24 @@
+package com.coursepath.lms.model;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+public enum ActivityGranularity {
+    HOUR(ChronoUnit.HOURS),
+    DAY(ChronoUnit.DAYS);
+
+    private final ChronoUnit unit;
+
+    ActivityGranularity(ChronoUnit unit) {
+        this.unit = unit;
+    }
+
+    public ChronoUnit getUnit() {
+        return unit;
+    }
+
+    // Start of the UTC bucket the instant falls in
+    public Instant bucketStart(Instant at) {
+        return at.truncatedTo(unit);
+    }
+}
@@ -0,0 +1,42 @@
+package com.coursepath.lms.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+// Marks a student as active in one activity bucket, so distinct learners are counted without listing them in the bucket
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "activity_learners")
+public class ActivityLearner {
+    
+    // bucket id:studentId, so a student is marked at most once per bucket. Bucket ids sort by start within a course
+    // and granularity, so the markers of a range of buckets are one range of ids
+    @Id
+    private String id;
+    
+    private String courseId;
+    private ActivityGranularity granularity;
+    
+    @Indexed(expireAfter = ActivityBucket.RETENTION)
+    private Instant start;
+    private String studentId;
+    
+    // Last event id of the rollup batch that first saw the student in the bucket
+    @Indexed
+    private String firstBatch;
+    
+    public static String idOf(String bucketId, String studentId) {
+        return bucketId + ":" + studentId;
+    }
+    
+    public static String studentIdOf(String id) {
+        return id.substring(id.lastIndexOf(':') + 1);
+    }
+}
@@ -0,0 +1,31 @@
+package com.coursepath.lms.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "activity_rollups")
+public class ActivityRollupCheckpoint {
+    
+    @Id
+    private String id;
+    
+    // Every event up to and including this id is in the buckets
+    private String lastEventId;
+    
+    // Last event of the batch being applied; a resumed rollup re-applies exactly that batch
+    private String pendingThrough;
+    
+    private long eventsRolledUp;
+    private Instant updatedAt;
+    
+    private String owner;
+    private Instant leaseUntil;
+}
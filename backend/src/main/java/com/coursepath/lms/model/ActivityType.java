@@ -0,0 +1,7 @@
+package com.coursepath.lms.model;
+
+public enum ActivityType {
+    ENROLLED,
+    MODULE_COMPLETED,
+    MODULE_REOPENED
+}
@@ -7,6 +7,7 @@ import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Data
@@ -25,4 +26,7 @@ public class Course {
     private String duration;
     private List<Module> modules;
     private List<String> enrolledStudents;
+    
+    // Set when an admin deletes the course; the course stays hidden until its cleanup job removes it
+    private LocalDateTime deletedAt;
 }
@@ -0,0 +1,37 @@
+package com.coursepath.lms.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "course_deletions")
+public class CourseDeletion {
+    
+    // Id of the course being deleted
+    @Id
+    private String id;
+    
+    private String title;
+    
+    @Indexed
+    private DeletionStatus status;
+    
+    private long enrollmentsRemoved;
+    private long usersUpdated;
+    
+    private Instant requestedAt;
+    private Instant startedAt;
+    private Instant completedAt;
+    
+    // Node currently working on the job and how long its claim lasts without a renewal
+    private String owner;
+    private Instant leaseUntil;
+}
@@ -0,0 +1,27 @@
+package com.coursepath.lms.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "course_versions")
+public class CourseVersion {
+    
+    // Same id as the course it stamps
+    @Id
+    private String id;
+    
+    private long version;
+    
+    // Set from the database server clock so nodes with skewed clocks agree on ordering
+    @Indexed
+    private Date updatedAt;
+}
@@ -0,0 +1,7 @@
+package com.coursepath.lms.model;
+
+public enum DeletionStatus {
+    PENDING,
+    IN_PROGRESS,
+    COMPLETED
+}
@@ -5,6 +5,9 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
@@ -14,14 +17,25 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "enrollments")
+@CompoundIndexes({
+    // One enrollment per student and course, however many requests or reconciler runs race to create it
+    @CompoundIndex(name = "course_student", def = "{'courseId': 1, 'studentId': 1}", unique = true),
+    // Keyset pagination of a course roster; descending pages walk the same indexes backwards
+    @CompoundIndex(name = "course_enrolled", def = "{'courseId': 1, 'enrolledDate': 1, '_id': 1}"),
+    @CompoundIndex(name = "course_progress", def = "{'courseId': 1, 'progress': 1, '_id': 1}")
+})
 public class Enrollment {
     
     @Id
     private String id;
     
     private String courseId;
+    
+    @Indexed
     private String studentId;
+    
     private LocalDateTime enrolledDate;
     private double progress;
     private List<String> completedModules;
+    private LocalDateTime lastActivity;
 }
@@ -0,0 +1,39 @@
+package com.coursepath.lms.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "progress_recalculations")
+public class ProgressRecalculation {
+    
+    // Id of the course whose modules changed
+    @Id
+    private String id;
+    
+    // Bumped on every module change; a pass is finished only if no newer request arrived meanwhile
+    private long requested;
+    
+    @Indexed
+    private boolean pending;
+    
+    // Request the checkpoint belongs to, and every enrollment up to this student id has been recalculated
+    private long pass;
+    private String lastStudentId;
+    
+    private long enrollmentsUpdated;
+    
+    private Instant requestedAt;
+    private Instant completedAt;
+    
+    private String owner;
+    private Instant leaseUntil;
+}
@@ -0,0 +1,27 @@
+package com.coursepath.lms.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "reconciler_checkpoints")
+public class ReconcilerCheckpoint {
+    
+    // Name of the reconciliation phase
+    @Id
+    private String id;
+    
+    // Every document up to and including this id has been reconciled
+    private String lastId;
+    
+    private boolean completed;
+    
+    private Instant updatedAt;
+}
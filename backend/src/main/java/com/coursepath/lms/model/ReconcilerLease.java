@@ -0,0 +1,23 @@
+package com.coursepath.lms.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "reconciler_leases")
+public class ReconcilerLease {
+    
+    @Id
+    private String id;
+    
+    // Node running the reconciliation; only it may checkpoint until the lease lapses
+    private String owner;
+    private Instant leaseUntil;
+}
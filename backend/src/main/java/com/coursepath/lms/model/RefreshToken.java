@@ -0,0 +1,32 @@
+package com.coursepath.lms.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "refresh_tokens")
+public class RefreshToken {
+    
+    @Id
+    private String id;
+    
+    @Indexed(unique = true)
+    private String token;
+    
+    @Indexed
+    private String userId;
+    
+    @Indexed(expireAfterSeconds = 0)
+    private Instant expiryDate;
+    
+    // Set when the token is exchanged; a used token is kept until it expires so replays can be detected
+    private Instant usedAt;
+}
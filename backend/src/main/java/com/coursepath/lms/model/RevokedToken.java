@@ -0,0 +1,28 @@
+package com.coursepath.lms.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "revoked_tokens")
+public class RevokedToken {
+    
+    // JWT id (jti) of the revoked access token
+    @Id
+    private String id;
+    
+    @Indexed
+    private Instant revokedAt;
+    
+    // Revocations are only needed until the token would have expired anyway
+    @Indexed(expireAfterSeconds = 0)
+    private Instant expiresAt;
+}
@@ -35,6 +35,7 @@ public class User implements UserDetails {
     
     private Role role;
     
+    @Indexed
     private List<String> enrolledCourses;
     
     @Override
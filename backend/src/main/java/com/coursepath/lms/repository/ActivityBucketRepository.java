@@ -0,0 +1,14 @@
+package com.coursepath.lms.repository;
+
+import com.coursepath.lms.model.ActivityBucket;
+import com.coursepath.lms.model.ActivityGranularity;
+import org.springframework.data.domain.Range;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface ActivityBucketRepository extends MongoRepository<ActivityBucket, String>, ActivityBucketRepositoryCustom {
+    List<ActivityBucket> findByCourseIdAndGranularityAndStartBetweenOrderByStartAsc(
+            String courseId, ActivityGranularity granularity, Range<Instant> start);
+}
@@ -0,0 +1,9 @@
+package com.coursepath.lms.repository;
+
+import com.coursepath.lms.model.ActivityBucket;
+
+import java.util.Collection;
+
+public interface ActivityBucketRepositoryCustom {
+    void apply(Collection<ActivityBucket> deltas, String through);
+}
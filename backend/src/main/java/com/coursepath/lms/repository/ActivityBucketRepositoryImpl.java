@@ -0,0 +1,53 @@
+package com.coursepath.lms.repository;
+
+import com.coursepath.lms.model.ActivityBucket;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Collection;
+
+public class ActivityBucketRepositoryImpl implements ActivityBucketRepositoryCustom {
+
+    private static final int DUPLICATE_KEY = 11000;
+
+    private final MongoTemplate mongoTemplate;
+
+    public ActivityBucketRepositoryImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    // Adds a batch's counts with one unordered bulk of upserts. A bucket that already applied this batch
+    // does not match the filter, so its upsert fails on the _id and is skipped
+    @Override
+    public void apply(Collection<ActivityBucket> deltas, String through) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ActivityBucket.class);
+        for (ActivityBucket delta : deltas) {
+            Query query = Query.query(Criteria.where("_id").is(delta.getId())
+                    .and("appliedThrough").not().gte(through));
+            Update update = new Update()
+                    .inc("enrollments", delta.getEnrollments())
+                    .inc("completions", delta.getCompletions())
+                    .inc("reopened", delta.getReopened())
+                    .inc("activeLearners", delta.getActiveLearners())
+                    .set("appliedThrough", through)
+                    .setOnInsert("courseId", delta.getCourseId())
+                    .setOnInsert("granularity", delta.getGranularity())
+                    .setOnInsert("start", delta.getStart());
+            bulk.upsert(query, update);
+        }
+        try {
+            bulk.execute();
+        } catch (BulkOperationException e) {
+            if (e.getErrors().stream().anyMatch(error -> error.getCode() != DUPLICATE_KEY)) {
+                throw e;
+            }
+        }
+    }
+}
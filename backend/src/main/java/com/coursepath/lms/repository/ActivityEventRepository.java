@@ -0,0 +1,7 @@
+package com.coursepath.lms.repository;
+
+import com.coursepath.lms.model.ActivityEvent;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface ActivityEventRepository extends MongoRepository<ActivityEvent, String>, ActivityEventRepositoryCustom {
+}
@@ -0,0 +1,9 @@
+package com.coursepath.lms.repository;
+
+import com.coursepath.lms.model.ActivityEvent;
+
+import java.util.List;
+
+public interface ActivityEventRepositoryCustom {
+    List<ActivityEvent> findBatch(String afterId, String throughId, int limit);
+}
@@ -0,0 +1,29 @@
+package com.coursepath.lms.repository;
+
+import com.coursepath.lms.model.ActivityEvent;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.List;
+
+public class ActivityEventRepositoryImpl implements ActivityEventRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    public ActivityEventRepositoryImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    // Events after afterId up to and including throughId, in id (event time) order, walked on the _id index
+    @Override
+    public List<ActivityEvent> findBatch(String afterId, String throughId, int limit) {
+        Criteria range = Criteria.where("_id").lte(new ObjectId(throughId));
+        if (afterId != null) {
+            range.gt(new ObjectId(afterId));
+        }
+        return mongoTemplate.find(Query.query(range).with(Sort.by("_id")).limit(limit), ActivityEvent.class);
+    }
+}
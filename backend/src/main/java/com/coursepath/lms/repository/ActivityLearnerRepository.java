@@ -0,0 +1,7 @@
+package com.coursepath.lms.repository;
+
+import com.coursepath.lms.model.ActivityLearner;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface ActivityLearnerRepository extends MongoRepository<ActivityLearner, String>, ActivityLearnerRepositoryCustom {
+}
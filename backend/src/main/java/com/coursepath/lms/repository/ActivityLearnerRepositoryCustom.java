@@ -0,0 +1,13 @@
+package com.coursepath.lms.repository;
+
+import com.coursepath.lms.model.ActivityGranularity;
+import com.coursepath.lms.model.ActivityLearner;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Map;
+
+public interface ActivityLearnerRepositoryCustom {
+    Map<String, Long> mark(Collection<ActivityLearner> learners, String through);
+    long countDistinctLearners(String courseId, ActivityGranularity granularity, Instant from, Instant to);
+}
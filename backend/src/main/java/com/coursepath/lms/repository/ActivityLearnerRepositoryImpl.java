@@ -0,0 +1,86 @@
+package com.coursepath.lms.repository;
+
+import com.coursepath.lms.model.ActivityBucket;
+import com.coursepath.lms.model.ActivityGranularity;
+import com.coursepath.lms.model.ActivityLearner;
+import org.bson.Document;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.ArrayOperators;
+import org.springframework.data.mongodb.core.aggregation.StringOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+public class ActivityLearnerRepositoryImpl implements ActivityLearnerRepositoryCustom {
+
+    private static final int DUPLICATE_KEY = 11000;
+
+    private final MongoTemplate mongoTemplate;
+
+    public ActivityLearnerRepositoryImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    // Inserts the markers that do not exist yet, tagged with the batch, and returns per bucket id how many markers
+    // that batch inserted. A retried batch finds the markers its first attempt inserted and returns the same counts
+    @Override
+    public Map<String, Long> mark(Collection<ActivityLearner> learners, String through) {
+        Map<String, Long> counts = new HashMap<>();
+        if (learners.isEmpty()) {
+            return counts;
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ActivityLearner.class);
+        for (ActivityLearner learner : learners) {
+            bulk.upsert(Query.query(Criteria.where("_id").is(learner.getId())), new Update()
+                    .setOnInsert("courseId", learner.getCourseId())
+                    .setOnInsert("granularity", learner.getGranularity())
+                    .setOnInsert("start", learner.getStart())
+                    .setOnInsert("studentId", learner.getStudentId())
+                    .setOnInsert("firstBatch", through));
+        }
+        try {
+            bulk.execute();
+        } catch (BulkOperationException e) {
+            if (e.getErrors().stream().anyMatch(error -> error.getCode() != DUPLICATE_KEY)) {
+                throw e;
+            }
+        }
+
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("firstBatch").is(through)),
+                Aggregation.group("courseId", "granularity", "start").count().as("learners"));
+        for (Document bucket : mongoTemplate.aggregate(aggregation, ActivityLearner.class, Document.class)) {
+            Document key = bucket.get("_id", Document.class);
+            String id = ActivityBucket.idOf(key.getString("courseId"),
+                    ActivityGranularity.valueOf(key.getString("granularity")), key.getDate("start").toInstant());
+            counts.put(id, ((Number) bucket.get("learners")).longValue());
+        }
+        return counts;
+    }
+
+    // Scans the _id index over the markers of the buckets in the range and counts each student once; only the ids
+    // are read, so the markers themselves are never loaded
+    @Override
+    public long countDistinctLearners(String courseId, ActivityGranularity granularity, Instant from, Instant to) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("_id")
+                        .gte(ActivityBucket.idOf(courseId, granularity, from))
+                        .lt(ActivityBucket.idOf(courseId, granularity, to))),
+                Aggregation.project()
+                        .and(ArrayOperators.ArrayElemAt.arrayOf(StringOperators.valueOf("_id").split(":")).elementAt(-1))
+                        .as("studentId"),
+                Aggregation.group("studentId"),
+                Aggregation.count().as("learners"));
+        Document result = mongoTemplate.aggregate(aggregation, ActivityLearner.class, Document.class)
+                .getUniqueMappedResult();
+        return result == null ? 0 : ((Number) result.get("learners")).longValue();
+    }
+}
@@ -0,0 +1,8 @@
+package com.coursepath.lms.repository;
+
+import com.coursepath.lms.model.ActivityRollupCheckpoint;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface ActivityRollupCheckpointRepository extends MongoRepository<ActivityRollupCheckpoint, String>,
+        ActivityRollupCheckpointRepositoryCustom {
+}
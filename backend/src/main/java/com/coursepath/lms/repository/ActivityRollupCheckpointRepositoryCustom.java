@@ -0,0 +1,12 @@
+package com.coursepath.lms.repository;
+
+import com.coursepath.lms.model.ActivityRollupCheckpoint;
+
+import java.time.Instant;
+import java.util.Optional;
+
+public interface ActivityRollupCheckpointRepositoryCustom {
+    Optional<ActivityRollupCheckpoint> claim(String id, String owner, Instant leaseUntil);
+    boolean advance(ActivityRollupCheckpoint checkpoint);
+    void release(String id, String owner);
+}
@@ -0,0 +1,61 @@
+package com.coursepath.lms.repository;
+
+import com.coursepath.lms.model.ActivityRollupCheckpoint;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.Optional;
+
+public class ActivityRollupCheckpointRepositoryImpl implements ActivityRollupCheckpointRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    public ActivityRollupCheckpointRepositoryImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    // Creates the checkpoint on first use, then takes it if unowned, already ours, or the owner let the lease lapse
+    @Override
+    public Optional<ActivityRollupCheckpoint> claim(String id, String owner, Instant leaseUntil) {
+        Query query = Query.query(Criteria.where("_id").is(id)
+                .orOperator(
+                        Criteria.where("owner").is(null),
+                        Criteria.where("owner").is(owner),
+                        Criteria.where("leaseUntil").lt(Instant.now())));
+        try {
+            return Optional.of(mongoTemplate.findAndModify(query,
+                    new Update().set("owner", owner).set("leaseUntil", leaseUntil),
+                    FindAndModifyOptions.options().upsert(true).returnNew(true), ActivityRollupCheckpoint.class));
+        } catch (DuplicateKeyException e) {
+            // Held by another node: the upsert tried to insert a second checkpoint
+            return Optional.empty();
+        }
+    }
+
+    // Writes the progress and renews the lease only while the checkpoint's owner still holds it
+    @Override
+    public boolean advance(ActivityRollupCheckpoint checkpoint) {
+        return mongoTemplate.updateFirst(owned(checkpoint.getId(), checkpoint.getOwner()), new Update()
+                        .set("lastEventId", checkpoint.getLastEventId())
+                        .set("pendingThrough", checkpoint.getPendingThrough())
+                        .set("eventsRolledUp", checkpoint.getEventsRolledUp())
+                        .set("updatedAt", checkpoint.getUpdatedAt())
+                        .set("leaseUntil", checkpoint.getLeaseUntil()),
+                ActivityRollupCheckpoint.class).getMatchedCount() > 0;
+    }
+
+    @Override
+    public void release(String id, String owner) {
+        mongoTemplate.updateFirst(owned(id, owner), new Update().unset("owner").unset("leaseUntil"),
+                ActivityRollupCheckpoint.class);
+    }
+
+    private static Query owned(String id, String owner) {
+        return Query.query(Criteria.where("_id").is(id).and("owner").is(owner));
+    }
+}
@@ -0,0 +1,11 @@
+package com.coursepath.lms.repository;
+
+import com.coursepath.lms.model.CourseDeletion;
+import com.coursepath.lms.model.DeletionStatus;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.util.List;
+
+public interface CourseDeletionRepository extends MongoRepository<CourseDeletion, String>, CourseDeletionRepositoryCustom {
+    List<CourseDeletion> findByStatusNot(DeletionStatus status);
+}
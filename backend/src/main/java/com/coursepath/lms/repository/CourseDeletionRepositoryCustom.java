@@ -0,0 +1,11 @@
+package com.coursepath.lms.repository;
+
+import com.coursepath.lms.model.CourseDeletion;
+
+import java.time.Instant;
+import java.util.Optional;
+
+public interface CourseDeletionRepositoryCustom {
+    Optional<CourseDeletion> claim(String id, String owner, Instant leaseUntil);
+    boolean checkpoint(CourseDeletion deletion, String owner);
+}
@@ -0,0 +1,53 @@
+package com.coursepath.lms.repository;
+
+import com.coursepath.lms.model.CourseDeletion;
+import com.coursepath.lms.model.DeletionStatus;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.Optional;
+
+public class CourseDeletionRepositoryImpl implements CourseDeletionRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    public CourseDeletionRepositoryImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    // Atomically takes an unfinished job that is unowned, already ours, or whose owner let the lease lapse
+    @Override
+    public Optional<CourseDeletion> claim(String id, String owner, Instant leaseUntil) {
+        Query query = Query.query(Criteria.where("_id").is(id)
+                .and("status").ne(DeletionStatus.COMPLETED)
+                .orOperator(
+                        Criteria.where("owner").is(null),
+                        Criteria.where("owner").is(owner),
+                        Criteria.where("leaseUntil").lt(Instant.now())));
+        Update update = new Update()
+                .set("status", DeletionStatus.IN_PROGRESS)
+                .set("owner", owner)
+                .set("leaseUntil", leaseUntil);
+        return Optional.ofNullable(mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().returnNew(true), CourseDeletion.class));
+    }
+
+    // Writes the job's progress only while owner still holds it; false once another node has taken it over
+    @Override
+    public boolean checkpoint(CourseDeletion deletion, String owner) {
+        Query query = Query.query(Criteria.where("_id").is(deletion.getId()).and("owner").is(owner));
+        Update update = new Update()
+                .set("status", deletion.getStatus())
+                .set("enrollmentsRemoved", deletion.getEnrollmentsRemoved())
+                .set("usersUpdated", deletion.getUsersUpdated())
+                .set("startedAt", deletion.getStartedAt())
+                .set("completedAt", deletion.getCompletedAt())
+                .set("owner", deletion.getOwner())
+                .set("leaseUntil", deletion.getLeaseUntil());
+        return mongoTemplate.updateFirst(query, update, CourseDeletion.class).getMatchedCount() > 0;
+    }
+}
@@ -0,0 +1,22 @@
+package com.coursepath.lms.repository;
+
+import com.coursepath.lms.dto.CatalogCourse;
+import com.coursepath.lms.model.Course;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+
+public interface CourseRepositoryCustom {
+    Optional<CatalogCourse> findCatalogCourse(String id);
+    List<CatalogCourse> findCatalogCourses();
+    Map<String, Integer> countEnrolledStudents();
+    OptionalInt addEnrolledStudent(String courseId, String studentId);
+    boolean updateDetails(String id, Course details);
+    Optional<Course> markDeleted(String id, LocalDateTime deletedAt);
+    Optional<List<String>> findModuleIds(String courseId);
+    Map<String, List<String>> findModuleIds(Collection<String> courseIds);
+}
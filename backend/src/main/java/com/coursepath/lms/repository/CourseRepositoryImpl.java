@@ -0,0 +1,134 @@
+package com.coursepath.lms.repository;
+
+import com.coursepath.lms.dto.CatalogCourse;
+import com.coursepath.lms.model.Course;
+import com.coursepath.lms.model.Module;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.stream.Collectors;
+
+public class CourseRepositoryImpl implements CourseRepositoryCustom {
+
+    private static final Document ENROLLED_COUNT = new Document("$size",
+            new Document("$ifNull", List.of("$enrolledStudents", List.of())));
+
+    private final MongoTemplate mongoTemplate;
+
+    public CourseRepositoryImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Optional<CatalogCourse> findCatalogCourse(String id) {
+        return findCatalog(Criteria.where("_id").is(id).and("deletedAt").is(null)).stream().findFirst();
+    }
+
+    @Override
+    public List<CatalogCourse> findCatalogCourses() {
+        return findCatalog(Criteria.where("deletedAt").is(null));
+    }
+
+    // Only ids and counts cross the wire, however many students each course has
+    @Override
+    public Map<String, Integer> countEnrolledStudents() {
+        return countEnrolledStudents(Criteria.where("deletedAt").is(null));
+    }
+
+    // The new count when the student was added, empty when they were already enrolled or the course is gone
+    @Override
+    public OptionalInt addEnrolledStudent(String courseId, String studentId) {
+        Criteria course = Criteria.where("_id").is(courseId).and("deletedAt").is(null);
+        long modified = mongoTemplate.updateFirst(Query.query(course),
+                new Update().addToSet("enrolledStudents", studentId), Course.class).getModifiedCount();
+        if (modified == 0) {
+            return OptionalInt.empty();
+        }
+        return countEnrolledStudents(course).values().stream().mapToInt(Integer::intValue).findFirst();
+    }
+
+    // Sets only the fields an admin edits, so concurrent enrollments and deletion are never written over
+    @Override
+    public boolean updateDetails(String id, Course details) {
+        Query query = Query.query(Criteria.where("_id").is(id).and("deletedAt").is(null));
+        Update update = new Update()
+                .set("title", details.getTitle())
+                .set("description", details.getDescription())
+                .set("thumbnail", details.getThumbnail())
+                .set("instructor", details.getInstructor())
+                .set("duration", details.getDuration())
+                .set("modules", details.getModules());
+        return mongoTemplate.updateFirst(query, update, Course.class).getMatchedCount() > 0;
+    }
+
+    // Returns the course without its roster, or empty if it does not exist or is already being deleted
+    @Override
+    public Optional<Course> markDeleted(String id, LocalDateTime deletedAt) {
+        Query query = Query.query(Criteria.where("_id").is(id).and("deletedAt").is(null));
+        query.fields().exclude("enrolledStudents");
+        return Optional.ofNullable(mongoTemplate.findAndModify(query, new Update().set("deletedAt", deletedAt),
+                FindAndModifyOptions.options().returnNew(true), Course.class));
+    }
+
+    // Reads nothing but the module ids, empty if the course does not exist or is being deleted
+    @Override
+    public Optional<List<String>> findModuleIds(String courseId) {
+        Query query = Query.query(Criteria.where("_id").is(courseId).and("deletedAt").is(null));
+        query.fields().include("modules.id");
+        return Optional.ofNullable(mongoTemplate.findOne(query, Course.class))
+                .map(CourseRepositoryImpl::moduleIds);
+    }
+
+    // One query for all the courses, keyed by course id; courses that are gone or being deleted are left out
+    @Override
+    public Map<String, List<String>> findModuleIds(Collection<String> courseIds) {
+        Query query = Query.query(Criteria.where("_id").in(courseIds).and("deletedAt").is(null));
+        query.fields().include("modules.id");
+        Map<String, List<String>> moduleIds = new HashMap<>();
+        for (Course course : mongoTemplate.find(query, Course.class)) {
+            moduleIds.put(course.getId(), moduleIds(course));
+        }
+        return moduleIds;
+    }
+
+    private static List<String> moduleIds(Course course) {
+        return course.getModules() == null ? List.of()
+                : course.getModules().stream().map(Module::getId).collect(Collectors.toList());
+    }
+
+    private Map<String, Integer> countEnrolledStudents(Criteria criteria) {
+        TypedAggregation<Course> aggregation = Aggregation.newAggregation(Course.class,
+                Aggregation.match(criteria),
+                Aggregation.stage(new Document("$project", new Document("enrolledCount", ENROLLED_COUNT))));
+        Map<String, Integer> counts = new HashMap<>();
+        for (Document document : mongoTemplate.aggregate(aggregation, Document.class)) {
+            counts.put(document.getObjectId("_id").toHexString(), document.getInteger("enrolledCount"));
+        }
+        return counts;
+    }
+
+    // The enrolled student ids are counted on the server and dropped before the course is returned
+    private List<CatalogCourse> findCatalog(Criteria criteria) {
+        TypedAggregation<Course> aggregation = Aggregation.newAggregation(Course.class,
+                Aggregation.match(criteria),
+                Aggregation.stage(new Document("$addFields", new Document("enrolledCount", ENROLLED_COUNT))),
+                Aggregation.stage(new Document("$project", new Document("enrolledStudents", 0))));
+        return mongoTemplate.aggregate(aggregation, Document.class).getMappedResults().stream()
+                .map(document -> new CatalogCourse(mongoTemplate.getConverter().read(Course.class, document),
+                        document.getInteger("enrolledCount")))
+                .collect(Collectors.toList());
+    }
+}
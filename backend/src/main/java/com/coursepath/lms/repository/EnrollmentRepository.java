@@ -7,7 +7,7 @@ import org.springframework.data.mongodb.repository.MongoRepository;
 import java.util.List;
 import java.util.Optional;
 
-public interface EnrollmentRepository extends MongoRepository<Enrollment, String> {
+public interface EnrollmentRepository extends MongoRepository<Enrollment, String>, EnrollmentRepositoryCustom {
     List<Enrollment> findByStudentId(String studentId);
     Optional<Enrollment> findByCourseIdAndStudentId(String courseId, String studentId);
 }
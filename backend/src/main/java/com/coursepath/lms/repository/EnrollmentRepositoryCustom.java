@@ -0,0 +1,15 @@
+package com.coursepath.lms.repository;
+
+import com.coursepath.lms.dto.DashboardPage;
+import com.coursepath.lms.dto.RosterEntry;
+import com.coursepath.lms.model.Enrollment;
+
+import java.util.List;
+
+public interface EnrollmentRepositoryCustom {
+    DashboardPage findStudentDashboard(String studentId, int page, int size);
+    long deleteBatchByCourseId(String courseId, int limit);
+    List<RosterEntry> findCourseRoster(String courseId, String sortBy, boolean descending, Double minProgress,
+                                       Double maxProgress, Enrollment after, int limit);
+    List<String> recalculateProgressBatch(String courseId, List<String> moduleIds, String afterStudentId, int limit);
+}
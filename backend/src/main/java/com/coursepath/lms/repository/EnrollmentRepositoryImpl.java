@@ -0,0 +1,182 @@
+package com.coursepath.lms.repository;
+
+import com.coursepath.lms.dto.DashboardCourse;
+import com.coursepath.lms.dto.DashboardPage;
+import com.coursepath.lms.dto.RosterEntry;
+import com.coursepath.lms.model.Enrollment;
+import com.coursepath.lms.model.User;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+public class EnrollmentRepositoryImpl implements EnrollmentRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    public EnrollmentRepositoryImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    // One round trip: the student's enrollments joined to course headers only, paged with a total count
+    @Override
+    public DashboardPage findStudentDashboard(String studentId, int page, int size) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("studentId").is(studentId)),
+                Aggregation.stage(new Document("$lookup", new Document("from", "courses")
+                        .append("let", new Document("courseId", new Document("$toObjectId", "$courseId")))
+                        .append("pipeline", List.of(
+                                new Document("$match", new Document("$expr",
+                                        new Document("$eq", List.of("$_id", "$$courseId")))
+                                        .append("deletedAt", null)),
+                                new Document("$project", new Document("title", 1)
+                                        .append("thumbnail", 1)
+                                        .append("instructor", 1)
+                                        .append("duration", 1)
+                                        .append("moduleCount", new Document("$size",
+                                                new Document("$ifNull", List.of("$modules", List.of())))))))
+                        .append("as", "course"))),
+                Aggregation.unwind("course"),
+                Aggregation.stage(new Document("$sort", new Document("lastActivity", -1)
+                        .append("enrolledDate", -1)
+                        .append("_id", 1))),
+                Aggregation.stage(new Document("$facet", new Document("items", List.of(
+                        new Document("$skip", (long) page * size),
+                        new Document("$limit", size),
+                        new Document("$project", new Document("_id", 0)
+                                .append("enrollmentId", new Document("$toString", "$_id"))
+                                .append("courseId", 1)
+                                .append("title", "$course.title")
+                                .append("thumbnail", "$course.thumbnail")
+                                .append("instructor", "$course.instructor")
+                                .append("duration", "$course.duration")
+                                .append("moduleCount", "$course.moduleCount")
+                                .append("completedModuleCount", new Document("$size",
+                                        new Document("$ifNull", List.of("$completedModules", List.of()))))
+                                .append("progress", 1)
+                                .append("enrolledDate", 1)
+                                .append("lastActivity", 1))))
+                        .append("total", List.of(new Document("$count", "count")))))
+        );
+
+        Document result = mongoTemplate.aggregate(aggregation, "enrollments", Document.class).getUniqueMappedResult();
+
+        List<DashboardCourse> items = new ArrayList<>();
+        long total = 0;
+        if (result != null) {
+            for (Document item : result.getList("items", Document.class)) {
+                items.add(mongoTemplate.getConverter().read(DashboardCourse.class, item));
+            }
+            List<Document> count = result.getList("total", Document.class);
+            total = count.isEmpty() ? 0 : ((Number) count.get(0).get("count")).longValue();
+        }
+        return new DashboardPage(items, page, size, total);
+    }
+
+    // Keyset pagination along the course_enrolled / course_progress indexes: the page starts strictly after
+    // the (sort value, _id) of the previous page's last entry, so deep pages cost the same as the first
+    @Override
+    public List<RosterEntry> findCourseRoster(String courseId, String sortBy, boolean descending, Double minProgress,
+                                              Double maxProgress, Enrollment after, int limit) {
+        Criteria criteria = Criteria.where("courseId").is(courseId);
+        if (minProgress != null || maxProgress != null) {
+            Criteria progress = criteria.and("progress");
+            if (minProgress != null) {
+                progress.gte(minProgress);
+            }
+            if (maxProgress != null) {
+                progress.lte(maxProgress);
+            }
+        }
+        if (after != null) {
+            Object value = new BeanWrapperImpl(after).getPropertyValue(sortBy);
+            ObjectId afterId = new ObjectId(after.getId());
+            criteria.orOperator(
+                    descending ? Criteria.where(sortBy).lt(value) : Criteria.where(sortBy).gt(value),
+                    descending ? Criteria.where(sortBy).is(value).and("_id").lt(afterId)
+                            : Criteria.where(sortBy).is(value).and("_id").gt(afterId));
+        }
+        Sort.Direction direction = descending ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Query query = Query.query(criteria).with(Sort.by(direction, sortBy, "_id")).limit(limit);
+        query.fields().include("studentId", "progress", "completedModules", "enrolledDate", "lastActivity");
+        List<Enrollment> enrollments = mongoTemplate.find(query, Enrollment.class);
+
+        // One query for all display names on the page
+        Query students = Query.query(Criteria.where("_id").in(enrollments.stream()
+                .map(Enrollment::getStudentId)
+                .filter(ObjectId::isValid)
+                .map(ObjectId::new)
+                .collect(Collectors.toSet())));
+        students.fields().include("name", "username");
+        Map<String, User> users = mongoTemplate.find(students, User.class).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        return enrollments.stream().map(enrollment -> {
+            User user = users.get(enrollment.getStudentId());
+            return new RosterEntry(
+                    enrollment.getId(),
+                    enrollment.getStudentId(),
+                    user == null ? null : user.getName(),
+                    user == null ? null : user.getUsername(),
+                    enrollment.getProgress(),
+                    enrollment.getCompletedModules() == null ? 0 : enrollment.getCompletedModules().size(),
+                    enrollment.getEnrolledDate(),
+                    enrollment.getLastActivity());
+        }).collect(Collectors.toList());
+    }
+
+    // Removes at most limit enrollments so each batch stays a short, bounded write
+    @Override
+    public long deleteBatchByCourseId(String courseId, int limit) {
+        Query query = Query.query(Criteria.where("courseId").is(courseId)).limit(limit);
+        query.fields().include("_id");
+        List<Object> ids = mongoTemplate.find(query, Document.class, "enrollments").stream()
+                .map(document -> document.get("_id"))
+                .collect(Collectors.toList());
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return mongoTemplate.remove(Query.query(Criteria.where("_id").in(ids)), "enrollments").getDeletedCount();
+    }
+
+    // Walks the course's enrollments in studentId order along the course_student index. The update is a
+    // pipeline, so completedModules is filtered and progress recomputed on the server without reading them.
+    // Returns the student ids of the batch; fewer than limit means the course is done.
+    @Override
+    public List<String> recalculateProgressBatch(String courseId, List<String> moduleIds, String afterStudentId,
+                                                 int limit) {
+        Criteria criteria = Criteria.where("courseId").is(courseId);
+        if (afterStudentId != null) {
+            criteria = criteria.and("studentId").gt(afterStudentId);
+        }
+        Query query = Query.query(criteria).with(Sort.by("studentId")).limit(limit);
+        query.fields().include("studentId");
+        List<String> studentIds = mongoTemplate.find(query, Document.class, "enrollments").stream()
+                .map(document -> document.getString("studentId"))
+                .collect(Collectors.toList());
+        if (studentIds.isEmpty()) {
+            return studentIds;
+        }
+
+        Document completed = new Document("$filter", new Document("input",
+                new Document("$ifNull", List.of("$completedModules", List.of())))
+                .append("cond", new Document("$in", List.of("$$this", new Document("$literal", moduleIds)))));
+        Object progress = moduleIds.isEmpty() ? 0.0 : new Document("$multiply", List.of(
+                new Document("$divide", List.of(new Document("$size", "$completedModules"), moduleIds.size())), 100));
+        mongoTemplate.getCollection("enrollments").updateMany(
+                new Document("courseId", courseId).append("studentId", new Document("$in", studentIds)),
+                List.of(new Document("$set", new Document("completedModules", completed)),
+                        new Document("$set", new Document("progress", progress))));
+        return studentIds;
+    }
+}
@@ -0,0 +1,10 @@
+package com.coursepath.lms.repository;
+
+import com.coursepath.lms.model.ProgressRecalculation;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.util.List;
+
+public interface ProgressRecalculationRepository extends MongoRepository<ProgressRecalculation, String>, ProgressRecalculationRepositoryCustom {
+    List<ProgressRecalculation> findByPendingTrue();
+}
@@ -0,0 +1,14 @@
+package com.coursepath.lms.repository;
+
+import com.coursepath.lms.model.ProgressRecalculation;
+
+import java.time.Instant;
+import java.util.Optional;
+
+public interface ProgressRecalculationRepositoryCustom {
+    void request(String id);
+    Optional<ProgressRecalculation> claim(String id, String owner, Instant leaseUntil);
+    boolean checkpoint(String id, String owner, long pass, String lastStudentId, long enrollmentsUpdated,
+                       Instant leaseUntil);
+    boolean complete(String id, String owner, long pass);
+}
@@ -0,0 +1,69 @@
+package com.coursepath.lms.repository;
+
+import com.coursepath.lms.model.ProgressRecalculation;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.Optional;
+
+// Every write touches only its own fields, so a request arriving mid-pass is never overwritten by the worker, and the
+// worker's writes only match while it still holds the lease
+public class ProgressRecalculationRepositoryImpl implements ProgressRecalculationRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    public ProgressRecalculationRepositoryImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public void request(String id) {
+        mongoTemplate.upsert(byId(id),
+                new Update().inc("requested", 1).set("pending", true).set("requestedAt", Instant.now()),
+                ProgressRecalculation.class);
+    }
+
+    @Override
+    public Optional<ProgressRecalculation> claim(String id, String owner, Instant leaseUntil) {
+        Query query = Query.query(Criteria.where("_id").is(id)
+                .and("pending").is(true)
+                .orOperator(
+                        Criteria.where("owner").is(null),
+                        Criteria.where("owner").is(owner),
+                        Criteria.where("leaseUntil").lt(Instant.now())));
+        return Optional.ofNullable(mongoTemplate.findAndModify(query,
+                new Update().set("owner", owner).set("leaseUntil", leaseUntil),
+                FindAndModifyOptions.options().returnNew(true), ProgressRecalculation.class));
+    }
+
+    @Override
+    public boolean checkpoint(String id, String owner, long pass, String lastStudentId, long enrollmentsUpdated,
+                              Instant leaseUntil) {
+        return mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(id).and("owner").is(owner)), new Update()
+                .set("pass", pass)
+                .set("lastStudentId", lastStudentId)
+                .set("enrollmentsUpdated", enrollmentsUpdated)
+                .set("leaseUntil", leaseUntil), ProgressRecalculation.class).getMatchedCount() > 0;
+    }
+
+    @Override
+    public boolean complete(String id, String owner, long pass) {
+        Update update = new Update()
+                .set("pending", false)
+                .set("completedAt", Instant.now())
+                .unset("owner")
+                .unset("leaseUntil");
+        return mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(id)
+                        .and("owner").is(owner)
+                        .and("requested").is(pass)),
+                update, ProgressRecalculation.class).getMatchedCount() > 0;
+    }
+
+    private static Query byId(String id) {
+        return Query.query(Criteria.where("_id").is(id));
+    }
+}
@@ -0,0 +1,12 @@
+package com.coursepath.lms.repository;
+
+import com.coursepath.lms.model.RefreshToken;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.util.Optional;
+
+public interface RefreshTokenRepository extends MongoRepository<RefreshToken, String>, RefreshTokenRepositoryCustom {
+    Optional<RefreshToken> findByToken(String token);
+    void deleteByToken(String token);
+    void deleteByUserId(String userId);
+}
@@ -0,0 +1,10 @@
+package com.coursepath.lms.repository;
+
+import com.coursepath.lms.model.RefreshToken;
+
+import java.time.Instant;
+import java.util.Optional;
+
+public interface RefreshTokenRepositoryCustom {
+    Optional<RefreshToken> markUsed(String token, Instant usedAt);
+}
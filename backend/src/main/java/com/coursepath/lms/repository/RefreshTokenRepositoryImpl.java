@@ -0,0 +1,27 @@
+package com.coursepath.lms.repository;
+
+import com.coursepath.lms.model.RefreshToken;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.Optional;
+
+public class RefreshTokenRepositoryImpl implements RefreshTokenRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    public RefreshTokenRepositoryImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    // Atomically takes an unused token, so of two concurrent exchanges only one gets it; returns it as it was
+    @Override
+    public Optional<RefreshToken> markUsed(String token, Instant usedAt) {
+        Query query = Query.query(Criteria.where("token").is(token).and("usedAt").is(null));
+        return Optional.ofNullable(mongoTemplate.findAndModify(query, new Update().set("usedAt", usedAt),
+                RefreshToken.class));
+    }
+}
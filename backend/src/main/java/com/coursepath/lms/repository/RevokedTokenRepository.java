@@ -0,0 +1,12 @@
+package com.coursepath.lms.repository;
+
+import com.coursepath.lms.model.RevokedToken;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface RevokedTokenRepository extends MongoRepository<RevokedToken, String> {
+    List<RevokedToken> findByExpiresAtAfter(Instant now);
+    List<RevokedToken> findByRevokedAtAfter(Instant since);
+}
@@ -0,0 +1,11 @@
+package com.coursepath.lms.repository;
+
+import com.coursepath.lms.model.User;
+
+import java.util.List;
+import java.util.Map;
+
+public interface UserRepositoryCustom {
+    long pullEnrolledCourseBatch(String courseId, int limit);
+    Map<Integer, String> insertUnordered(List<User> users);
+}
@@ -0,0 +1,54 @@
+package com.coursepath.lms.repository;
+
+import com.coursepath.lms.model.User;
+import org.bson.Document;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+public class UserRepositoryImpl implements UserRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    public UserRepositoryImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    // Pulls the course from at most limit users, found through the enrolledCourses index
+    @Override
+    public long pullEnrolledCourseBatch(String courseId, int limit) {
+        Query query = Query.query(Criteria.where("enrolledCourses").is(courseId)).limit(limit);
+        query.fields().include("_id");
+        List<Object> ids = mongoTemplate.find(query, Document.class, "users").stream()
+                .map(document -> document.get("_id"))
+                .collect(Collectors.toList());
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return mongoTemplate.updateMulti(Query.query(Criteria.where("_id").in(ids)),
+                new Update().pull("enrolledCourses", courseId), "users").getModifiedCount();
+    }
+
+    // One unordered bulk insert: every valid user is written, and rejected ones are reported by position
+    @Override
+    public Map<Integer, String> insertUnordered(List<User> users) {
+        Map<Integer, String> failures = new HashMap<>();
+        if (users.isEmpty()) {
+            return failures;
+        }
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, User.class).insert(users).execute();
+        } catch (BulkOperationException e) {
+            e.getErrors().forEach(error -> failures.put(error.getIndex(), error.getMessage()));
+        }
+        return failures;
+    }
+}
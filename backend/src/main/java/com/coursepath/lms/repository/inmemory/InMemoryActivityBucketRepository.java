@@ -0,0 +1,74 @@
+package com.coursepath.lms.repository.inmemory;
+
+import com.coursepath.lms.model.ActivityBucket;
+import com.coursepath.lms.model.ActivityGranularity;
+import com.coursepath.lms.repository.ActivityBucketRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Range;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+@Repository
+@Profile("inmemory")
+public class InMemoryActivityBucketRepository extends InMemoryRepository<ActivityBucket> implements ActivityBucketRepository {
+
+    private static final Duration RETENTION = Duration.parse(ActivityBucket.RETENTION);
+
+    private final Index<ActivityBucket> byCourse = index("courseId", bucket -> Collections.singleton(bucket.getCourseId()));
+
+    public InMemoryActivityBucketRepository() {
+        super(ActivityBucket::getId, ActivityBucket::setId, bucket -> new ActivityBucket(
+                bucket.getId(),
+                bucket.getCourseId(),
+                bucket.getGranularity(),
+                bucket.getStart(),
+                bucket.getEnrollments(),
+                bucket.getCompletions(),
+                bucket.getReopened(),
+                bucket.getActiveLearners(),
+                bucket.getAppliedThrough()));
+    }
+
+    @Override
+    public List<ActivityBucket> findByCourseIdAndGranularityAndStartBetweenOrderByStartAsc(
+            String courseId, ActivityGranularity granularity, Range<Instant> start) {
+        List<ActivityBucket> buckets = findByIndex(byCourse, courseId, bucket -> bucket.getGranularity() == granularity
+                && start.contains(bucket.getStart(), Comparator.naturalOrder()));
+        buckets.sort(Comparator.comparing(ActivityBucket::getStart));
+        return buckets;
+    }
+
+    // Synchronized like a MongoDB upsert is atomic per document; buckets that already applied the batch are skipped
+    @Override
+    public synchronized void apply(Collection<ActivityBucket> deltas, String through) {
+        for (ActivityBucket delta : deltas) {
+            ActivityBucket bucket = findById(delta.getId()).orElseGet(() -> new ActivityBucket(delta.getId(),
+                    delta.getCourseId(), delta.getGranularity(), delta.getStart(), 0, 0, 0, 0, null));
+            if (bucket.getAppliedThrough() != null && bucket.getAppliedThrough().compareTo(through) >= 0) {
+                continue;
+            }
+            bucket.setEnrollments(bucket.getEnrollments() + delta.getEnrollments());
+            bucket.setCompletions(bucket.getCompletions() + delta.getCompletions());
+            bucket.setReopened(bucket.getReopened() + delta.getReopened());
+            bucket.setActiveLearners(bucket.getActiveLearners() + delta.getActiveLearners());
+            bucket.setAppliedThrough(through);
+            save(bucket);
+        }
+    }
+
+    // Stands in for the TTL index on "start"
+    @Scheduled(fixedDelayString = "${lms.activity.rollup-interval:60000}")
+    public void expireBuckets() {
+        Instant cutoff = Instant.now().minus(RETENTION);
+        findAll().stream()
+                .filter(bucket -> bucket.getStart().isBefore(cutoff))
+                .forEach(bucket -> deleteById(bucket.getId()));
+    }
+}
@@ -0,0 +1,82 @@
+package com.coursepath.lms.repository.inmemory;
+
+import com.coursepath.lms.model.ActivityEvent;
+import com.coursepath.lms.repository.ActivityEventRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+@Repository
+@Profile("inmemory")
+public class InMemoryActivityEventRepository extends InMemoryRepository<ActivityEvent> implements ActivityEventRepository {
+
+    private static final Duration RETENTION = Duration.parse(ActivityEvent.RETENTION);
+
+    // Ids in order, standing in for the _id index range scans of the rollup
+    private final NavigableSet<String> ids = new ConcurrentSkipListSet<>();
+
+    public InMemoryActivityEventRepository() {
+        super(ActivityEvent::getId, ActivityEvent::setId, event -> new ActivityEvent(
+                event.getId(),
+                event.getCourseId(),
+                event.getStudentId(),
+                event.getType(),
+                event.getModuleId(),
+                event.getAt()));
+    }
+
+    @Override
+    public <S extends ActivityEvent> S save(S entity) {
+        S saved = super.save(entity);
+        ids.add(saved.getId());
+        return saved;
+    }
+
+    @Override
+    public <S extends ActivityEvent> S insert(S entity) {
+        S inserted = super.insert(entity);
+        ids.add(inserted.getId());
+        return inserted;
+    }
+
+    @Override
+    public void deleteById(String id) {
+        super.deleteById(id);
+        ids.remove(id);
+    }
+
+    @Override
+    public List<ActivityEvent> findBatch(String afterId, String throughId, int limit) {
+        NavigableSet<String> range = afterId == null
+                ? ids.headSet(throughId, true)
+                : ids.subSet(afterId, false, throughId, true);
+        List<String> batch = new ArrayList<>(Math.min(limit, range.size()));
+        for (String id : range) {
+            if (batch.size() == limit) {
+                break;
+            }
+            batch.add(id);
+        }
+        return findAllById(batch);
+    }
+
+    // Stands in for the TTL index on "at"
+    @Scheduled(fixedDelayString = "${lms.activity.rollup-interval:60000}")
+    public void expireEvents() {
+        Instant cutoff = Instant.now().minus(RETENTION);
+        for (String id : ids) {
+            ActivityEvent event = findById(id).orElse(null);
+            if (event != null && !event.getAt().isBefore(cutoff)) {
+                break;
+            }
+            deleteById(id);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.coursepath.lms.repository.inmemory;
+
+import com.coursepath.lms.model.ActivityBucket;
+import com.coursepath.lms.model.ActivityGranularity;
+import com.coursepath.lms.model.ActivityLearner;
+import com.coursepath.lms.repository.ActivityLearnerRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.stream.Collectors;
+
+@Repository
+@Profile("inmemory")
+public class InMemoryActivityLearnerRepository extends InMemoryRepository<ActivityLearner>
+        implements ActivityLearnerRepository {
+
+    private static final Duration RETENTION = Duration.parse(ActivityBucket.RETENTION);
+
+    // Ids in order, standing in for the _id index range scans
+    private final NavigableSet<String> ids = new ConcurrentSkipListSet<>();
+    private final Index<ActivityLearner> byFirstBatch =
+            index("firstBatch", learner -> Collections.singleton(learner.getFirstBatch()));
+
+    public InMemoryActivityLearnerRepository() {
+        super(ActivityLearner::getId, ActivityLearner::setId, learner -> new ActivityLearner(
+                learner.getId(),
+                learner.getCourseId(),
+                learner.getGranularity(),
+                learner.getStart(),
+                learner.getStudentId(),
+                learner.getFirstBatch()));
+    }
+
+    @Override
+    public <S extends ActivityLearner> S save(S entity) {
+        S saved = super.save(entity);
+        ids.add(saved.getId());
+        return saved;
+    }
+
+    @Override
+    public <S extends ActivityLearner> S insert(S entity) {
+        S inserted = super.insert(entity);
+        ids.add(inserted.getId());
+        return inserted;
+    }
+
+    @Override
+    public void deleteById(String id) {
+        super.deleteById(id);
+        ids.remove(id);
+    }
+
+    @Override
+    public synchronized Map<String, Long> mark(Collection<ActivityLearner> learners, String through) {
+        for (ActivityLearner learner : learners) {
+            if (!existsById(learner.getId())) {
+                save(new ActivityLearner(learner.getId(), learner.getCourseId(), learner.getGranularity(),
+                        learner.getStart(), learner.getStudentId(), through));
+            }
+        }
+        return findByIndex(byFirstBatch, through, learner -> true).stream()
+                .collect(Collectors.groupingBy(learner -> ActivityBucket.idOf(
+                        learner.getCourseId(), learner.getGranularity(), learner.getStart()), Collectors.counting()));
+    }
+
+    @Override
+    public long countDistinctLearners(String courseId, ActivityGranularity granularity, Instant from, Instant to) {
+        return ids.subSet(ActivityBucket.idOf(courseId, granularity, from), ActivityBucket.idOf(courseId, granularity, to))
+                .stream()
+                .map(ActivityLearner::studentIdOf)
+                .distinct()
+                .count();
+    }
+
+    // Stands in for the TTL index on "start"
+    @Scheduled(fixedDelayString = "${lms.activity.rollup-interval:60000}")
+    public void expireLearners() {
+        Instant cutoff = Instant.now().minus(RETENTION);
+        findAll().stream()
+                .filter(learner -> learner.getStart().isBefore(cutoff))
+                .forEach(learner -> deleteById(learner.getId()));
+    }
+}
@@ -0,0 +1,66 @@
+package com.coursepath.lms.repository.inmemory;
+
+import com.coursepath.lms.model.ActivityRollupCheckpoint;
+import com.coursepath.lms.repository.ActivityRollupCheckpointRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Optional;
+
+@Repository
+@Profile("inmemory")
+public class InMemoryActivityRollupCheckpointRepository extends InMemoryRepository<ActivityRollupCheckpoint>
+        implements ActivityRollupCheckpointRepository {
+
+    public InMemoryActivityRollupCheckpointRepository() {
+        super(ActivityRollupCheckpoint::getId, ActivityRollupCheckpoint::setId, checkpoint -> new ActivityRollupCheckpoint(
+                checkpoint.getId(),
+                checkpoint.getLastEventId(),
+                checkpoint.getPendingThrough(),
+                checkpoint.getEventsRolledUp(),
+                checkpoint.getUpdatedAt(),
+                checkpoint.getOwner(),
+                checkpoint.getLeaseUntil()));
+    }
+
+    @Override
+    public synchronized Optional<ActivityRollupCheckpoint> claim(String id, String owner, Instant leaseUntil) {
+        ActivityRollupCheckpoint checkpoint = findById(id).orElseGet(() -> {
+            ActivityRollupCheckpoint created = new ActivityRollupCheckpoint();
+            created.setId(id);
+            return created;
+        });
+        if (checkpoint.getOwner() != null && !checkpoint.getOwner().equals(owner)
+                && !checkpoint.getLeaseUntil().isBefore(Instant.now())) {
+            return Optional.empty();
+        }
+        checkpoint.setOwner(owner);
+        checkpoint.setLeaseUntil(leaseUntil);
+        save(checkpoint);
+        return Optional.of(checkpoint);
+    }
+
+    @Override
+    public synchronized boolean advance(ActivityRollupCheckpoint checkpoint) {
+        if (!isOwner(checkpoint.getId(), checkpoint.getOwner())) {
+            return false;
+        }
+        save(checkpoint);
+        return true;
+    }
+
+    @Override
+    public synchronized void release(String id, String owner) {
+        if (isOwner(id, owner)) {
+            update(id, checkpoint -> {
+                checkpoint.setOwner(null);
+                checkpoint.setLeaseUntil(null);
+            });
+        }
+    }
+
+    private boolean isOwner(String id, String owner) {
+        return findById(id).map(checkpoint -> owner.equals(checkpoint.getOwner())).orElse(false);
+    }
+}
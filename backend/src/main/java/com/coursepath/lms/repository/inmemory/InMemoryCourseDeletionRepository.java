@@ -0,0 +1,62 @@
+package com.coursepath.lms.repository.inmemory;
+
+import com.coursepath.lms.model.CourseDeletion;
+import com.coursepath.lms.model.DeletionStatus;
+import com.coursepath.lms.repository.CourseDeletionRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+@Repository
+@Profile("inmemory")
+public class InMemoryCourseDeletionRepository extends InMemoryRepository<CourseDeletion> implements CourseDeletionRepository {
+
+    public InMemoryCourseDeletionRepository() {
+        super(CourseDeletion::getId, CourseDeletion::setId, deletion -> new CourseDeletion(
+                deletion.getId(),
+                deletion.getTitle(),
+                deletion.getStatus(),
+                deletion.getEnrollmentsRemoved(),
+                deletion.getUsersUpdated(),
+                deletion.getRequestedAt(),
+                deletion.getStartedAt(),
+                deletion.getCompletedAt(),
+                deletion.getOwner(),
+                deletion.getLeaseUntil()));
+    }
+
+    @Override
+    public List<CourseDeletion> findByStatusNot(DeletionStatus status) {
+        return findAll().stream()
+                .filter(deletion -> deletion.getStatus() != status)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public synchronized Optional<CourseDeletion> claim(String id, String owner, Instant leaseUntil) {
+        Optional<CourseDeletion> deletion = findById(id).filter(candidate -> candidate.getStatus() != DeletionStatus.COMPLETED
+                && (candidate.getOwner() == null
+                || candidate.getOwner().equals(owner)
+                || candidate.getLeaseUntil().isBefore(Instant.now())));
+        deletion.ifPresent(claimed -> {
+            claimed.setStatus(DeletionStatus.IN_PROGRESS);
+            claimed.setOwner(owner);
+            claimed.setLeaseUntil(leaseUntil);
+            save(claimed);
+        });
+        return deletion;
+    }
+
+    @Override
+    public synchronized boolean checkpoint(CourseDeletion deletion, String owner) {
+        boolean owned = findById(deletion.getId()).map(stored -> owner.equals(stored.getOwner())).orElse(false);
+        if (owned) {
+            save(deletion);
+        }
+        return owned;
+    }
+}
@@ -0,0 +1,151 @@
+package com.coursepath.lms.repository.inmemory;
+
+import com.coursepath.lms.dto.CatalogCourse;
+import com.coursepath.lms.model.Course;
+import com.coursepath.lms.model.Module;
+import com.coursepath.lms.repository.CourseRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+@Repository
+@Profile("inmemory")
+public class InMemoryCourseRepository extends InMemoryRepository<Course> implements CourseRepository {
+
+    private final Index<Course> byEnrolledStudent = index("enrolledStudents", Course::getEnrolledStudents);
+
+    public InMemoryCourseRepository() {
+        super(Course::getId, Course::setId, InMemoryCourseRepository::copy);
+    }
+
+    @Override
+    public List<Course> findByEnrolledStudentsContaining(String studentId) {
+        return findByIndex(byEnrolledStudent, studentId,
+                course -> course.getEnrolledStudents().contains(studentId));
+    }
+
+    @Override
+    public Optional<CatalogCourse> findCatalogCourse(String id) {
+        return findById(id).filter(course -> course.getDeletedAt() == null).map(InMemoryCourseRepository::catalog);
+    }
+
+    @Override
+    public List<CatalogCourse> findCatalogCourses() {
+        return findAll().stream()
+                .filter(course -> course.getDeletedAt() == null)
+                .map(InMemoryCourseRepository::catalog)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public Map<String, Integer> countEnrolledStudents() {
+        return findCatalogCourses().stream()
+                .collect(Collectors.toMap(catalog -> catalog.getCourse().getId(), CatalogCourse::getEnrolledCount));
+    }
+
+    @Override
+    public OptionalInt addEnrolledStudent(String courseId, String studentId) {
+        AtomicInteger enrolledCount = new AtomicInteger(-1);
+        update(courseId, course -> {
+            if (course.getDeletedAt() != null) {
+                return;
+            }
+            if (course.getEnrolledStudents() == null) {
+                course.setEnrolledStudents(new ArrayList<>());
+            }
+            if (!course.getEnrolledStudents().contains(studentId)) {
+                course.getEnrolledStudents().add(studentId);
+                enrolledCount.set(course.getEnrolledStudents().size());
+            }
+        });
+        return enrolledCount.get() < 0 ? OptionalInt.empty() : OptionalInt.of(enrolledCount.get());
+    }
+
+    @Override
+    public boolean updateDetails(String id, Course details) {
+        AtomicBoolean matched = new AtomicBoolean();
+        update(id, course -> {
+            if (course.getDeletedAt() == null) {
+                course.setTitle(details.getTitle());
+                course.setDescription(details.getDescription());
+                course.setThumbnail(details.getThumbnail());
+                course.setInstructor(details.getInstructor());
+                course.setDuration(details.getDuration());
+                course.setModules(details.getModules());
+                matched.set(true);
+            }
+        });
+        return matched.get();
+    }
+
+    @Override
+    public Optional<Course> markDeleted(String id, LocalDateTime deletedAt) {
+        AtomicReference<Course> marked = new AtomicReference<>();
+        update(id, course -> {
+            if (course.getDeletedAt() == null) {
+                course.setDeletedAt(deletedAt);
+                Course result = copy(course);
+                result.setEnrolledStudents(null);
+                marked.set(result);
+            }
+        });
+        return Optional.ofNullable(marked.get());
+    }
+
+    @Override
+    public Optional<List<String>> findModuleIds(String courseId) {
+        return findById(courseId)
+                .filter(course -> course.getDeletedAt() == null)
+                .map(InMemoryCourseRepository::moduleIds);
+    }
+
+    @Override
+    public Map<String, List<String>> findModuleIds(Collection<String> courseIds) {
+        return findAllById(courseIds).stream()
+                .filter(course -> course.getDeletedAt() == null)
+                .collect(Collectors.toMap(Course::getId, InMemoryCourseRepository::moduleIds, (first, second) -> first));
+    }
+
+    private static List<String> moduleIds(Course course) {
+        return course.getModules() == null ? List.of()
+                : course.getModules().stream().map(Module::getId).collect(Collectors.toList());
+    }
+
+    private static CatalogCourse catalog(Course course) {
+        int enrolledCount = course.getEnrolledStudents() == null ? 0 : course.getEnrolledStudents().size();
+        course.setEnrolledStudents(null);
+        return new CatalogCourse(course, enrolledCount);
+    }
+
+    private static Course copy(Course course) {
+        List<Module> modules = null;
+        if (course.getModules() != null) {
+            modules = new ArrayList<>();
+            for (Module module : course.getModules()) {
+                modules.add(new Module(module.getId(), module.getTitle(), module.getContent(), module.getVideoUrl()));
+            }
+        }
+        return new Course(
+                course.getId(),
+                course.getTitle(),
+                course.getDescription(),
+                course.getThumbnail(),
+                course.getInstructor(),
+                course.getDuration(),
+                modules,
+                course.getEnrolledStudents() == null ? null : new ArrayList<>(course.getEnrolledStudents()),
+                course.getDeletedAt()
+        );
+    }
+}
@@ -0,0 +1,172 @@
+package com.coursepath.lms.repository.inmemory;
+
+import com.coursepath.lms.dto.DashboardCourse;
+import com.coursepath.lms.dto.DashboardPage;
+import com.coursepath.lms.dto.RosterEntry;
+import com.coursepath.lms.model.Course;
+import com.coursepath.lms.model.Enrollment;
+import com.coursepath.lms.model.User;
+import com.coursepath.lms.repository.CourseRepository;
+import com.coursepath.lms.repository.EnrollmentRepository;
+import com.coursepath.lms.repository.UserRepository;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Repository
+@Profile("inmemory")
+public class InMemoryEnrollmentRepository extends InMemoryRepository<Enrollment> implements EnrollmentRepository {
+
+    private final Index<Enrollment> byStudent = index("studentId", enrollment -> Collections.singleton(enrollment.getStudentId()));
+    private final Index<Enrollment> byCourse = index("courseId", enrollment -> Collections.singleton(enrollment.getCourseId()));
+    private final Index<Enrollment> byCourseAndStudent = uniqueIndex("courseId_studentId",
+            enrollment -> key(enrollment.getCourseId(), enrollment.getStudentId()));
+
+    private final CourseRepository courseRepository;
+    private final UserRepository userRepository;
+
+    public InMemoryEnrollmentRepository(CourseRepository courseRepository, UserRepository userRepository) {
+        super(Enrollment::getId, Enrollment::setId, InMemoryEnrollmentRepository::copy);
+        this.courseRepository = courseRepository;
+        this.userRepository = userRepository;
+    }
+
+    @Override
+    public List<Enrollment> findByStudentId(String studentId) {
+        return findByIndex(byStudent, studentId, enrollment -> studentId.equals(enrollment.getStudentId()));
+    }
+
+    @Override
+    public Optional<Enrollment> findByCourseIdAndStudentId(String courseId, String studentId) {
+        return findOneByIndex(byCourseAndStudent, key(courseId, studentId),
+                enrollment -> courseId.equals(enrollment.getCourseId())
+                        && studentId.equals(enrollment.getStudentId()));
+    }
+
+    @Override
+    public DashboardPage findStudentDashboard(String studentId, int page, int size) {
+        List<Enrollment> enrollments = findByStudentId(studentId);
+        Map<String, Course> courses = courseRepository
+                .findAllById(enrollments.stream().map(Enrollment::getCourseId).collect(Collectors.toSet()))
+                .stream()
+                .filter(course -> course.getDeletedAt() == null)
+                .collect(Collectors.toMap(Course::getId, Function.identity()));
+
+        List<DashboardCourse> items = enrollments.stream()
+                .filter(enrollment -> courses.containsKey(enrollment.getCourseId()))
+                .sorted(Comparator.comparing(Enrollment::getLastActivity, Comparator.nullsLast(Comparator.reverseOrder()))
+                        .thenComparing(Enrollment::getEnrolledDate, Comparator.nullsLast(Comparator.reverseOrder()))
+                        .thenComparing(Enrollment::getId))
+                .map(enrollment -> {
+                    Course course = courses.get(enrollment.getCourseId());
+                    return new DashboardCourse(
+                            enrollment.getId(),
+                            course.getId(),
+                            course.getTitle(),
+                            course.getThumbnail(),
+                            course.getInstructor(),
+                            course.getDuration(),
+                            course.getModules() == null ? 0 : course.getModules().size(),
+                            enrollment.getCompletedModules() == null ? 0 : enrollment.getCompletedModules().size(),
+                            enrollment.getProgress(),
+                            enrollment.getEnrolledDate(),
+                            enrollment.getLastActivity());
+                })
+                .collect(Collectors.toList());
+
+        int from = (int) Math.min((long) page * size, items.size());
+        int to = Math.min(from + size, items.size());
+        return new DashboardPage(new ArrayList<>(items.subList(from, to)), page, size, items.size());
+    }
+
+    @Override
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public List<RosterEntry> findCourseRoster(String courseId, String sortBy, boolean descending, Double minProgress,
+                                              Double maxProgress, Enrollment after, int limit) {
+        Comparator<Enrollment> bySortKey = Comparator.comparing(
+                enrollment -> (Comparable) new BeanWrapperImpl(enrollment).getPropertyValue(sortBy),
+                Comparator.nullsFirst(Comparator.naturalOrder()));
+        Comparator<Enrollment> order = bySortKey.thenComparing(Enrollment::getId);
+        if (descending) {
+            order = order.reversed();
+        }
+        Comparator<Enrollment> pageOrder = order;
+
+        List<Enrollment> page = findByIndex(byCourse, courseId, enrollment ->
+                (minProgress == null || enrollment.getProgress() >= minProgress)
+                        && (maxProgress == null || enrollment.getProgress() <= maxProgress)
+                        && (after == null || pageOrder.compare(enrollment, after) > 0));
+        page.sort(pageOrder);
+        page = page.subList(0, Math.min(limit, page.size()));
+
+        Map<String, User> users = userRepository
+                .findAllById(page.stream().map(Enrollment::getStudentId).collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        return page.stream().map(enrollment -> {
+            User user = users.get(enrollment.getStudentId());
+            return new RosterEntry(
+                    enrollment.getId(),
+                    enrollment.getStudentId(),
+                    user == null ? null : user.getName(),
+                    user == null ? null : user.getUsername(),
+                    enrollment.getProgress(),
+                    enrollment.getCompletedModules() == null ? 0 : enrollment.getCompletedModules().size(),
+                    enrollment.getEnrolledDate(),
+                    enrollment.getLastActivity());
+        }).collect(Collectors.toList());
+    }
+
+    @Override
+    public long deleteBatchByCourseId(String courseId, int limit) {
+        return deleteByIndex(byCourse, courseId, limit);
+    }
+
+    @Override
+    public List<String> recalculateProgressBatch(String courseId, List<String> moduleIds, String afterStudentId,
+                                                 int limit) {
+        Set<String> modules = new HashSet<>(moduleIds);
+        List<Enrollment> batch = findByIndex(byCourse, courseId,
+                enrollment -> afterStudentId == null || enrollment.getStudentId().compareTo(afterStudentId) > 0);
+        batch.sort(Comparator.comparing(Enrollment::getStudentId));
+        List<String> studentIds = new ArrayList<>();
+        for (Enrollment enrollment : batch.subList(0, Math.min(limit, batch.size()))) {
+            update(enrollment.getId(), current -> {
+                List<String> completed = current.getCompletedModules() == null
+                        ? new ArrayList<>() : current.getCompletedModules();
+                completed.removeIf(moduleId -> !modules.contains(moduleId));
+                current.setCompletedModules(completed);
+                current.setProgress(modules.isEmpty() ? 0 : (double) completed.size() / modules.size() * 100);
+            });
+            studentIds.add(enrollment.getStudentId());
+        }
+        return studentIds;
+    }
+
+    private static String key(String courseId, String studentId) {
+        return courseId + '\u0000' + studentId;
+    }
+
+    private static Enrollment copy(Enrollment enrollment) {
+        return new Enrollment(
+                enrollment.getId(),
+                enrollment.getCourseId(),
+                enrollment.getStudentId(),
+                enrollment.getEnrolledDate(),
+                enrollment.getProgress(),
+                enrollment.getCompletedModules() == null ? null : new ArrayList<>(enrollment.getCompletedModules()),
+                enrollment.getLastActivity()
+        );
+    }
+}
@@ -0,0 +1,93 @@
+package com.coursepath.lms.repository.inmemory;
+
+import com.coursepath.lms.model.ProgressRecalculation;
+import com.coursepath.lms.repository.ProgressRecalculationRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+@Repository
+@Profile("inmemory")
+public class InMemoryProgressRecalculationRepository extends InMemoryRepository<ProgressRecalculation>
+        implements ProgressRecalculationRepository {
+
+    public InMemoryProgressRecalculationRepository() {
+        super(ProgressRecalculation::getId, ProgressRecalculation::setId, job -> new ProgressRecalculation(
+                job.getId(),
+                job.getRequested(),
+                job.isPending(),
+                job.getPass(),
+                job.getLastStudentId(),
+                job.getEnrollmentsUpdated(),
+                job.getRequestedAt(),
+                job.getCompletedAt(),
+                job.getOwner(),
+                job.getLeaseUntil()));
+    }
+
+    @Override
+    public List<ProgressRecalculation> findByPendingTrue() {
+        return findAll().stream().filter(ProgressRecalculation::isPending).collect(Collectors.toList());
+    }
+
+    // The job methods are synchronized to give them the single-document atomicity MongoDB provides
+
+    @Override
+    public synchronized void request(String id) {
+        ProgressRecalculation job = findById(id).orElseGet(() -> {
+            ProgressRecalculation created = new ProgressRecalculation();
+            created.setId(id);
+            return created;
+        });
+        job.setRequested(job.getRequested() + 1);
+        job.setPending(true);
+        job.setRequestedAt(Instant.now());
+        save(job);
+    }
+
+    @Override
+    public synchronized Optional<ProgressRecalculation> claim(String id, String owner, Instant leaseUntil) {
+        Optional<ProgressRecalculation> job = findById(id).filter(candidate -> candidate.isPending()
+                && (candidate.getOwner() == null
+                || candidate.getOwner().equals(owner)
+                || candidate.getLeaseUntil().isBefore(Instant.now())));
+        job.ifPresent(claimed -> {
+            claimed.setOwner(owner);
+            claimed.setLeaseUntil(leaseUntil);
+            save(claimed);
+        });
+        return job;
+    }
+
+    @Override
+    public synchronized boolean checkpoint(String id, String owner, long pass, String lastStudentId,
+                                           long enrollmentsUpdated, Instant leaseUntil) {
+        Optional<ProgressRecalculation> job = findById(id).filter(candidate -> owner.equals(candidate.getOwner()));
+        job.ifPresent(owned -> {
+            owned.setPass(pass);
+            owned.setLastStudentId(lastStudentId);
+            owned.setEnrollmentsUpdated(enrollmentsUpdated);
+            owned.setLeaseUntil(leaseUntil);
+            save(owned);
+        });
+        return job.isPresent();
+    }
+
+    @Override
+    public synchronized boolean complete(String id, String owner, long pass) {
+        Optional<ProgressRecalculation> job = findById(id).filter(candidate -> owner.equals(candidate.getOwner())
+                && candidate.getRequested() == pass);
+        job.ifPresent(completed -> {
+            completed.setPending(false);
+            completed.setCompletedAt(Instant.now());
+            completed.setOwner(null);
+            completed.setLeaseUntil(null);
+            save(completed);
+        });
+        return job.isPresent();
+    }
+}
@@ -0,0 +1,50 @@
+package com.coursepath.lms.repository.inmemory;
+
+import com.coursepath.lms.model.RefreshToken;
+import com.coursepath.lms.repository.RefreshTokenRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Optional;
+
+@Repository
+@Profile("inmemory")
+public class InMemoryRefreshTokenRepository extends InMemoryRepository<RefreshToken> implements RefreshTokenRepository {
+
+    private final Index<RefreshToken> byToken = uniqueIndex("token", RefreshToken::getToken);
+    private final Index<RefreshToken> byUser = index("userId", token -> Collections.singleton(token.getUserId()));
+
+    public InMemoryRefreshTokenRepository() {
+        super(RefreshToken::getId, RefreshToken::setId, token -> new RefreshToken(
+                token.getId(), token.getToken(), token.getUserId(), token.getExpiryDate(), token.getUsedAt()));
+    }
+
+    @Override
+    public Optional<RefreshToken> findByToken(String token) {
+        return findOneByIndex(byToken, token, refreshToken -> token.equals(refreshToken.getToken()));
+    }
+
+    // Synchronized to give it the single-document atomicity of findAndModify
+    @Override
+    public synchronized Optional<RefreshToken> markUsed(String token, Instant usedAt) {
+        Optional<RefreshToken> unused = findByToken(token).filter(refreshToken -> refreshToken.getUsedAt() == null);
+        unused.ifPresent(refreshToken -> {
+            RefreshToken used = findById(refreshToken.getId()).orElseThrow();
+            used.setUsedAt(usedAt);
+            save(used);
+        });
+        return unused;
+    }
+
+    @Override
+    public void deleteByToken(String token) {
+        deleteByIndex(byToken, token);
+    }
+
+    @Override
+    public void deleteByUserId(String userId) {
+        deleteByIndex(byUser, userId);
+    }
+}
@@ -0,0 +1,613 @@
+package com.coursepath.lms.repository.inmemory;
+
+import org.bson.types.ObjectId;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.data.repository.query.FluentQuery;
+import org.springframework.data.support.ExampleMatcherAccessor;
+
+import java.beans.PropertyDescriptor;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Thread-safe {@link MongoRepository} backed by a concurrent map, used by the
+ * {@code inmemory} profile.
+ *
+ * Documents are copied on the way in and out, so callers get the same
+ * isolation they would get from MongoDB. Derived queries are served from
+ * secondary indexes that are maintained atomically with the primary map; a
+ * unique index rejects conflicting writes with {@link DuplicateKeyException}
+ * just like a MongoDB unique index would. Query by example, including the
+ * fluent {@code findBy} variant, scans every document.
+ */
+public abstract class InMemoryRepository<T> implements MongoRepository<T, String> {
+
+    private static final ProjectionFactory PROJECTIONS = new SpelAwareProxyProjectionFactory();
+
+    private final Map<String, T> documents = new ConcurrentHashMap<>();
+    private final List<Index<T>> indexes = new ArrayList<>();
+    private final Function<T, String> idGetter;
+    private final BiConsumer<T, String> idSetter;
+    private final UnaryOperator<T> copier;
+
+    protected InMemoryRepository(Function<T, String> idGetter, BiConsumer<T, String> idSetter, UnaryOperator<T> copier) {
+        this.idGetter = idGetter;
+        this.idSetter = idSetter;
+        this.copier = copier;
+    }
+
+    protected Index<T> index(String name, Function<T, Collection<String>> keys) {
+        Index<T> index = new Index<>(name, keys, false);
+        indexes.add(index);
+        return index;
+    }
+
+    protected Index<T> uniqueIndex(String name, Function<T, String> key) {
+        Index<T> index = new Index<>(name, document -> Collections.singleton(key.apply(document)), true);
+        indexes.add(index);
+        return index;
+    }
+
+    protected List<T> findByIndex(Index<T> index, String key, Predicate<T> filter) {
+        List<T> results = new ArrayList<>();
+        for (String id : index.lookup(key)) {
+            T document = documents.get(id);
+            // Index and documents are updated together per id, but a reader can still
+            // observe an index entry an instant before the document changes
+            if (document != null && filter.test(document)) {
+                results.add(copier.apply(document));
+            }
+        }
+        return results;
+    }
+
+    protected Optional<T> findOneByIndex(Index<T> index, String key, Predicate<T> filter) {
+        List<T> results = findByIndex(index, key, filter);
+        return results.isEmpty() ? Optional.empty() : Optional.of(results.get(0));
+    }
+
+    protected boolean existsByIndex(Index<T> index, String key) {
+        return !index.lookup(key).isEmpty();
+    }
+
+    protected void deleteByIndex(Index<T> index, String key) {
+        index.lookup(key).forEach(this::deleteById);
+    }
+
+    // Bounded variants for batch jobs; each returns how many documents it touched
+    protected int deleteByIndex(Index<T> index, String key, int limit) {
+        int deleted = 0;
+        for (String id : index.lookup(key)) {
+            if (deleted == limit) {
+                break;
+            }
+            boolean[] removed = new boolean[1];
+            documents.computeIfPresent(id, (k, previous) -> {
+                reindex(k, previous, null);
+                removed[0] = true;
+                return null;
+            });
+            if (removed[0]) {
+                deleted++;
+            }
+        }
+        return deleted;
+    }
+
+    protected int updateByIndex(Index<T> index, String key, int limit, Consumer<T> change) {
+        int updated = 0;
+        for (String id : index.lookup(key)) {
+            if (updated == limit) {
+                break;
+            }
+            if (update(id, change)) {
+                updated++;
+            }
+        }
+        return updated;
+    }
+
+    // Applies the change atomically to the stored document, like a server-side update
+    protected boolean update(String id, Consumer<T> change) {
+        return documents.computeIfPresent(id, (key, previous) -> {
+            T current = copier.apply(previous);
+            change.accept(current);
+            reindex(key, previous, current);
+            return current;
+        }) != null;
+    }
+
+    @Override
+    public <S extends T> S save(S entity) {
+        String id = idGetter.apply(entity);
+        if (id == null) {
+            id = new ObjectId().toHexString();
+            idSetter.accept(entity, id);
+        }
+        T copy = copier.apply(entity);
+        documents.compute(id, (key, previous) -> {
+            reindex(key, previous, copy);
+            return copy;
+        });
+        return entity;
+    }
+
+    @Override
+    public <S extends T> List<S> saveAll(Iterable<S> entities) {
+        List<S> saved = new ArrayList<>();
+        entities.forEach(entity -> saved.add(save(entity)));
+        return saved;
+    }
+
+    @Override
+    public <S extends T> S insert(S entity) {
+        String id = idGetter.apply(entity);
+        if (id == null) {
+            id = new ObjectId().toHexString();
+            idSetter.accept(entity, id);
+        }
+        // putIfAbsent that also claims the index keys, so a concurrent insert of the same id cannot slip in between
+        T copy = copier.apply(entity);
+        documents.compute(id, (key, previous) -> {
+            if (previous != null) {
+                throw new DuplicateKeyException("Duplicate key for _id: " + key);
+            }
+            reindex(key, null, copy);
+            return copy;
+        });
+        return entity;
+    }
+
+    @Override
+    public <S extends T> List<S> insert(Iterable<S> entities) {
+        List<S> inserted = new ArrayList<>();
+        entities.forEach(entity -> inserted.add(insert(entity)));
+        return inserted;
+    }
+
+    @Override
+    public Optional<T> findById(String id) {
+        return Optional.ofNullable(documents.get(id)).map(copier);
+    }
+
+    @Override
+    public boolean existsById(String id) {
+        return documents.containsKey(id);
+    }
+
+    @Override
+    public List<T> findAll() {
+        return documents.values().stream().map(copier).collect(Collectors.toList());
+    }
+
+    @Override
+    public List<T> findAllById(Iterable<String> ids) {
+        List<T> results = new ArrayList<>();
+        for (String id : ids) {
+            T document = documents.get(id);
+            if (document != null) {
+                results.add(copier.apply(document));
+            }
+        }
+        return results;
+    }
+
+    @Override
+    public List<T> findAll(Sort sort) {
+        List<T> results = findAll();
+        if (sort.isSorted()) {
+            results.sort(comparator(sort));
+        }
+        return results;
+    }
+
+    @Override
+    public Page<T> findAll(Pageable pageable) {
+        return page(findAll(pageable.getSort()), pageable);
+    }
+
+    @Override
+    public long count() {
+        return documents.size();
+    }
+
+    @Override
+    public void deleteById(String id) {
+        documents.computeIfPresent(id, (key, previous) -> {
+            reindex(key, previous, null);
+            return null;
+        });
+    }
+
+    @Override
+    public void delete(T entity) {
+        deleteById(idGetter.apply(entity));
+    }
+
+    @Override
+    public void deleteAllById(Iterable<? extends String> ids) {
+        ids.forEach(this::deleteById);
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends T> entities) {
+        entities.forEach(this::delete);
+    }
+
+    @Override
+    public void deleteAll() {
+        new ArrayList<>(documents.keySet()).forEach(this::deleteById);
+    }
+
+    @Override
+    public <S extends T> Optional<S> findOne(Example<S> example) {
+        List<S> results = findAll(example);
+        return results.isEmpty() ? Optional.empty() : Optional.of(results.get(0));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <S extends T> List<S> findAll(Example<S> example) {
+        List<S> results = new ArrayList<>();
+        for (T document : documents.values()) {
+            if (example.getProbeType().isInstance(document) && matches(example, document)) {
+                results.add((S) copier.apply(document));
+            }
+        }
+        return results;
+    }
+
+    @Override
+    public <S extends T> List<S> findAll(Example<S> example, Sort sort) {
+        List<S> results = findAll(example);
+        if (sort.isSorted()) {
+            results.sort(comparator(sort));
+        }
+        return results;
+    }
+
+    @Override
+    public <S extends T> Page<S> findAll(Example<S> example, Pageable pageable) {
+        return page(findAll(example, pageable.getSort()), pageable);
+    }
+
+    @Override
+    public <S extends T> long count(Example<S> example) {
+        return findAll(example).size();
+    }
+
+    @Override
+    public <S extends T> boolean exists(Example<S> example) {
+        return !findAll(example).isEmpty();
+    }
+
+    @Override
+    public <S extends T, R> R findBy(Example<S> example, Function<FluentQuery.FetchableFluentQuery<S>, R> queryFunction) {
+        return queryFunction.apply(new ExampleQuery<>(example, Sort.unsorted(), 0, List.of(), example.getProbeType()));
+    }
+
+    // Runs inside ConcurrentHashMap.compute, so writes to the same id are serialized
+    private void reindex(String id, T previous, T current) {
+        List<Runnable> rollback = new ArrayList<>();
+        try {
+            for (Index<T> index : indexes) {
+                if (index.unique) {
+                    index.claim(id, previous, current, rollback);
+                }
+            }
+        } catch (DuplicateKeyException e) {
+            rollback.forEach(Runnable::run);
+            throw e;
+        }
+        for (Index<T> index : indexes) {
+            index.update(id, previous, current);
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private <S extends T> Comparator<S> comparator(Sort sort) {
+        Comparator<S> comparator = null;
+        for (Sort.Order order : sort) {
+            Comparator<S> next = Comparator.comparing(
+                    document -> (Comparable) new BeanWrapperImpl(document).getPropertyValue(order.getProperty()),
+                    Comparator.nullsFirst(Comparator.naturalOrder()));
+            if (order.isDescending()) {
+                next = next.reversed();
+            }
+            comparator = comparator == null ? next : comparator.thenComparing(next);
+        }
+        return comparator;
+    }
+
+    private static <S> Page<S> page(List<S> all, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(all);
+        }
+        int from = (int) Math.min(pageable.getOffset(), all.size());
+        int to = Math.min(from + pageable.getPageSize(), all.size());
+        return new PageImpl<>(new ArrayList<>(all.subList(from, to)), pageable, all.size());
+    }
+
+    // Follows MongoDB's example mapping: null probe properties and empty collections are left out unless nulls are
+    // included, nested objects are matched property by property, and any other value must be equal
+    private static boolean matches(Example<?> example, Object document) {
+        ExampleMatcher matcher = example.getMatcher();
+        List<Boolean> results = new ArrayList<>();
+        collectMatches(example.getProbe(), document, "", new ExampleMatcherAccessor(matcher),
+                matcher.getNullHandler(), results);
+        if (results.isEmpty()) {
+            return true;
+        }
+        return matcher.isAllMatching() ? !results.contains(false) : results.contains(true);
+    }
+
+    private static void collectMatches(Object probe, Object document, String prefix, ExampleMatcherAccessor accessor,
+                                       ExampleMatcher.NullHandler nullHandler, List<Boolean> results) {
+        BeanWrapper probeBean = new BeanWrapperImpl(probe);
+        BeanWrapper documentBean = document == null ? null : new BeanWrapperImpl(document);
+        for (PropertyDescriptor property : probeBean.getPropertyDescriptors()) {
+            if (property.getReadMethod() == null || property.getWriteMethod() == null) {
+                continue;
+            }
+            String path = prefix + property.getName();
+            if (accessor.isIgnoredPath(path)) {
+                continue;
+            }
+            Object expected = accessor.getValueTransformerForPath(path)
+                    .apply(Optional.ofNullable(probeBean.getPropertyValue(property.getName()))).orElse(null);
+            Object actual = documentBean == null ? null : documentBean.getPropertyValue(property.getName());
+            if (expected == null) {
+                if (nullHandler == ExampleMatcher.NullHandler.INCLUDE) {
+                    results.add(actual == null);
+                }
+            } else if (expected instanceof Collection<?> collection && collection.isEmpty()) {
+                continue;
+            } else if (expected instanceof String value) {
+                results.add(actual instanceof String text && matchesString(value, text,
+                        accessor.getStringMatcherForPath(path), accessor.isIgnoreCaseForPath(path)));
+            } else if (BeanUtils.isSimpleValueType(expected.getClass()) || expected instanceof Collection
+                    || expected instanceof Map) {
+                results.add(Objects.equals(expected, actual));
+            } else {
+                collectMatches(expected, actual, path + ".", accessor, nullHandler, results);
+            }
+        }
+    }
+
+    private static boolean matchesString(String expected, String actual, ExampleMatcher.StringMatcher stringMatcher,
+                                         boolean ignoreCase) {
+        if (stringMatcher == ExampleMatcher.StringMatcher.REGEX) {
+            return Pattern.compile(expected, ignoreCase ? Pattern.CASE_INSENSITIVE : 0).matcher(actual).find();
+        }
+        String value = ignoreCase ? expected.toLowerCase(Locale.ROOT) : expected;
+        String text = ignoreCase ? actual.toLowerCase(Locale.ROOT) : actual;
+        return switch (stringMatcher) {
+            case STARTING -> text.startsWith(value);
+            case ENDING -> text.endsWith(value);
+            case CONTAINING -> text.contains(value);
+            default -> text.equals(value);
+        };
+    }
+
+    // Immutable like Spring Data's own fluent queries: each step returns a new query
+    private final class ExampleQuery<S extends T, R> implements FluentQuery.FetchableFluentQuery<R> {
+
+        private final Example<S> example;
+        private final Sort sort;
+        private final int limit;
+        private final List<String> properties;
+        private final Class<R> resultType;
+
+        private ExampleQuery(Example<S> example, Sort sort, int limit, List<String> properties, Class<R> resultType) {
+            this.example = example;
+            this.sort = sort;
+            this.limit = limit;
+            this.properties = properties;
+            this.resultType = resultType;
+        }
+
+        @Override
+        public FluentQuery.FetchableFluentQuery<R> sortBy(Sort sort) {
+            return new ExampleQuery<>(example, this.sort.and(sort), limit, properties, resultType);
+        }
+
+        @Override
+        public FluentQuery.FetchableFluentQuery<R> limit(int limit) {
+            return new ExampleQuery<>(example, sort, limit, properties, resultType);
+        }
+
+        @Override
+        public <N> FluentQuery.FetchableFluentQuery<N> as(Class<N> resultType) {
+            return new ExampleQuery<>(example, sort, limit, properties, resultType);
+        }
+
+        @Override
+        public FluentQuery.FetchableFluentQuery<R> project(Collection<String> properties) {
+            return new ExampleQuery<>(example, sort, limit, List.copyOf(properties), resultType);
+        }
+
+        @Override
+        public R oneValue() {
+            List<R> results = all();
+            if (results.size() > 1) {
+                throw new IncorrectResultSizeDataAccessException(1, results.size());
+            }
+            return results.isEmpty() ? null : results.get(0);
+        }
+
+        @Override
+        public R firstValue() {
+            List<R> results = new ExampleQuery<>(example, sort, 1, properties, resultType).all();
+            return results.isEmpty() ? null : results.get(0);
+        }
+
+        @Override
+        public List<R> all() {
+            return results(sort, limit);
+        }
+
+        @Override
+        public Page<R> page(Pageable pageable) {
+            return InMemoryRepository.page(results(pageable.getSort().isSorted() ? pageable.getSort() : sort, 0),
+                    pageable);
+        }
+
+        @Override
+        public Stream<R> stream() {
+            return all().stream();
+        }
+
+        @Override
+        public long count() {
+            return InMemoryRepository.this.count(example);
+        }
+
+        @Override
+        public boolean exists() {
+            return InMemoryRepository.this.exists(example);
+        }
+
+        private List<R> results(Sort sort, int limit) {
+            Stream<S> matches = findAll(example, sort).stream();
+            if (limit > 0) {
+                matches = matches.limit(limit);
+            }
+            return matches.map(this::project).map(this::convert).collect(Collectors.toList());
+        }
+
+        // Like a MongoDB projection: the id and the listed properties are kept, everything else is left unset
+        private S project(S document) {
+            if (properties.isEmpty()) {
+                return document;
+            }
+            @SuppressWarnings("unchecked")
+            S projected = (S) BeanUtils.instantiateClass(document.getClass());
+            BeanWrapper source = new BeanWrapperImpl(document);
+            BeanWrapper target = new BeanWrapperImpl(projected);
+            target.setAutoGrowNestedPaths(true);
+            properties.forEach(property -> target.setPropertyValue(property, source.getPropertyValue(property)));
+            idSetter.accept(projected, idGetter.apply(document));
+            return projected;
+        }
+
+        private R convert(S document) {
+            if (resultType.isInstance(document)) {
+                return resultType.cast(document);
+            }
+            if (resultType.isInterface()) {
+                return PROJECTIONS.createProjection(resultType, document);
+            }
+            R result = BeanUtils.instantiateClass(resultType);
+            BeanUtils.copyProperties(document, result);
+            return result;
+        }
+    }
+
+    protected static final class Index<T> {
+
+        private final String name;
+        private final Function<T, Collection<String>> keys;
+        private final boolean unique;
+        private final Map<String, Set<String>> entries = new ConcurrentHashMap<>();
+        private final Map<String, String> owners = new ConcurrentHashMap<>();
+
+        private Index(String name, Function<T, Collection<String>> keys, boolean unique) {
+            this.name = name;
+            this.keys = keys;
+            this.unique = unique;
+        }
+
+        private Set<String> lookup(String key) {
+            if (key == null) {
+                return Collections.emptySet();
+            }
+            if (unique) {
+                String owner = owners.get(key);
+                return owner == null ? Collections.emptySet() : Collections.singleton(owner);
+            }
+            Set<String> ids = entries.get(key);
+            return ids == null ? Collections.emptySet() : new HashSet<>(ids);
+        }
+
+        private void claim(String id, T previous, T current, List<Runnable> rollback) {
+            Set<String> before = keysOf(previous);
+            for (String key : keysOf(current)) {
+                if (before.contains(key)) {
+                    continue;
+                }
+                String owner = owners.putIfAbsent(key, id);
+                if (owner != null && !owner.equals(id)) {
+                    throw new DuplicateKeyException("Duplicate key for index " + name + ": " + key);
+                }
+                rollback.add(() -> owners.remove(key, id));
+            }
+        }
+
+        private void update(String id, T previous, T current) {
+            Set<String> after = keysOf(current);
+            for (String key : keysOf(previous)) {
+                if (!after.contains(key)) {
+                    if (unique) {
+                        owners.remove(key, id);
+                    } else {
+                        entries.computeIfPresent(key, (k, ids) -> {
+                            ids.remove(id);
+                            return ids.isEmpty() ? null : ids;
+                        });
+                    }
+                }
+            }
+            if (!unique) {
+                for (String key : after) {
+                    entries.compute(key, (k, ids) -> {
+                        Set<String> updated = ids == null ? ConcurrentHashMap.newKeySet() : ids;
+                        updated.add(id);
+                        return updated;
+                    });
+                }
+            }
+        }
+
+        private Set<String> keysOf(T document) {
+            if (document == null) {
+                return Collections.emptySet();
+            }
+            Collection<String> values = keys.apply(document);
+            if (values == null) {
+                return Collections.emptySet();
+            }
+            return values.stream().filter(Objects::nonNull).collect(Collectors.toSet());
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.coursepath.lms.repository.inmemory;
+
+import com.coursepath.lms.model.RevokedToken;
+import com.coursepath.lms.repository.RevokedTokenRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Repository
+@Profile("inmemory")
+public class InMemoryRevokedTokenRepository extends InMemoryRepository<RevokedToken> implements RevokedTokenRepository {
+
+    public InMemoryRevokedTokenRepository() {
+        super(RevokedToken::getId, RevokedToken::setId, token -> new RevokedToken(
+                token.getId(), token.getRevokedAt(), token.getExpiresAt()));
+    }
+
+    // Revocations live only as long as the node; every node in this profile is standalone
+    @Override
+    public List<RevokedToken> findByExpiresAtAfter(Instant now) {
+        return findAll().stream()
+                .filter(token -> token.getExpiresAt().isAfter(now))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<RevokedToken> findByRevokedAtAfter(Instant since) {
+        return findAll().stream()
+                .filter(token -> token.getRevokedAt().isAfter(since))
+                .collect(Collectors.toList());
+    }
+}
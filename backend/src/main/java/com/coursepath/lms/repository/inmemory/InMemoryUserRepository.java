@@ -0,0 +1,77 @@
+package com.coursepath.lms.repository.inmemory;
+
+import com.coursepath.lms.model.User;
+import com.coursepath.lms.repository.UserRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@Repository
+@Profile("inmemory")
+public class InMemoryUserRepository extends InMemoryRepository<User> implements UserRepository {
+
+    private final Index<User> byUsername = uniqueIndex("username", User::getUsername);
+    private final Index<User> byEmail = uniqueIndex("email", User::getEmail);
+    private final Index<User> byEnrolledCourse = index("enrolledCourses", User::getEnrolledCourses);
+
+    public InMemoryUserRepository() {
+        super(User::getId, User::setId, InMemoryUserRepository::copy);
+    }
+
+    @Override
+    public Optional<User> findByUsername(String username) {
+        return findOneByIndex(byUsername, username, user -> username.equals(user.getUsername()));
+    }
+
+    @Override
+    public Optional<User> findByEmail(String email) {
+        return findOneByIndex(byEmail, email, user -> email.equals(user.getEmail()));
+    }
+
+    @Override
+    public boolean existsByUsername(String username) {
+        return existsByIndex(byUsername, username);
+    }
+
+    @Override
+    public boolean existsByEmail(String email) {
+        return existsByIndex(byEmail, email);
+    }
+
+    @Override
+    public long pullEnrolledCourseBatch(String courseId, int limit) {
+        return updateByIndex(byEnrolledCourse, courseId, limit,
+                user -> user.getEnrolledCourses().removeIf(courseId::equals));
+    }
+
+    @Override
+    public Map<Integer, String> insertUnordered(List<User> users) {
+        Map<Integer, String> failures = new HashMap<>();
+        for (int i = 0; i < users.size(); i++) {
+            try {
+                insert(users.get(i));
+            } catch (DuplicateKeyException e) {
+                failures.put(i, e.getMessage());
+            }
+        }
+        return failures;
+    }
+
+    private static User copy(User user) {
+        return new User(
+                user.getId(),
+                user.getUsername(),
+                user.getPassword(),
+                user.getName(),
+                user.getEmail(),
+                user.getRole(),
+                user.getEnrolledCourses() == null ? null : new ArrayList<>(user.getEnrolledCourses())
+        );
+    }
+}
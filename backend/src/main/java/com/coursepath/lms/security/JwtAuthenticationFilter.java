@@ -19,6 +19,8 @@ import java.io.IOException;
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    private static final String EVENT_STREAM_PATH = "/api/courses/events";
+
     private final JwtTokenProvider tokenProvider;
     private final UserDetailsService userDetailsService;
 
@@ -32,12 +34,20 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             throws ServletException, IOException {
         try {
             String jwt = getJwtFromRequest(request);
+            // EventSource cannot send headers, so the live update stream takes a stream ticket as a parameter instead
+            boolean streamTicket = !StringUtils.hasText(jwt) && EVENT_STREAM_PATH.equals(request.getServletPath());
+            if (streamTicket) {
+                jwt = request.getParameter("ticket");
+            }
 
             if (StringUtils.hasText(jwt)) {
                 String username = tokenProvider.getUsernameFromToken(jwt);
 
                 UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                if (tokenProvider.validateToken(jwt, userDetails)) {
+                boolean valid = streamTicket
+                        ? tokenProvider.validateStreamTicket(jwt, userDetails)
+                        : tokenProvider.validateToken(jwt, userDetails);
+                if (valid) {
                     UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
                             userDetails, null, userDetails.getAuthorities());
                     authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
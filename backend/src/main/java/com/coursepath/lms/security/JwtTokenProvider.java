@@ -1,7 +1,7 @@
-
 package com.coursepath.lms.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -13,40 +13,96 @@ import org.springframework.stereotype.Component;
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
 import java.util.Date;
+import java.util.Objects;
+import java.util.UUID;
 import java.util.function.Function;
 
 @Component
 public class JwtTokenProvider {
 
+    // Marks a token that only opens the live update stream; such tokens are never accepted as access tokens
+    private static final String PURPOSE_CLAIM = "purpose";
+    private static final String EVENT_STREAM_PURPOSE = "event-stream";
+
     @Value("${jwt.secret}")
     private String jwtSecret;
 
     @Value("${jwt.expiration}")
     private long jwtExpirationInMs;
 
+    @Value("${jwt.stream-ticket-expiration:30000}")
+    private long streamTicketExpirationInMs;
+
+    private final TokenRevocationList revocationList;
+
+    public JwtTokenProvider(TokenRevocationList revocationList) {
+        this.revocationList = revocationList;
+    }
+
     public String generateToken(Authentication authentication) {
-        UserDetails userPrincipal = (UserDetails) authentication.getPrincipal();
-        
+        return generateToken((UserDetails) authentication.getPrincipal());
+    }
+
+    public String generateToken(UserDetails userPrincipal) {
+        return buildToken(userPrincipal, jwtExpirationInMs, null);
+    }
+
+    // Short-lived ticket for EventSource, which cannot send an Authorization header and so puts it in the URL
+    public String generateStreamTicket(UserDetails userPrincipal) {
+        return buildToken(userPrincipal, streamTicketExpirationInMs, EVENT_STREAM_PURPOSE);
+    }
+
+    public long getStreamTicketExpirationInMs() {
+        return streamTicketExpirationInMs;
+    }
+
+    public String getUsernameFromToken(String token) {
+        return getClaimFromToken(token, Claims::getSubject);
+    }
+
+    public boolean validateToken(String token, UserDetails userDetails) {
+        return validate(token, userDetails, null);
+    }
+
+    public boolean validateStreamTicket(String ticket, UserDetails userDetails) {
+        return validate(ticket, userDetails, EVENT_STREAM_PURPOSE);
+    }
+
+    // A token that has expired or does not verify is never accepted again, so it counts as already revoked
+    public void revokeToken(String token) {
+        final Claims claims;
+        try {
+            claims = getAllClaimsFromToken(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            return;
+        }
+        if (claims.getId() != null) {
+            revocationList.revoke(claims.getId(), claims.getExpiration().toInstant());
+        }
+    }
+
+    private String buildToken(UserDetails userPrincipal, long expirationInMs, String purpose) {
         Date now = new Date();
-        Date expiryDate = new Date(now.getTime() + jwtExpirationInMs);
+        Date expiryDate = new Date(now.getTime() + expirationInMs);
         
         SecretKey key = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
 
         return Jwts.builder()
+                .setId(UUID.randomUUID().toString())
                 .setSubject(userPrincipal.getUsername())
-                .setIssuedAt(new Date())
+                .claim(PURPOSE_CLAIM, purpose)
+                .setIssuedAt(now)
                 .setExpiration(expiryDate)
                 .signWith(key, SignatureAlgorithm.HS512)
                 .compact();
     }
 
-    public String getUsernameFromToken(String token) {
-        return getClaimFromToken(token, Claims::getSubject);
-    }
-
-    public boolean validateToken(String token, UserDetails userDetails) {
-        final String username = getUsernameFromToken(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+    private boolean validate(String token, UserDetails userDetails, String purpose) {
+        final Claims claims = getAllClaimsFromToken(token);
+        return claims.getSubject().equals(userDetails.getUsername())
+                && Objects.equals(claims.get(PURPOSE_CLAIM, String.class), purpose)
+                && !claims.getExpiration().before(new Date())
+                && !revocationList.isRevoked(claims.getId());
     }
 
     private <T> T getClaimFromToken(String token, Function<Claims, T> claimsResolver) {
@@ -62,13 +118,4 @@ public class JwtTokenProvider {
                 .parseClaimsJws(token)
                 .getBody();
     }
-
-    private boolean isTokenExpired(String token) {
-        final Date expiration = getExpirationDateFromToken(token);
-        return expiration.before(new Date());
-    }
-
-    private Date getExpirationDateFromToken(String token) {
-        return getClaimFromToken(token, Claims::getExpiration);
-    }
 }
@@ -0,0 +1,131 @@
+package com.coursepath.lms.security;
+
+import com.coursepath.lms.model.RevokedToken;
+import com.coursepath.lms.repository.RevokedTokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory view of the {@code revoked_tokens} collection. A Bloom filter sits
+ * in front of an exact set so the common case (token not revoked) is answered
+ * with a few hash probes and no database round trip. Revocations issued on
+ * other nodes are picked up by a periodic incremental sync.
+ */
+@Component
+public class TokenRevocationList {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationList.class);
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final Map<String, Instant> revoked = new ConcurrentHashMap<>();
+    private final Object writeLock = new Object();
+
+    @Value("${jwt.revocation.expected-size:100000}")
+    private int expectedSize;
+
+    @Value("${jwt.revocation.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    @Value("${jwt.revocation.sync-interval:5000}")
+    private long syncIntervalMs;
+
+    private volatile BloomFilter filter;
+    private volatile Instant lastSync = Instant.EPOCH;
+    private int filterCapacity;
+    private int prunedSinceRebuild;
+
+    public TokenRevocationList(RevokedTokenRepository revokedTokenRepository) {
+        this.revokedTokenRepository = revokedTokenRepository;
+    }
+
+    public boolean isRevoked(String tokenId) {
+        if (tokenId == null) {
+            return false;
+        }
+        BloomFilter current = filter;
+        if (current != null && !current.mightContain(tokenId)) {
+            return false;
+        }
+        return revoked.containsKey(tokenId);
+    }
+
+    public void revoke(String tokenId, Instant expiresAt) {
+        Instant now = Instant.now();
+        if (expiresAt.isBefore(now)) {
+            return;
+        }
+        revokedTokenRepository.save(new RevokedToken(tokenId, now, expiresAt));
+        add(tokenId, expiresAt);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        Instant now = Instant.now();
+        synchronized (writeLock) {
+            revoked.clear();
+            for (RevokedToken token : revokedTokenRepository.findByExpiresAtAfter(now)) {
+                revoked.put(token.getId(), token.getExpiresAt());
+            }
+            rebuildFilter();
+            lastSync = now;
+        }
+        log.info("Loaded {} revoked tokens", revoked.size());
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.sync-interval:5000}")
+    public void sync() {
+        if (filter == null) {
+            return;
+        }
+        Instant now = Instant.now();
+        // Overlap the window by one interval to tolerate clock skew between nodes
+        Instant since = lastSync.minusMillis(syncIntervalMs);
+        for (RevokedToken token : revokedTokenRepository.findByRevokedAtAfter(since)) {
+            add(token.getId(), token.getExpiresAt());
+        }
+        pruneExpired(now);
+        lastSync = now;
+    }
+
+    private void add(String tokenId, Instant expiresAt) {
+        synchronized (writeLock) {
+            if (revoked.put(tokenId, expiresAt) == null) {
+                if (revoked.size() > filterCapacity) {
+                    rebuildFilter();
+                } else {
+                    filter.put(tokenId);
+                }
+            }
+        }
+    }
+
+    // Bloom filters cannot forget keys, so expired entries are dropped from the
+    // exact set and the filter is rebuilt once they make up a large share of it.
+    private void pruneExpired(Instant now) {
+        synchronized (writeLock) {
+            int before = revoked.size();
+            revoked.values().removeIf(expiresAt -> expiresAt.isBefore(now));
+            prunedSinceRebuild += before - revoked.size();
+            if (prunedSinceRebuild > Math.max(revoked.size(), expectedSize / 10)) {
+                rebuildFilter();
+            }
+        }
+    }
+
+    private void rebuildFilter() {
+        filterCapacity = Math.max(expectedSize, revoked.size() * 2);
+        BloomFilter rebuilt = new BloomFilter(filterCapacity, falsePositiveRate);
+        revoked.keySet().forEach(rebuilt::put);
+        filter = rebuilt;
+        prunedSinceRebuild = 0;
+    }
+}
@@ -0,0 +1,99 @@
+package com.coursepath.lms.service;
+
+import com.coursepath.lms.model.ActivityEvent;
+import com.coursepath.lms.model.ActivityType;
+import com.coursepath.lms.repository.ActivityEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Appends learning activity (enrollments, module completions and reopened
+ * modules) to {@code activity_events} for {@link ActivityRollupService}.
+ *
+ * Events are queued in memory and inserted in batches every flush interval,
+ * so recording adds no database round trip to the request. Each event gets its
+ * id when it happens, which makes ids sort by event time. The queue is bounded:
+ * past {@code max-pending}, or when a flush fails, events are dropped and
+ * counted in {@code lms.activity.dropped} rather than slowing down requests. A
+ * crash loses at most one flush interval of events.
+ */
+@Component
+public class ActivityRecorder {
+
+    private static final Logger log = LoggerFactory.getLogger(ActivityRecorder.class);
+
+    private final ActivityEventRepository activityEventRepository;
+    private final Counter dropped;
+    private final Queue<ActivityEvent> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Object flushLock = new Object();
+
+    @Value("${lms.activity.max-pending:100000}")
+    private int maxPending;
+
+    @Value("${lms.activity.flush-batch-size:1000}")
+    private int batchSize;
+
+    public ActivityRecorder(ActivityEventRepository activityEventRepository, MeterRegistry meterRegistry) {
+        this.activityEventRepository = activityEventRepository;
+        this.dropped = meterRegistry.counter("lms.activity.dropped");
+    }
+
+    public void record(String courseId, String studentId, ActivityType type, String moduleId) {
+        if (pending.incrementAndGet() > maxPending) {
+            pending.decrementAndGet();
+            dropped.increment();
+            return;
+        }
+        queue.add(new ActivityEvent(new ObjectId().toHexString(), courseId, studentId, type, moduleId, Instant.now()));
+    }
+
+    @Scheduled(fixedDelayString = "${lms.activity.flush-interval:1000}")
+    public void flush() {
+        synchronized (flushLock) {
+            List<ActivityEvent> batch = new ArrayList<>(batchSize);
+            ActivityEvent event;
+            while ((event = queue.poll()) != null) {
+                pending.decrementAndGet();
+                batch.add(event);
+                if (batch.size() == batchSize) {
+                    insert(batch);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            insert(batch);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    // Not retried: a late insert could land behind the rollup's watermark and never be counted
+    private void insert(List<ActivityEvent> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            activityEventRepository.insert(batch);
+        } catch (RuntimeException e) {
+            dropped.increment(batch.size());
+            log.warn("Dropped {} activity events", batch.size(), e);
+        }
+    }
+}
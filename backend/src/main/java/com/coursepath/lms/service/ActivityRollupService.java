@@ -0,0 +1,214 @@
+package com.coursepath.lms.service;
+
+import com.coursepath.lms.config.ReplicaRead;
+import com.coursepath.lms.dto.ActivityPoint;
+import com.coursepath.lms.dto.ActivityReport;
+import com.coursepath.lms.model.ActivityBucket;
+import com.coursepath.lms.model.ActivityEvent;
+import com.coursepath.lms.model.ActivityGranularity;
+import com.coursepath.lms.model.ActivityLearner;
+import com.coursepath.lms.model.ActivityRollupCheckpoint;
+import com.coursepath.lms.repository.ActivityBucketRepository;
+import com.coursepath.lms.repository.ActivityEventRepository;
+import com.coursepath.lms.repository.ActivityLearnerRepository;
+import com.coursepath.lms.repository.ActivityRollupCheckpointRepository;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Range;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Rolls {@code activity_events} up into hourly and daily per-course documents
+ * in {@code activity_buckets}, so activity over any range is answered from a
+ * handful of pre-aggregated documents however much history there is.
+ *
+ * The rollup walks events in id order from a checkpoint, one batch at a time,
+ * stopping short of the last {@code settle-delay} ms so events still being
+ * flushed by other nodes are not skipped. One node at a time holds the
+ * checkpoint's lease, and writes the checkpoint only while it still does.
+ * Before a batch is applied its last id is recorded, and every bucket
+ * remembers the newest batch it absorbed, so a rollup interrupted mid-batch
+ * re-applies exactly that batch without counting anything twice.
+ *
+ * Buckets hold counters only. Distinct learners are tracked with one marker
+ * per bucket and student in {@code activity_learners}; a bucket's learner
+ * count grows by the markers each batch inserted, and a range's distinct
+ * learners are counted from the markers.
+ */
+@Component
+public class ActivityRollupService {
+
+    private static final Logger log = LoggerFactory.getLogger(ActivityRollupService.class);
+
+    private static final String CHECKPOINT_ID = "activity";
+    private static final Map<ActivityGranularity, Duration> DEFAULT_RANGE =
+            Map.of(ActivityGranularity.HOUR, Duration.ofHours(24), ActivityGranularity.DAY, Duration.ofDays(30));
+    private static final Map<ActivityGranularity, Duration> MAX_RANGE =
+            Map.of(ActivityGranularity.HOUR, Duration.ofDays(31), ActivityGranularity.DAY, Duration.ofDays(366));
+
+    private final ActivityEventRepository activityEventRepository;
+    private final ActivityBucketRepository activityBucketRepository;
+    private final ActivityLearnerRepository activityLearnerRepository;
+    private final ActivityRollupCheckpointRepository checkpointRepository;
+    private final CourseCache courseCache;
+    private final String nodeId = new ObjectId().toHexString();
+
+    @Value("${lms.activity.rollup-batch-size:5000}")
+    private int batchSize;
+
+    @Value("${lms.activity.settle-delay:30000}")
+    private long settleDelayMs;
+
+    @Value("${lms.activity.lease:60000}")
+    private long leaseMs;
+
+    public ActivityRollupService(ActivityEventRepository activityEventRepository,
+                                 ActivityBucketRepository activityBucketRepository,
+                                 ActivityLearnerRepository activityLearnerRepository,
+                                 ActivityRollupCheckpointRepository checkpointRepository, CourseCache courseCache) {
+        this.activityEventRepository = activityEventRepository;
+        this.activityBucketRepository = activityBucketRepository;
+        this.activityLearnerRepository = activityLearnerRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.courseCache = courseCache;
+    }
+
+    @Scheduled(initialDelayString = "${lms.activity.rollup-interval:60000}",
+            fixedDelayString = "${lms.activity.rollup-interval:60000}")
+    public void rollUp() {
+        try {
+            run();
+        } catch (RuntimeException e) {
+            log.warn("Activity rollup failed; the next run resumes from the checkpoint", e);
+        }
+    }
+
+    // Buckets are only as fresh as the last rollup, which trails events by at most the interval plus the settle delay
+    @ReplicaRead
+    public ActivityReport getCourseActivity(String courseId, String granularity, Instant from, Instant to) {
+        ActivityGranularity unit;
+        try {
+            unit = ActivityGranularity.valueOf(granularity.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid activity request");
+        }
+        Instant end = to != null ? to : unit.bucketStart(Instant.now()).plus(1, unit.getUnit());
+        Instant start = unit.bucketStart(from != null ? from : end.minus(DEFAULT_RANGE.get(unit)));
+        if (!start.isBefore(end) || Duration.between(start, end).compareTo(MAX_RANGE.get(unit)) > 0) {
+            throw new RuntimeException("Invalid activity range");
+        }
+        courseCache.get(courseId).orElseThrow(() -> new RuntimeException("Course not found"));
+
+        List<ActivityPoint> points = new ArrayList<>();
+        long enrollments = 0;
+        long completions = 0;
+        for (ActivityBucket bucket : activityBucketRepository
+                .findByCourseIdAndGranularityAndStartBetweenOrderByStartAsc(courseId, unit, Range.rightOpen(start, end))) {
+            points.add(new ActivityPoint(bucket.getStart(), bucket.getEnrollments(), bucket.getCompletions(),
+                    bucket.getReopened(), (int) bucket.getActiveLearners()));
+            enrollments += bucket.getEnrollments();
+            completions += bucket.getCompletions();
+        }
+        long learners = activityLearnerRepository.countDistinctLearners(courseId, unit, start, end);
+        return new ActivityReport(courseId, unit, start, end, points, enrollments, completions, (int) learners);
+    }
+
+    private void run() {
+        ActivityRollupCheckpoint checkpoint = checkpointRepository.claim(CHECKPOINT_ID, nodeId, leaseExpiry())
+                .orElse(null);
+        if (checkpoint == null) {
+            return;
+        }
+        try {
+            String settled = firstIdAt(Instant.now().minusMillis(settleDelayMs));
+            int size;
+            do {
+                String through = checkpoint.getPendingThrough();
+                List<ActivityEvent> events;
+                if (through != null) {
+                    events = activityEventRepository.findBatch(checkpoint.getLastEventId(), through, Integer.MAX_VALUE);
+                } else {
+                    events = activityEventRepository.findBatch(checkpoint.getLastEventId(), settled, batchSize);
+                    if (events.isEmpty()) {
+                        break;
+                    }
+                    through = events.get(events.size() - 1).getId();
+                    checkpoint.setPendingThrough(through);
+                    save(checkpoint);
+                }
+
+                apply(events, through);
+                checkpoint.setLastEventId(through);
+                checkpoint.setPendingThrough(null);
+                checkpoint.setEventsRolledUp(checkpoint.getEventsRolledUp() + events.size());
+                save(checkpoint);
+                size = events.size();
+            } while (size >= batchSize && !Thread.currentThread().isInterrupted());
+        } finally {
+            try {
+                checkpointRepository.release(CHECKPOINT_ID, nodeId);
+            } catch (RuntimeException e) {
+                log.warn("Releasing the activity rollup lease failed; it lapses after {} ms", leaseMs, e);
+            }
+        }
+    }
+
+    // Markers go first: a batch retried after a crash in between finds them under its id and counts them again
+    private void apply(List<ActivityEvent> events, String through) {
+        Map<String, ActivityBucket> deltas = new LinkedHashMap<>();
+        Map<String, ActivityLearner> learners = new LinkedHashMap<>();
+        aggregate(events, deltas, learners);
+        Map<String, Long> newLearners = activityLearnerRepository.mark(learners.values(), through);
+        deltas.forEach((id, delta) -> delta.setActiveLearners(newLearners.getOrDefault(id, 0L)));
+        activityBucketRepository.apply(deltas.values(), through);
+    }
+
+    // One delta per course, granularity and bucket touched by the batch, and one marker per bucket and student
+    private static void aggregate(List<ActivityEvent> events, Map<String, ActivityBucket> deltas,
+                                  Map<String, ActivityLearner> learners) {
+        for (ActivityEvent event : events) {
+            for (ActivityGranularity granularity : ActivityGranularity.values()) {
+                Instant start = granularity.bucketStart(event.getAt());
+                String id = ActivityBucket.idOf(event.getCourseId(), granularity, start);
+                ActivityBucket delta = deltas.computeIfAbsent(id, key -> new ActivityBucket(
+                        key, event.getCourseId(), granularity, start, 0, 0, 0, 0, null));
+                switch (event.getType()) {
+                    case ENROLLED -> delta.setEnrollments(delta.getEnrollments() + 1);
+                    case MODULE_COMPLETED -> delta.setCompletions(delta.getCompletions() + 1);
+                    case MODULE_REOPENED -> delta.setReopened(delta.getReopened() + 1);
+                }
+                String learnerId = ActivityLearner.idOf(id, event.getStudentId());
+                learners.computeIfAbsent(learnerId, key -> new ActivityLearner(
+                        key, event.getCourseId(), granularity, start, event.getStudentId(), null));
+            }
+        }
+    }
+
+    // The smallest possible ObjectId created at that second; ids compare as fixed-length hex strings
+    private static String firstIdAt(Instant at) {
+        return String.format("%08x", at.getEpochSecond()) + "0000000000000000";
+    }
+
+    private void save(ActivityRollupCheckpoint checkpoint) {
+        checkpoint.setUpdatedAt(Instant.now());
+        checkpoint.setLeaseUntil(leaseExpiry());
+        if (!checkpointRepository.advance(checkpoint)) {
+            throw new RuntimeException("Activity rollup lease was taken over by another node");
+        }
+    }
+
+    private Instant leaseExpiry() {
+        return Instant.now().plusMillis(leaseMs);
+    }
+}
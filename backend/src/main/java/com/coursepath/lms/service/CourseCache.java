@@ -0,0 +1,412 @@
+package com.coursepath.lms.service;
+
+import com.coursepath.lms.config.ReadRouting;
+import com.coursepath.lms.dto.CatalogCourse;
+import com.coursepath.lms.dto.CourseSummary;
+import com.coursepath.lms.dto.CourseView;
+import com.coursepath.lms.model.Course;
+import com.coursepath.lms.model.CourseVersion;
+import com.coursepath.lms.model.Module;
+import com.coursepath.lms.repository.CourseRepository;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import com.mongodb.client.model.changestream.UpdateDescription;
+import jakarta.annotation.PreDestroy;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Node-local cache of the course catalog that stays consistent across API
+ * replicas.
+ *
+ * Every course write bumps a stamp in {@code course_versions}. Each node polls
+ * that collection for stamps newer than its watermark and reloads courses whose
+ * cached version is behind, so a change made on another node is visible here
+ * within one poll interval. When the database is a replica set, a change
+ * stream on {@code courses} additionally pushes reloads as they happen. If
+ * polling keeps failing for longer than the configured maximum staleness, reads
+ * bypass the cache until it recovers.
+ *
+ * Courses marked as deleted are treated as missing. Only read paths should
+ * use this cache; write paths must load the course from the repository so
+ * they never save over a newer version.
+ *
+ * Each entry also keeps the {@link CourseView} enrolled students and admins
+ * see and the {@link CourseSummary} everyone else sees, both built once when
+ * the course is loaded, so serving the catalog copies nothing.
+ *
+ * Enrolled student ids are never loaded into the cache, only their count, so
+ * courses returned by {@link #get(String)} have no {@code enrolledStudents}.
+ * Enrolling does not bump the course version, so it does not make every node
+ * reload the course: the enrolling node updates its count directly and the
+ * others pick up all counts with one lightweight query every
+ * {@code count-refresh-interval} ms.
+ */
+@Component
+public class CourseCache {
+
+    private static final Logger log = LoggerFactory.getLogger(CourseCache.class);
+
+    // Bounds the memory requests for made-up ids can take
+    private static final int MAX_MISSING = 10_000;
+
+    private final CourseRepository courseRepository;
+    private final MongoTemplate mongoTemplate;
+    private final ConcurrentSkipListMap<String, Entry> courses = new ConcurrentSkipListMap<>();
+    // Ids recently found missing, with when that stops being trusted
+    private final Map<String, Long> missing = new ConcurrentHashMap<>();
+
+    @Value("${lms.course-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${lms.course-cache.max-staleness:10000}")
+    private long maxStalenessMs;
+
+    // Stamps written concurrently can become visible out of updatedAt order
+    @Value("${lms.course-cache.poll-overlap:5000}")
+    private long pollOverlapMs;
+
+    @Value("${lms.course-cache.change-streams:true}")
+    private boolean changeStreamsEnabled;
+
+    @Value("${lms.course-cache.missing-ttl:1000}")
+    private long missingTtlMs;
+
+    private volatile boolean warm;
+    private volatile long lastSync;
+    private volatile Date watermark = new Date(0);
+    private volatile Thread changeStreamThread;
+    private volatile MongoChangeStreamCursor<ChangeStreamDocument<Document>> changeStreamCursor;
+
+    public CourseCache(CourseRepository courseRepository, ObjectProvider<MongoTemplate> mongoTemplate) {
+        this.courseRepository = courseRepository;
+        this.mongoTemplate = mongoTemplate.getIfAvailable();
+    }
+
+    public Optional<Course> get(String id) {
+        if (!isFresh()) {
+            return courseRepository.findCatalogCourse(id).map(CatalogCourse::getCourse);
+        }
+        Entry entry = courses.get(id);
+        if (entry != null) {
+            return Optional.of(copy(entry.course));
+        }
+        return loadMissing(id).map(CatalogCourse::getCourse);
+    }
+
+    public List<Course> getAll() {
+        if (!isFresh()) {
+            return courseRepository.findCatalogCourses().stream()
+                    .map(CatalogCourse::getCourse)
+                    .collect(Collectors.toList());
+        }
+        return courses.values().stream().map(entry -> copy(entry.course)).collect(Collectors.toList());
+    }
+
+    // Views are shared between requests and must only be serialized, never modified
+    public Optional<CourseView> getView(String id) {
+        if (!isFresh()) {
+            return courseRepository.findCatalogCourse(id).map(CourseCache::view);
+        }
+        Entry entry = courses.get(id);
+        if (entry != null) {
+            return Optional.of(entry.view);
+        }
+        return loadMissing(id).map(CourseCache::view);
+    }
+
+    public Optional<CourseSummary> getSummary(String id) {
+        if (!isFresh()) {
+            return courseRepository.findCatalogCourse(id).map(CourseCache::summary);
+        }
+        Entry entry = courses.get(id);
+        if (entry != null) {
+            return Optional.of(entry.summary);
+        }
+        return loadMissing(id).map(CourseCache::summary);
+    }
+
+    public Stream<CourseSummary> streamSummaries() {
+        if (!isFresh()) {
+            return courseRepository.findCatalogCourses().stream().map(CourseCache::summary);
+        }
+        return courses.values().stream().map(Entry::summary);
+    }
+
+    // For changes to anything the catalog shows other than the enrolled count
+    public void courseChanged(String id) {
+        stamp(id);
+        missing.remove(id);
+        refresh(id);
+    }
+
+    public void enrolledCountChanged(String id, int enrolledCount) {
+        courses.computeIfPresent(id, (key, entry) -> entry.withEnrolledCount(enrolledCount));
+    }
+
+    @Scheduled(fixedDelayString = "${lms.course-cache.count-refresh-interval:15000}")
+    public void refreshEnrolledCounts() {
+        if (!enabled || !warm || mongoTemplate == null) {
+            // Single node: every enrollment already went through enrolledCountChanged
+            return;
+        }
+        try {
+            courseRepository.countEnrolledStudents().forEach(this::enrolledCountChanged);
+        } catch (RuntimeException e) {
+            log.warn("Refreshing enrolled counts failed", e);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!enabled) {
+            return;
+        }
+        long started = System.currentTimeMillis();
+        Map<String, CourseVersion> versions = new HashMap<>();
+        if (mongoTemplate != null) {
+            for (CourseVersion version : mongoTemplate.findAll(CourseVersion.class)) {
+                versions.put(version.getId(), version);
+                advanceWatermark(version.getUpdatedAt());
+            }
+        }
+        // Versions are read before courses, so a concurrent write leaves the entry behind its stamp and is reloaded
+        for (CatalogCourse catalog : courseRepository.findCatalogCourses()) {
+            CourseVersion version = versions.get(catalog.getCourse().getId());
+            courses.put(catalog.getCourse().getId(),
+                    new Entry(catalog.getCourse(), version == null ? 0 : version.getVersion(), catalog.getEnrolledCount()));
+        }
+        lastSync = started;
+        warm = true;
+        log.info("Course cache warmed with {} courses", courses.size());
+
+        if (mongoTemplate != null && changeStreamsEnabled && isReplicaSet()) {
+            startChangeStream();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${lms.course-cache.poll-interval:2000}")
+    public void poll() {
+        if (!enabled || !warm) {
+            return;
+        }
+        long started = System.currentTimeMillis();
+        missing.values().removeIf(until -> until <= started);
+        if (mongoTemplate == null) {
+            // Single node: every write already went through courseChanged
+            lastSync = started;
+            return;
+        }
+        try {
+            Date since = new Date(watermark.getTime() - pollOverlapMs);
+            List<CourseVersion> changed = mongoTemplate.find(
+                    Query.query(Criteria.where("updatedAt").gte(since)), CourseVersion.class);
+            for (CourseVersion version : changed) {
+                Entry entry = courses.get(version.getId());
+                if (entry == null || entry.version < version.getVersion()) {
+                    refresh(version.getId());
+                }
+                advanceWatermark(version.getUpdatedAt());
+            }
+            lastSync = started;
+        } catch (RuntimeException e) {
+            log.warn("Course cache poll failed; reads fall back to the database after {} ms", maxStalenessMs, e);
+        }
+        if (changeStreamsEnabled && changeStreamThread != null && !changeStreamThread.isAlive()) {
+            startChangeStream();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        Thread thread = changeStreamThread;
+        changeStreamThread = null;
+        MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = changeStreamCursor;
+        if (cursor != null) {
+            cursor.close();
+        }
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    private boolean isFresh() {
+        return enabled && warm && System.currentTimeMillis() - lastSync <= maxStalenessMs;
+    }
+
+    // Possibly created on another node and not polled yet. Read once with the caller's read routing, so catalog reads
+    // go to a secondary, and not cached: the poll installs the course with its version. Ids found missing are
+    // remembered for missing-ttl ms, so repeated requests for them do not each reach the database
+    private Optional<CatalogCourse> loadMissing(String id) {
+        Long until = missing.get(id);
+        if (until != null && until > System.currentTimeMillis()) {
+            return Optional.empty();
+        }
+        Optional<CatalogCourse> catalog = courseRepository.findCatalogCourse(id);
+        if (catalog.isPresent()) {
+            missing.remove(id);
+        } else if (missing.size() < MAX_MISSING) {
+            missing.put(id, System.currentTimeMillis() + missingTtlMs);
+        }
+        return catalog;
+    }
+
+    // Always reads the primary: a lagging secondary could install an old course under a new version
+    private Optional<CatalogCourse> refresh(String id) {
+        long version = ReadRouting.primary(() -> readVersion(id));
+        Optional<CatalogCourse> catalog = ReadRouting.primary(() -> courseRepository.findCatalogCourse(id));
+        if (catalog.isPresent()) {
+            missing.remove(id);
+            courses.merge(id, new Entry(catalog.get().getCourse(), version, catalog.get().getEnrolledCount()),
+                    (existing, loaded) -> existing.version > loaded.version ? existing : loaded);
+        } else {
+            courses.remove(id);
+        }
+        return catalog;
+    }
+
+    private void stamp(String id) {
+        if (mongoTemplate == null) {
+            return;
+        }
+        mongoTemplate.upsert(
+                Query.query(Criteria.where("_id").is(id)),
+                new Update().inc("version", 1).currentDate("updatedAt"),
+                CourseVersion.class);
+    }
+
+    private long readVersion(String id) {
+        if (mongoTemplate == null) {
+            return 0;
+        }
+        CourseVersion version = mongoTemplate.findById(id, CourseVersion.class);
+        return version == null ? 0 : version.getVersion();
+    }
+
+    private void advanceWatermark(Date updatedAt) {
+        if (updatedAt != null && updatedAt.after(watermark)) {
+            watermark = updatedAt;
+        }
+    }
+
+    private boolean isReplicaSet() {
+        try {
+            return mongoTemplate.executeCommand(new Document("hello", 1)).containsKey("setName");
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    private void startChangeStream() {
+        Thread thread = new Thread(this::watchCourses, "course-cache-change-stream");
+        thread.setDaemon(true);
+        changeStreamThread = thread;
+        thread.start();
+    }
+
+    private void watchCourses() {
+        try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor =
+                     mongoTemplate.getCollection("courses").watch().cursor()) {
+            changeStreamCursor = cursor;
+            log.info("Course cache following change stream on courses");
+            while (Thread.currentThread() == changeStreamThread) {
+                ChangeStreamDocument<Document> change = cursor.next();
+                if (onlyEnrolledStudentsChanged(change)) {
+                    continue;
+                }
+                BsonValue key = change.getDocumentKey().get("_id");
+                refresh(key.isObjectId() ? key.asObjectId().getValue().toHexString() : key.asString().getValue());
+            }
+        } catch (RuntimeException e) {
+            if (changeStreamThread != null) {
+                log.warn("Course cache change stream stopped; relying on polling until it restarts", e);
+            }
+        }
+    }
+
+    // Enrollments only move the count, which refreshEnrolledCounts picks up without reloading the course
+    private static boolean onlyEnrolledStudentsChanged(ChangeStreamDocument<Document> change) {
+        UpdateDescription update = change.getUpdateDescription();
+        if (change.getOperationType() != OperationType.UPDATE || update == null) {
+            return false;
+        }
+        boolean removedOther = update.getRemovedFields() != null
+                && update.getRemovedFields().stream().anyMatch(field -> !field.startsWith("enrolledStudents"));
+        boolean updatedOther = update.getUpdatedFields() != null
+                && update.getUpdatedFields().keySet().stream().anyMatch(field -> !field.startsWith("enrolledStudents"));
+        return !removedOther && !updatedOther;
+    }
+
+    private static CourseView view(CatalogCourse catalog) {
+        return CourseView.of(catalog.getCourse(), catalog.getEnrolledCount());
+    }
+
+    private static CourseSummary summary(CatalogCourse catalog) {
+        return CourseSummary.of(view(catalog));
+    }
+
+    private static Course copy(Course course) {
+        List<Module> modules = null;
+        if (course.getModules() != null) {
+            modules = new ArrayList<>();
+            for (Module module : course.getModules()) {
+                modules.add(new Module(module.getId(), module.getTitle(), module.getContent(), module.getVideoUrl()));
+            }
+        }
+        return new Course(
+                course.getId(),
+                course.getTitle(),
+                course.getDescription(),
+                course.getThumbnail(),
+                course.getInstructor(),
+                course.getDuration(),
+                modules,
+                null,
+                course.getDeletedAt()
+        );
+    }
+
+    private record Entry(Course course, long version, CourseView view, CourseSummary summary) {
+
+        Entry(Course course, long version, int enrolledCount) {
+            this(course, version, CourseView.of(course, enrolledCount));
+        }
+
+        private Entry(Course course, long version, CourseView view) {
+            this(course, version, view, CourseSummary.of(view));
+        }
+
+        // Only the count changes, so both views keep sharing their module lists with the previous entry
+        Entry withEnrolledCount(int enrolledCount) {
+            if (view.getEnrolledCount() == enrolledCount) {
+                return this;
+            }
+            return new Entry(course, version, view.withEnrolledCount(enrolledCount),
+                    summary.withEnrolledCount(enrolledCount));
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.coursepath.lms.service;
+
+import com.coursepath.lms.config.ReplicaRead;
+import com.coursepath.lms.model.Course;
+import com.coursepath.lms.model.CourseDeletion;
+import com.coursepath.lms.model.DeletionStatus;
+import com.coursepath.lms.repository.CourseDeletionRepository;
+import com.coursepath.lms.repository.CourseRepository;
+import com.coursepath.lms.repository.EnrollmentRepository;
+import com.coursepath.lms.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.LongConsumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Removes everything that belongs to a deleted course without holding up the
+ * admin request that deleted it.
+ *
+ * Deleting a course only marks it as deleted, which hides it from every read,
+ * and records a job in {@code course_deletions}. A background worker then
+ * removes the course's enrollments and pulls it from {@code User.enrolledCourses}
+ * in bounded, throttled batches, and finally removes the course document. Every
+ * batch re-queries what is left, so a job interrupted by a crash or redeploy is
+ * safely resumed by the periodic sweep on any node once its lease lapses.
+ */
+@Component
+public class CourseDeletionService {
+
+    private static final Logger log = LoggerFactory.getLogger(CourseDeletionService.class);
+
+    private final CourseDeletionRepository courseDeletionRepository;
+    private final CourseRepository courseRepository;
+    private final EnrollmentRepository enrollmentRepository;
+    private final UserRepository userRepository;
+    private final CourseCache courseCache;
+    private final String nodeId = new ObjectId().toHexString();
+    private final Set<String> queued = ConcurrentHashMap.newKeySet();
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "course-deletion");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Value("${lms.course-deletion.batch-size:500}")
+    private int batchSize;
+
+    @Value("${lms.course-deletion.lease:60000}")
+    private long leaseMs;
+
+    @Value("${lms.course-deletion.max-writes-per-second:1000}")
+    private int maxWritesPerSecond;
+
+    public CourseDeletionService(CourseDeletionRepository courseDeletionRepository, CourseRepository courseRepository,
+                                 EnrollmentRepository enrollmentRepository, UserRepository userRepository,
+                                 CourseCache courseCache) {
+        this.courseDeletionRepository = courseDeletionRepository;
+        this.courseRepository = courseRepository;
+        this.enrollmentRepository = enrollmentRepository;
+        this.userRepository = userRepository;
+        this.courseCache = courseCache;
+    }
+
+    // Called once the course is marked deleted; repeated calls reuse the existing job
+    public CourseDeletion schedule(Course course) {
+        CourseDeletion deletion = courseDeletionRepository.findById(course.getId()).orElseGet(() ->
+                courseDeletionRepository.save(new CourseDeletion(course.getId(), course.getTitle(),
+                        DeletionStatus.PENDING, 0, 0, Instant.now(), null, null, null, null)));
+        submit(deletion.getId());
+        return deletion;
+    }
+
+    @ReplicaRead
+    public CourseDeletion getDeletion(String courseId) {
+        return courseDeletionRepository.findById(courseId)
+                .orElseThrow(() -> new RuntimeException("Course deletion not found"));
+    }
+
+    // Picks up jobs whose node stopped before finishing them
+    @Scheduled(initialDelayString = "${lms.course-deletion.sweep-interval:30000}",
+            fixedDelayString = "${lms.course-deletion.sweep-interval:30000}")
+    public void resumeUnfinished() {
+        for (CourseDeletion deletion : courseDeletionRepository.findByStatusNot(DeletionStatus.COMPLETED)) {
+            if (deletion.getOwner() == null || nodeId.equals(deletion.getOwner())
+                    || deletion.getLeaseUntil() == null || deletion.getLeaseUntil().isBefore(Instant.now())) {
+                submit(deletion.getId());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        worker.shutdownNow();
+    }
+
+    private void submit(String courseId) {
+        if (queued.add(courseId)) {
+            worker.execute(() -> {
+                try {
+                    process(courseId);
+                } catch (RuntimeException e) {
+                    log.error("Deleting course {} failed; it is retried by the next sweep", courseId, e);
+                } finally {
+                    queued.remove(courseId);
+                }
+            });
+        }
+    }
+
+    private void process(String courseId) {
+        CourseDeletion deletion = courseDeletionRepository.claim(courseId, nodeId, leaseExpiry()).orElse(null);
+        if (deletion == null) {
+            return;
+        }
+        if (deletion.getStartedAt() == null) {
+            deletion.setStartedAt(Instant.now());
+        }
+
+        WriteThrottle throttle = new WriteThrottle(maxWritesPerSecond);
+        boolean drained = drain(deletion, throttle, () -> enrollmentRepository.deleteBatchByCourseId(courseId, batchSize),
+                removed -> deletion.setEnrollmentsRemoved(deletion.getEnrollmentsRemoved() + removed))
+                && drain(deletion, throttle, () -> userRepository.pullEnrolledCourseBatch(courseId, batchSize),
+                updated -> deletion.setUsersUpdated(deletion.getUsersUpdated() + updated));
+        if (!drained || Thread.currentThread().isInterrupted()) {
+            return;
+        }
+
+        courseRepository.deleteById(courseId);
+        courseCache.courseChanged(courseId);
+
+        deletion.setStatus(DeletionStatus.COMPLETED);
+        deletion.setCompletedAt(Instant.now());
+        deletion.setOwner(null);
+        deletion.setLeaseUntil(null);
+        if (!courseDeletionRepository.checkpoint(deletion, nodeId)) {
+            log.info("Course {} was deleted, but its job was taken over by another node, which completes it", courseId);
+            return;
+        }
+        log.info("Deleted course {}: {} enrollments removed, {} users updated",
+                courseId, deletion.getEnrollmentsRemoved(), deletion.getUsersUpdated());
+    }
+
+    // Runs batches until nothing is left, saving progress and renewing the lease after each. Stops, returning false,
+    // once the lease has been taken over, so the new owner's progress is never written over
+    private boolean drain(CourseDeletion deletion, WriteThrottle throttle, LongSupplier batch, LongConsumer progress) {
+        long count;
+        do {
+            throttle.acquire(batchSize);
+            count = batch.getAsLong();
+            progress.accept(count);
+            deletion.setLeaseUntil(leaseExpiry());
+            if (!courseDeletionRepository.checkpoint(deletion, nodeId)) {
+                log.warn("Lost the lease on deleting course {}; leaving it to the node that took it over",
+                        deletion.getId());
+                return false;
+            }
+        } while (count > 0 && !Thread.currentThread().isInterrupted());
+        return true;
+    }
+
+    private Instant leaseExpiry() {
+        return Instant.now().plusMillis(leaseMs);
+    }
+}
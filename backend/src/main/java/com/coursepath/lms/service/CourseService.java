@@ -1,20 +1,45 @@
 
 package com.coursepath.lms.service;
 
+import com.coursepath.lms.config.ReadRouting;
+import com.coursepath.lms.config.ReplicaRead;
+import com.coursepath.lms.dto.CatalogCourse;
+import com.coursepath.lms.dto.CourseSummary;
+import com.coursepath.lms.dto.CourseView;
+import com.coursepath.lms.dto.DashboardPage;
+import com.coursepath.lms.dto.RosterEntry;
+import com.coursepath.lms.dto.RosterPage;
+import com.coursepath.lms.model.ActivityType;
 import com.coursepath.lms.model.Course;
+import com.coursepath.lms.model.CourseDeletion;
 import com.coursepath.lms.model.Enrollment;
+import com.coursepath.lms.model.Module;
 import com.coursepath.lms.repository.CourseRepository;
 import com.coursepath.lms.repository.EnrollmentRepository;
+import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class CourseService {
 
+    private static final Set<String> ROSTER_SORTS = Set.of("enrolledDate", "progress");
+
     @Autowired
     private CourseRepository courseRepository;
     
@@ -23,72 +48,131 @@ public class CourseService {
     
     @Autowired
     private UserService userService;
+    
+    @Autowired(required = false)
+    private ProgressWriteBuffer progressWriteBuffer;
+    
+    @Autowired
+    private LiveUpdateService liveUpdateService;
+    
+    @Autowired
+    private CourseCache courseCache;
+    
+    @Autowired
+    private CourseDeletionService courseDeletionService;
+    
+    @Autowired
+    private ProgressRecalculationService progressRecalculationService;
+    
+    @Autowired
+    private ActivityRecorder activityRecorder;
 
-    public List<Course> getAllCourses() {
-        return courseRepository.findAll();
+    public Course getCourseById(String id) {
+        return courseCache.get(id)
+                .orElseThrow(() -> new RuntimeException("Course not found"));
     }
 
-    public Course getCourseById(String id) {
-        return courseRepository.findById(id)
+    // The catalog is served from the cache; only its database fallback, while the cache is stale, reads a secondary
+    @ReplicaRead
+    public Stream<CourseSummary> getCourseSummaries() {
+        return courseCache.streamSummaries();
+    }
+
+    @ReplicaRead
+    public CourseSummary getCourseSummary(String id) {
+        return courseCache.getSummary(id)
+                .orElseThrow(() -> new RuntimeException("Course not found"));
+    }
+
+    @ReplicaRead
+    public CourseView getCourseView(String id) {
+        return courseCache.getView(id)
                 .orElseThrow(() -> new RuntimeException("Course not found"));
     }
 
     public Course createCourse(Course course) {
+        course.setDeletedAt(null);
         if (course.getEnrolledStudents() == null) {
             course.setEnrolledStudents(new ArrayList<>());
         }
-        return courseRepository.save(course);
+        Course saved = courseRepository.save(course);
+        courseCache.courseChanged(saved.getId());
+        return saved;
     }
 
-    public Course updateCourse(String id, Course courseDetails) {
-        Course course = getCourseById(id);
-        
-        course.setTitle(courseDetails.getTitle());
-        course.setDescription(courseDetails.getDescription());
-        course.setThumbnail(courseDetails.getThumbnail());
-        course.setInstructor(courseDetails.getInstructor());
-        course.setDuration(courseDetails.getDuration());
-        course.setModules(courseDetails.getModules());
-        
-        return courseRepository.save(course);
+    // Sets only the edited fields where the course is not being deleted, so concurrent enrollments and a concurrent
+    // deletion both survive; the result is read back without the roster
+    public CourseView updateCourse(String id, Course courseDetails) {
+        Set<String> previousModules = new HashSet<>(courseRepository.findModuleIds(id)
+                .orElseThrow(CourseService::courseNotFound));
+        if (!courseRepository.updateDetails(id, courseDetails)) {
+            throw courseNotFound();
+        }
+        courseCache.courseChanged(id);
+        CatalogCourse updated = courseRepository.findCatalogCourse(id).orElseThrow(CourseService::courseNotFound);
+        if (!previousModules.equals(moduleIds(updated.getCourse()))) {
+            progressRecalculationService.modulesChanged(id);
+        }
+        return CourseView.of(updated.getCourse(), updated.getEnrolledCount());
     }
 
-    public void deleteCourse(String id) {
-        courseRepository.deleteById(id);
+    // Hides the course right away; its enrollments and user references are removed in the background
+    public CourseDeletion deleteCourse(String id) {
+        Course course = courseRepository.markDeleted(id, LocalDateTime.now())
+                .orElseThrow(() -> new RuntimeException("Course not found"));
+        courseCache.courseChanged(id);
+        return courseDeletionService.schedule(course);
     }
 
     public List<Course> getEnrolledCourses(String studentId) {
-        return courseRepository.findByEnrolledStudentsContaining(studentId);
+        List<Course> courses = courseRepository.findByEnrolledStudentsContaining(studentId);
+        courses.removeIf(course -> course.getDeletedAt() != null);
+        return courses;
     }
 
     public Enrollment enrollStudent(String courseId, String studentId) {
-        Course course = getCourseById(courseId);
+        getCourseById(courseId);
         
-        if (!course.getEnrolledStudents().contains(studentId)) {
-            course.getEnrolledStudents().add(studentId);
-            courseRepository.save(course);
-        }
+        // Adds only the student id, so the roster is neither loaded nor written back
+        courseRepository.addEnrolledStudent(courseId, studentId).ifPresent(enrolledCount -> {
+            courseCache.enrolledCountChanged(courseId, enrolledCount);
+            liveUpdateService.courseEnrollmentCountChanged(courseId, enrolledCount);
+        });
         
         userService.enrollCourse(studentId, courseId);
         
         // Check if enrollment already exists
-        return enrollmentRepository.findByCourseIdAndStudentId(courseId, studentId)
-                .orElseGet(() -> {
-                    Enrollment enrollment = new Enrollment();
-                    enrollment.setCourseId(courseId);
-                    enrollment.setStudentId(studentId);
-                    enrollment.setEnrolledDate(LocalDateTime.now());
-                    enrollment.setProgress(0);
-                    enrollment.setCompletedModules(new ArrayList<>());
-                    return enrollmentRepository.save(enrollment);
-                });
+        return findEnrollment(courseId, studentId)
+                .orElseGet(() -> createEnrollment(courseId, studentId));
+    }
+    
+    private Enrollment createEnrollment(String courseId, String studentId) {
+        Enrollment enrollment = new Enrollment();
+        enrollment.setCourseId(courseId);
+        enrollment.setStudentId(studentId);
+        enrollment.setEnrolledDate(LocalDateTime.now());
+        enrollment.setProgress(0);
+        enrollment.setCompletedModules(new ArrayList<>());
+        enrollment.setLastActivity(enrollment.getEnrolledDate());
+        Enrollment saved;
+        try {
+            saved = enrollmentRepository.insert(enrollment);
+        } catch (DuplicateKeyException e) {
+            // A concurrent request or the reconciler created it first; the primary already has it
+            return ReadRouting.primary(() -> findEnrollment(courseId, studentId))
+                    .orElseThrow(() -> e);
+        }
+        liveUpdateService.enrollmentChanged(saved);
+        activityRecorder.record(courseId, studentId, ActivityType.ENROLLED, null);
+        return saved;
     }
     
     public Enrollment updateProgress(String courseId, String studentId, String moduleId, boolean isCompleted) {
-        Enrollment enrollment = enrollmentRepository.findByCourseIdAndStudentId(courseId, studentId)
+        Enrollment enrollment = findEnrollment(courseId, studentId)
                 .orElseThrow(() -> new RuntimeException("Enrollment not found"));
         
         List<String> completedModules = enrollment.getCompletedModules();
+        boolean wasCompleted = completedModules.contains(moduleId);
         
         if (isCompleted && !completedModules.contains(moduleId)) {
             completedModules.add(moduleId);
@@ -96,22 +180,126 @@ public class CourseService {
             completedModules.remove(moduleId);
         }
         
-        Course course = getCourseById(courseId);
-        int totalModules = course.getModules().size();
+        // Drops modules the course no longer has, in case the background recalculation has not reached this enrollment.
+        // Read from the database rather than the cache, which can trail a module change by a poll interval.
+        Set<String> modules = new HashSet<>(courseRepository.findModuleIds(courseId)
+                .orElseThrow(() -> new RuntimeException("Course not found")));
+        completedModules.removeIf(completed -> !modules.contains(completed));
+        int totalModules = modules.size();
         double progress = totalModules > 0 ? (double) completedModules.size() / totalModules * 100 : 0;
         
         enrollment.setCompletedModules(completedModules);
         enrollment.setProgress(progress);
+        enrollment.setLastActivity(LocalDateTime.now());
         
-        return enrollmentRepository.save(enrollment);
+        Enrollment saved = progressWriteBuffer != null
+                ? progressWriteBuffer.put(enrollment)
+                : enrollmentRepository.save(enrollment);
+        liveUpdateService.enrollmentChanged(saved);
+        if (isCompleted != wasCompleted && modules.contains(moduleId)) {
+            activityRecorder.record(courseId, studentId,
+                    isCompleted ? ActivityType.MODULE_COMPLETED : ActivityType.MODULE_REOPENED, moduleId);
+        }
+        return saved;
     }
     
+    // Stays on the primary, like the dashboard: students expect to see a course right after enrolling
     public List<Enrollment> getStudentEnrollments(String studentId) {
-        return enrollmentRepository.findByStudentId(studentId);
+        List<Enrollment> enrollments = enrollmentRepository.findByStudentId(studentId);
+        enrollments.removeIf(enrollment -> courseCache.get(enrollment.getCourseId()).isEmpty());
+        if (progressWriteBuffer != null) {
+            enrollments.replaceAll(enrollment -> progressWriteBuffer.get(enrollment.getId()).orElse(enrollment));
+        }
+        return enrollments;
+    }
+    
+    public DashboardPage getStudentDashboard(String studentId, int page, int size) {
+        if (page < 0 || size < 1 || size > 100) {
+            throw new RuntimeException("Invalid page request");
+        }
+        DashboardPage dashboard = enrollmentRepository.findStudentDashboard(studentId, page, size);
+        if (progressWriteBuffer != null) {
+            dashboard.getItems().forEach(item -> progressWriteBuffer.get(item.getEnrollmentId()).ifPresent(pending -> {
+                item.setProgress(pending.getProgress());
+                item.setCompletedModuleCount(pending.getCompletedModules().size());
+                item.setLastActivity(pending.getLastActivity());
+            }));
+        }
+        return dashboard;
+    }
+    
+    @ReplicaRead
+    public RosterPage getCourseRoster(String courseId, String sortBy, String direction, Double minProgress,
+                                      Double maxProgress, String cursor, int limit) {
+        if (!ROSTER_SORTS.contains(sortBy) || !("asc".equals(direction) || "desc".equals(direction))
+                || limit < 1 || limit > 200) {
+            throw new RuntimeException("Invalid roster request");
+        }
+        getCourseById(courseId);
+        boolean descending = "desc".equals(direction);
+        Enrollment after = cursor == null ? null : decodeRosterCursor(cursor, sortBy, descending);
+        
+        // One extra row tells whether another page follows
+        List<RosterEntry> items = enrollmentRepository.findCourseRoster(
+                courseId, sortBy, descending, minProgress, maxProgress, after, limit + 1);
+        String nextCursor = null;
+        if (items.size() > limit) {
+            items = new ArrayList<>(items.subList(0, limit));
+            nextCursor = encodeRosterCursor(items.get(limit - 1), sortBy, descending);
+        }
+        return new RosterPage(items, nextCursor);
     }
     
     public Enrollment getEnrollment(String courseId, String studentId) {
-        return enrollmentRepository.findByCourseIdAndStudentId(courseId, studentId)
+        return findEnrollment(courseId, studentId)
+                .filter(enrollment -> courseCache.get(courseId).isPresent())
                 .orElse(null);
     }
+    
+    // Opaque to clients: the sort, direction, sort value and id of the last entry of a page
+    private static String encodeRosterCursor(RosterEntry last, String sortBy, boolean descending) {
+        Object value = "progress".equals(sortBy) ? last.getProgress() : last.getEnrolledDate();
+        String cursor = sortBy + "|" + (descending ? "desc" : "asc") + "|" + value + "|" + last.getEnrollmentId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private static Enrollment decodeRosterCursor(String cursor, String sortBy, boolean descending) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            if (parts.length != 4 || !parts[0].equals(sortBy) || !parts[1].equals(descending ? "desc" : "asc")
+                    || !ObjectId.isValid(parts[3])) {
+                throw new IllegalArgumentException();
+            }
+            Enrollment after = new Enrollment();
+            after.setId(parts[3]);
+            if ("progress".equals(sortBy)) {
+                after.setProgress(Double.parseDouble(parts[2]));
+            } else {
+                after.setEnrolledDate(LocalDateTime.parse(parts[2]));
+            }
+            return after;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new RuntimeException("Invalid roster cursor");
+        }
+    }
+    
+    private static Set<String> moduleIds(Course course) {
+        if (course.getModules() == null) {
+            return Set.of();
+        }
+        return course.getModules().stream().map(Module::getId).collect(Collectors.toSet());
+    }
+    
+    private static ResponseStatusException courseNotFound() {
+        return new ResponseStatusException(HttpStatus.NOT_FOUND, "Course not found");
+    }
+    
+    // Overlays progress still waiting in the write-behind buffer so students read their own writes
+    private Optional<Enrollment> findEnrollment(String courseId, String studentId) {
+        Optional<Enrollment> enrollment = enrollmentRepository.findByCourseIdAndStudentId(courseId, studentId);
+        if (progressWriteBuffer != null && enrollment.isPresent()) {
+            return progressWriteBuffer.get(enrollment.get().getId()).or(() -> enrollment);
+        }
+        return enrollment;
+    }
 }
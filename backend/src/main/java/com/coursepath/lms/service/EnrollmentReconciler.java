@@ -0,0 +1,430 @@
+package com.coursepath.lms.service;
+
+import com.coursepath.lms.model.Course;
+import com.coursepath.lms.model.Enrollment;
+import com.coursepath.lms.model.ReconcilerCheckpoint;
+import com.coursepath.lms.model.ReconcilerLease;
+import com.coursepath.lms.model.User;
+import com.mongodb.ErrorCategory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Repairs drift between the three copies of enrollment state: the
+ * {@code Enrollment} documents, {@code Course.enrolledStudents} and
+ * {@code User.enrolledCourses}.
+ *
+ * Each collection is streamed in {@code _id} order and cut into chunks that a
+ * fork-join pool checks in parallel. Membership is checked server-side by
+ * intersecting the arrays with the ids in the chunk, so a course with a huge
+ * roster is never loaded. Interrupted enrollments are rolled forward: a
+ * student listed on a course or a course listed on a user gets its missing
+ * pieces. Anything that points at a course or user that no longer exists, or
+ * at a course pending deletion, is removed. Repairs are issued as throttled unordered bulk writes, and progress
+ * is checkpointed after every window of chunks so a restarted node resumes
+ * where the last run stopped.
+ *
+ * Only one node reconciles at a time: a run first claims the lease in
+ * {@code reconciler_leases}, renews it with every checkpoint and gives up as
+ * soon as a renewal finds another owner.
+ */
+@Component
+@ConditionalOnProperty(prefix = "lms.reconciler", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class EnrollmentReconciler {
+
+    private static final Logger log = LoggerFactory.getLogger(EnrollmentReconciler.class);
+
+    private static final String ENROLLMENTS = "enrollments";
+    private static final String COURSES = "courses";
+    private static final String USERS = "users";
+    private static final String LEASE_ID = "enrollments";
+
+    private final MongoTemplate mongoTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Timer runTimer;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final String nodeId = new ObjectId().toHexString();
+
+    @Value("${lms.reconciler.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${lms.reconciler.parallelism:4}")
+    private int parallelism;
+
+    @Value("${lms.reconciler.max-writes-per-second:500}")
+    private int maxWritesPerSecond;
+
+    @Value("${lms.reconciler.lease:600000}")
+    private long leaseMs;
+
+    public EnrollmentReconciler(MongoTemplate mongoTemplate, MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.meterRegistry = meterRegistry;
+        this.runTimer = meterRegistry.timer("lms.reconciler.run");
+    }
+
+    @Scheduled(initialDelayString = "${lms.reconciler.initial-delay:300000}",
+            fixedDelayString = "${lms.reconciler.interval:21600000}")
+    public void reconcile() {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        boolean claimed;
+        try {
+            claimed = claimLease();
+        } catch (RuntimeException e) {
+            log.warn("Claiming the reconciler lease failed; retrying on the next run", e);
+            claimed = false;
+        }
+        if (!claimed) {
+            running.set(false);
+            return;
+        }
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        WriteThrottle throttle = new WriteThrottle(maxWritesPerSecond);
+        long started = System.nanoTime();
+        try {
+            runPhase(ENROLLMENTS, Enrollment.class, Enrollment::getId,
+                    chunk -> reconcileEnrollments(chunk, throttle), pool, "courseId", "studentId");
+            runPhase(COURSES, Course.class, Course::getId,
+                    chunk -> reconcileCourses(chunk, throttle), pool);
+            runPhase(USERS, User.class, User::getId,
+                    chunk -> reconcileUsers(chunk, throttle), pool);
+            mongoTemplate.remove(new Query(), ReconcilerCheckpoint.class);
+            log.info("Enrollment reconciliation finished");
+        } catch (RuntimeException e) {
+            log.error("Enrollment reconciliation failed; the next run resumes from the last checkpoint", e);
+        } finally {
+            pool.shutdown();
+            releaseLease();
+            runTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            running.set(false);
+        }
+    }
+
+    private <T> void runPhase(String phase, Class<T> type, Function<T, String> idOf,
+                              Consumer<List<T>> handler, ForkJoinPool pool, String... fields) {
+        ReconcilerCheckpoint checkpoint = mongoTemplate.findById(phase, ReconcilerCheckpoint.class);
+        if (checkpoint != null && checkpoint.isCompleted()) {
+            return;
+        }
+
+        Query query = new Query().with(Sort.by("_id")).cursorBatchSize(chunkSize);
+        if (checkpoint != null && checkpoint.getLastId() != null) {
+            query.addCriteria(Criteria.where("_id").gt(new ObjectId(checkpoint.getLastId())));
+        }
+        query.fields().include("_id").include(fields);
+
+        List<ForkJoinTask<?>> window = new ArrayList<>();
+        List<T> chunk = new ArrayList<>(chunkSize);
+        String lastId = null;
+        try (Stream<T> stream = mongoTemplate.stream(query, type)) {
+            Iterator<T> documents = stream.iterator();
+            while (documents.hasNext()) {
+                T document = documents.next();
+                chunk.add(document);
+                lastId = idOf.apply(document);
+                if (chunk.size() == chunkSize) {
+                    window.add(submit(pool, handler, chunk, phase));
+                    chunk = new ArrayList<>(chunkSize);
+                    if (window.size() >= parallelism * 2) {
+                        awaitWindow(phase, window, lastId, false);
+                    }
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            window.add(submit(pool, handler, chunk, phase));
+        }
+        awaitWindow(phase, window, lastId, true);
+    }
+
+    private <T> ForkJoinTask<?> submit(ForkJoinPool pool, Consumer<List<T>> handler, List<T> chunk, String phase) {
+        List<T> work = chunk;
+        return pool.submit(() -> {
+            handler.accept(work);
+            meterRegistry.counter("lms.reconciler.scanned", "collection", phase).increment(work.size());
+        });
+    }
+
+    private void awaitWindow(String phase, List<ForkJoinTask<?>> window, String lastId, boolean completed) {
+        window.forEach(ForkJoinTask::join);
+        window.clear();
+        renewLease();
+        mongoTemplate.save(new ReconcilerCheckpoint(phase, lastId, completed, Instant.now()));
+    }
+
+    private boolean claimLease() {
+        Query query = Query.query(Criteria.where("_id").is(LEASE_ID).orOperator(
+                Criteria.where("owner").is(null),
+                Criteria.where("owner").is(nodeId),
+                Criteria.where("leaseUntil").lt(Instant.now())));
+        try {
+            return mongoTemplate.findAndModify(query, leaseUpdate(),
+                    FindAndModifyOptions.options().upsert(true).returnNew(true), ReconcilerLease.class) != null;
+        } catch (DuplicateKeyException e) {
+            // The lease exists and is held by another node, so the upsert tried to insert a second one
+            return false;
+        }
+    }
+
+    // Checkpoints are only written while the lease is ours, so a node that lost it cannot move another's progress
+    private void renewLease() {
+        if (mongoTemplate.updateFirst(ownLease(), leaseUpdate(), ReconcilerLease.class).getMatchedCount() == 0) {
+            throw new RuntimeException("Reconciler lease was taken over by another node");
+        }
+    }
+
+    private void releaseLease() {
+        try {
+            mongoTemplate.updateFirst(ownLease(), new Update().unset("owner").unset("leaseUntil"), ReconcilerLease.class);
+        } catch (RuntimeException e) {
+            log.warn("Releasing the reconciler lease failed; it lapses after {} ms", leaseMs, e);
+        }
+    }
+
+    private Query ownLease() {
+        return Query.query(Criteria.where("_id").is(LEASE_ID).and("owner").is(nodeId));
+    }
+
+    private Update leaseUpdate() {
+        return new Update().set("owner", nodeId).set("leaseUntil", Instant.now().plusMillis(leaseMs));
+    }
+
+    private void reconcileEnrollments(List<Enrollment> chunk, WriteThrottle throttle) {
+        Set<String> courseIds = chunk.stream().map(Enrollment::getCourseId).collect(Collectors.toSet());
+        Set<String> studentIds = chunk.stream().map(Enrollment::getStudentId).collect(Collectors.toSet());
+        Map<String, Set<String>> courseMembers = intersect(COURSES, courseIds, "enrolledStudents", studentIds);
+        Map<String, Set<String>> userCourses = intersect(USERS, studentIds, "enrolledCourses", courseIds);
+
+        Repairs repairs = new Repairs();
+        for (Enrollment enrollment : chunk) {
+            String courseId = enrollment.getCourseId();
+            String studentId = enrollment.getStudentId();
+            Set<String> members = courseMembers.get(courseId);
+            Set<String> courses = userCourses.get(studentId);
+
+            if (members == null || courses == null) {
+                repairs.op(ENROLLMENTS, "enrollment_removed").remove(byId(enrollment.getId()));
+                if (courses != null && courses.contains(courseId)) {
+                    repairs.op(USERS, "user_course_removed")
+                            .updateOne(byId(studentId), new Update().pull("enrolledCourses", courseId));
+                }
+                if (members != null && members.contains(studentId)) {
+                    repairs.op(COURSES, "course_student_removed")
+                            .updateOne(byId(courseId), new Update().pull("enrolledStudents", studentId));
+                }
+                continue;
+            }
+            if (!members.contains(studentId)) {
+                repairs.op(COURSES, "course_student_added")
+                        .updateOne(byId(courseId), new Update().addToSet("enrolledStudents", studentId));
+            }
+            if (!courses.contains(courseId)) {
+                repairs.op(USERS, "user_course_added")
+                        .updateOne(byId(studentId), new Update().addToSet("enrolledCourses", courseId));
+            }
+        }
+        repairs.execute(throttle);
+    }
+
+    private void reconcileCourses(List<Course> chunk, WriteThrottle throttle) {
+        Aggregation aggregation = missingEnrollments(COURSES, chunk.stream().map(Course::getId).collect(Collectors.toList()),
+                "enrolledStudents", "studentId", "courseId", USERS);
+        Repairs repairs = new Repairs();
+        try (Stream<Document> missing = mongoTemplate.aggregateStream(aggregation, COURSES, Document.class)) {
+            missing.forEach(pair -> {
+                String courseId = pair.getString("ownerId");
+                String studentId = pair.getString("memberId");
+                if (pair.getBoolean("memberExists")) {
+                    createEnrollment(repairs, courseId, studentId);
+                    repairs.op(USERS, null)
+                            .updateOne(byId(studentId), new Update().addToSet("enrolledCourses", courseId));
+                } else {
+                    repairs.op(COURSES, "course_student_removed")
+                            .updateOne(byId(courseId), new Update().pull("enrolledStudents", studentId));
+                }
+            });
+        }
+        repairs.execute(throttle);
+    }
+
+    private void reconcileUsers(List<User> chunk, WriteThrottle throttle) {
+        Aggregation aggregation = missingEnrollments(USERS, chunk.stream().map(User::getId).collect(Collectors.toList()),
+                "enrolledCourses", "courseId", "studentId", COURSES);
+        Repairs repairs = new Repairs();
+        try (Stream<Document> missing = mongoTemplate.aggregateStream(aggregation, USERS, Document.class)) {
+            missing.forEach(pair -> {
+                String studentId = pair.getString("ownerId");
+                String courseId = pair.getString("memberId");
+                if (pair.getBoolean("memberExists")) {
+                    createEnrollment(repairs, courseId, studentId);
+                    repairs.op(COURSES, null)
+                            .updateOne(byId(courseId), new Update().addToSet("enrolledStudents", studentId));
+                } else {
+                    repairs.op(USERS, "user_course_removed")
+                            .updateOne(byId(studentId), new Update().pull("enrolledCourses", courseId));
+                }
+            });
+        }
+        repairs.execute(throttle);
+    }
+
+    // The unique course_student index is what prevents duplicates: a repeated run matches the existing enrollment,
+    // and if enrollStudent inserts it between the lookup and this upsert, the upsert fails with a duplicate key error
+    private void createEnrollment(Repairs repairs, String courseId, String studentId) {
+        Date now = new Date();
+        repairs.op(ENROLLMENTS, "enrollment_created").upsert(
+                Query.query(Criteria.where("courseId").is(courseId).and("studentId").is(studentId)),
+                new Update()
+                        .setOnInsert("enrolledDate", now)
+                        .setOnInsert("progress", 0.0)
+                        .setOnInsert("completedModules", List.of())
+                        .setOnInsert("lastActivity", now));
+    }
+
+    // For each owner document in the chunk, yields array members that have no matching Enrollment
+    // together with whether the member document itself still exists
+    private Aggregation missingEnrollments(String ownerCollection, List<String> ownerIds, String arrayField,
+                                           String memberKey, String ownerKey, String memberCollection) {
+        String member = "$" + arrayField;
+        return Aggregation.newAggregation(
+                Aggregation.match(existing(ownerCollection, ownerIds)),
+                Aggregation.unwind(arrayField),
+                Aggregation.stage(new Document("$lookup", new Document("from", ENROLLMENTS)
+                        .append("let", new Document("owner", new Document("$toString", "$_id")).append("member", member))
+                        .append("pipeline", List.of(
+                                new Document("$match", new Document("$expr", new Document("$and", List.of(
+                                        new Document("$eq", List.of("$" + ownerKey, "$$owner")),
+                                        new Document("$eq", List.of("$" + memberKey, "$$member")))))),
+                                new Document("$limit", 1),
+                                new Document("$project", new Document("_id", 1))))
+                        .append("as", "enrollment"))),
+                Aggregation.stage(new Document("$match", new Document("enrollment", new Document("$size", 0)))),
+                Aggregation.stage(new Document("$lookup", new Document("from", memberCollection)
+                        .append("let", new Document("memberId", new Document("$convert", new Document("input", member)
+                                .append("to", "objectId")
+                                .append("onError", null)
+                                .append("onNull", null))))
+                        .append("pipeline", List.of(
+                                new Document("$match", notDeleted(memberCollection, new Document("$expr",
+                                        new Document("$eq", List.of("$_id", "$$memberId"))))),
+                                new Document("$project", new Document("_id", 1))))
+                        .append("as", "member"))),
+                Aggregation.stage(new Document("$project", new Document("_id", 0)
+                        .append("ownerId", new Document("$toString", "$_id"))
+                        .append("memberId", member)
+                        .append("memberExists", new Document("$gt", List.of(new Document("$size", "$member"), 0)))))
+        );
+    }
+
+    // Returns, for each existing document, which of the candidate ids appear in its array field
+    private Map<String, Set<String>> intersect(String collection, Collection<String> ids, String arrayField,
+                                               Collection<String> candidates) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(existing(collection, ids)),
+                Aggregation.stage(new Document("$project", new Document("members", new Document("$setIntersection",
+                        List.of(new Document("$ifNull", List.of("$" + arrayField, List.of())), candidates)))))
+        );
+        Map<String, Set<String>> result = new HashMap<>();
+        for (Document document : mongoTemplate.aggregate(aggregation, collection, Document.class)) {
+            result.put(document.getObjectId("_id").toHexString(),
+                    new HashSet<>(document.getList("members", String.class)));
+        }
+        return result;
+    }
+
+    // Courses pending deletion count as missing, so their leftovers are removed rather than rolled forward
+    private static Criteria existing(String collection, Collection<String> ids) {
+        Criteria criteria = Criteria.where("_id").in(toObjectIds(ids));
+        return COURSES.equals(collection) ? criteria.and("deletedAt").is(null) : criteria;
+    }
+
+    private static Document notDeleted(String collection, Document filter) {
+        return COURSES.equals(collection) ? filter.append("deletedAt", null) : filter;
+    }
+
+    private static List<ObjectId> toObjectIds(Collection<String> ids) {
+        return ids.stream().filter(ObjectId::isValid).map(ObjectId::new).collect(Collectors.toList());
+    }
+
+    private static Query byId(String id) {
+        return Query.query(Criteria.where("_id").is(ObjectId.isValid(id) ? new ObjectId(id) : id));
+    }
+
+    // Bulk writes for one chunk, grouped per collection and counted per repair type
+    private final class Repairs {
+
+        private final Map<String, BulkOperations> operations = new HashMap<>();
+        private final Map<String, Integer> writes = new HashMap<>();
+        private final Map<String, Integer> counts = new HashMap<>();
+
+        // A null repair type marks an idempotent companion write that is not counted on its own
+        private BulkOperations op(String collection, String repair) {
+            writes.merge(collection, 1, Integer::sum);
+            if (repair != null) {
+                counts.merge(repair, 1, Integer::sum);
+            }
+            return operations.computeIfAbsent(collection,
+                    name -> mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, name));
+        }
+
+        private void execute(WriteThrottle throttle) {
+            operations.forEach((collection, bulk) -> {
+                throttle.acquire(writes.get(collection));
+                try {
+                    bulk.execute();
+                } catch (BulkOperationException e) {
+                    // Unordered, so the other writes went through; duplicates mean the enrollment already exists
+                    boolean onlyDuplicates = e.getErrors().stream().allMatch(error ->
+                            ErrorCategory.fromErrorCode(error.getCode()) == ErrorCategory.DUPLICATE_KEY);
+                    if (!onlyDuplicates) {
+                        throw e;
+                    }
+                }
+            });
+            counts.forEach((repair, count) -> meterRegistry.counter("lms.reconciler.repairs", "type", repair)
+                    .increment(count));
+            if (!counts.isEmpty()) {
+                log.info("Reconciler repaired {}", counts);
+            }
+        }
+    }
+}
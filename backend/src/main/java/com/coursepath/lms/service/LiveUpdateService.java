@@ -0,0 +1,272 @@
+package com.coursepath.lms.service;
+
+import com.coursepath.lms.dto.CourseEnrollmentCount;
+import com.coursepath.lms.dto.EnrollmentView;
+import com.coursepath.lms.model.Enrollment;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pushes enrollment and progress changes to connected clients over Server-Sent
+ * Events. Students receive changes to their own enrollments; admins receive
+ * per-course enrollment counters.
+ *
+ * Connections are held by the servlet container's async support, so an idle
+ * client costs no thread, and events are written with non-blocking servlet
+ * output: a write only goes out while the connection can take it, so no thread
+ * ever waits on a slow client. Each client has its own bounded queue in which a
+ * newer event for the same enrollment or course replaces the pending older one.
+ * A client that falls {@code max-queued-events} behind, or whose connection
+ * accepts nothing for {@code send-timeout} ms, is disconnected and is expected
+ * to reconnect and reload its state.
+ *
+ * Fan-out is local to this node: subscribers are held in memory, and events are
+ * published only by the node that made the change. With several nodes, clients
+ * connected elsewhere miss the event until they reconnect and reload.
+ */
+@Service
+public class LiveUpdateService {
+
+    private static final Logger log = LoggerFactory.getLogger(LiveUpdateService.class);
+
+    private static final byte[] HEARTBEAT = ":heartbeat\n\n".getBytes(StandardCharsets.UTF_8);
+
+    private final Map<String, Set<Client>> studentClients = new ConcurrentHashMap<>();
+    private final Set<Client> adminClients = ConcurrentHashMap.newKeySet();
+    private final ObjectMapper objectMapper;
+
+    @Value("${lms.live.timeout:1800000}")
+    private long timeoutMs;
+
+    @Value("${lms.live.max-queued-events:256}")
+    private int maxQueuedEvents;
+
+    @Value("${lms.live.send-timeout:10000}")
+    private long sendTimeoutMs;
+
+    public LiveUpdateService(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public void subscribeStudent(HttpServletRequest request, HttpServletResponse response, String studentId)
+            throws IOException {
+        Client client = open(request, response);
+        studentClients.computeIfAbsent(studentId, id -> ConcurrentHashMap.newKeySet()).add(client);
+        client.onClose(() -> studentClients.computeIfPresent(studentId, (id, clients) -> {
+            clients.remove(client);
+            return clients.isEmpty() ? null : clients;
+        }));
+        client.enqueue("connected", event("connected", studentId));
+    }
+
+    public void subscribeAdmin(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Client client = open(request, response);
+        adminClients.add(client);
+        client.onClose(() -> adminClients.remove(client));
+        client.enqueue("connected", event("connected", "admin"));
+    }
+
+    public void enrollmentChanged(Enrollment enrollment) {
+        Set<Client> clients = studentClients.get(enrollment.getStudentId());
+        if (clients == null) {
+            return;
+        }
+        byte[] event = event("enrollment", EnrollmentView.of(enrollment));
+        for (Client client : clients) {
+            client.enqueue("enrollment:" + enrollment.getId(), event);
+        }
+    }
+
+    public void courseEnrollmentCountChanged(String courseId, int enrolledCount) {
+        if (adminClients.isEmpty()) {
+            return;
+        }
+        byte[] event = event("course-enrollments", new CourseEnrollmentCount(courseId, enrolledCount));
+        for (Client client : adminClients) {
+            client.enqueue("course:" + courseId, event);
+        }
+    }
+
+    // Keeps idle connections open through proxies, and drops clients whose connection stopped accepting data
+    @Scheduled(fixedRateString = "${lms.live.heartbeat-interval:20000}")
+    public void heartbeat() {
+        adminClients.forEach(client -> client.enqueue("heartbeat", HEARTBEAT));
+        studentClients.values().forEach(clients -> clients.forEach(client -> client.enqueue("heartbeat", HEARTBEAT)));
+    }
+
+    @Scheduled(fixedDelayString = "${lms.live.stall-check-interval:1000}")
+    public void closeStalledClients() {
+        long now = System.nanoTime();
+        adminClients.forEach(client -> client.closeIfStalled(now));
+        studentClients.values().forEach(clients -> clients.forEach(client -> client.closeIfStalled(now)));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        adminClients.forEach(Client::close);
+        studentClients.values().forEach(clients -> clients.forEach(Client::close));
+    }
+
+    private Client open(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.TEXT_EVENT_STREAM_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader("Cache-Control", "no-cache");
+        AsyncContext context = request.startAsync(request, response);
+        context.setTimeout(timeoutMs);
+        Client client = new Client(context, response.getOutputStream());
+        context.addListener(client);
+        client.out.setWriteListener(client);
+        return client;
+    }
+
+    // Serialized once and shared by every client the event goes to; strings are sent as they are
+    private byte[] event(String name, Object data) {
+        String payload;
+        try {
+            payload = data instanceof String text ? text : objectMapper.writeValueAsString(data);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize live update " + name, e);
+        }
+        return ("event:" + name + "\ndata:" + payload + "\n\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private final class Client implements WriteListener, AsyncListener {
+
+        private final AsyncContext context;
+        private final ServletOutputStream out;
+        private final LinkedHashMap<String, byte[]> pending = new LinkedHashMap<>();
+        private Runnable cleanup = () -> { };
+        private boolean unflushed;
+        // When the connection last refused a write; 0 while it is keeping up
+        private long stalledSince;
+        private volatile boolean closed;
+
+        private Client(AsyncContext context, ServletOutputStream out) {
+            this.context = context;
+            this.out = out;
+        }
+
+        private synchronized void onClose(Runnable cleanup) {
+            this.cleanup = cleanup;
+            if (closed) {
+                cleanup.run();
+            }
+        }
+
+        private void enqueue(String key, byte[] event) {
+            if (closed) {
+                return;
+            }
+            synchronized (this) {
+                // Re-inserting moves the key to the back, so a coalesced event keeps its latest position
+                pending.remove(key);
+                if (pending.size() >= maxQueuedEvents) {
+                    log.debug("Disconnecting slow live update client with {} queued events", pending.size());
+                    close();
+                    return;
+                }
+                pending.put(key, event);
+                drain();
+            }
+        }
+
+        // Writes queued events while the connection accepts them; the container calls onWritePossible to resume
+        private synchronized void drain() {
+            try {
+                while (!closed && out.isReady()) {
+                    stalledSince = 0;
+                    Iterator<byte[]> iterator = pending.values().iterator();
+                    if (!iterator.hasNext()) {
+                        if (unflushed) {
+                            unflushed = false;
+                            out.flush();
+                            continue;
+                        }
+                        return;
+                    }
+                    byte[] event = iterator.next();
+                    iterator.remove();
+                    out.write(event);
+                    unflushed = true;
+                }
+                if (!closed && stalledSince == 0) {
+                    stalledSince = System.nanoTime();
+                }
+            } catch (IOException | IllegalStateException e) {
+                close();
+            }
+        }
+
+        private synchronized void closeIfStalled(long now) {
+            if (!closed && stalledSince != 0 && now - stalledSince > sendTimeoutMs * 1_000_000) {
+                log.debug("Disconnecting live update client that accepted nothing for {} ms", sendTimeoutMs);
+                close();
+            }
+        }
+
+        private synchronized void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            pending.clear();
+            cleanup.run();
+            try {
+                context.complete();
+            } catch (IllegalStateException e) {
+                // Already completed by the container
+            }
+        }
+
+        @Override
+        public void onWritePossible() {
+            drain();
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            close();
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            close();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            close();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            close();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.coursepath.lms.service;
+
+import com.coursepath.lms.model.ProgressRecalculation;
+import com.coursepath.lms.repository.CourseRepository;
+import com.coursepath.lms.repository.EnrollmentRepository;
+import com.coursepath.lms.repository.ProgressRecalculationRepository;
+import jakarta.annotation.PreDestroy;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Brings enrollments in line with a course whose set of modules changed:
+ * completed modules that no longer exist are dropped and progress is
+ * recomputed against the new module count.
+ *
+ * Each change bumps a request counter in {@code progress_recalculations}. A
+ * background worker walks the course's enrollments in throttled batches of
+ * server-side pipeline updates, checkpointing after every batch. A pass only
+ * completes the job if no newer request arrived while it ran; otherwise a new
+ * pass starts against the latest modules. Jobs left behind by a stopped node
+ * are resumed by the periodic sweep once their lease lapses.
+ */
+@Component
+public class ProgressRecalculationService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProgressRecalculationService.class);
+
+    private final ProgressRecalculationRepository progressRecalculationRepository;
+    private final CourseRepository courseRepository;
+    private final EnrollmentRepository enrollmentRepository;
+    private final String nodeId = new ObjectId().toHexString();
+    private final Set<String> queued = ConcurrentHashMap.newKeySet();
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "progress-recalculation");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Value("${lms.progress-recalculation.batch-size:500}")
+    private int batchSize;
+
+    @Value("${lms.progress-recalculation.lease:60000}")
+    private long leaseMs;
+
+    @Value("${lms.progress-recalculation.max-writes-per-second:1000}")
+    private int maxWritesPerSecond;
+
+    public ProgressRecalculationService(ProgressRecalculationRepository progressRecalculationRepository,
+                                        CourseRepository courseRepository,
+                                        EnrollmentRepository enrollmentRepository) {
+        this.progressRecalculationRepository = progressRecalculationRepository;
+        this.courseRepository = courseRepository;
+        this.enrollmentRepository = enrollmentRepository;
+    }
+
+    // Called after the course with its new modules has been saved
+    public void modulesChanged(String courseId) {
+        progressRecalculationRepository.request(courseId);
+        submit(courseId);
+    }
+
+    @Scheduled(initialDelayString = "${lms.progress-recalculation.sweep-interval:30000}",
+            fixedDelayString = "${lms.progress-recalculation.sweep-interval:30000}")
+    public void resumeUnfinished() {
+        for (ProgressRecalculation job : progressRecalculationRepository.findByPendingTrue()) {
+            if (job.getOwner() == null || nodeId.equals(job.getOwner())
+                    || job.getLeaseUntil() == null || job.getLeaseUntil().isBefore(Instant.now())) {
+                submit(job.getId());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        worker.shutdownNow();
+    }
+
+    private void submit(String courseId) {
+        if (queued.add(courseId)) {
+            worker.execute(() -> {
+                try {
+                    process(courseId);
+                } catch (RuntimeException e) {
+                    log.error("Recalculating progress for course {} failed; it is retried by the next sweep", courseId, e);
+                } finally {
+                    queued.remove(courseId);
+                }
+            });
+        }
+    }
+
+    private void process(String courseId) {
+        ProgressRecalculation job;
+        while ((job = progressRecalculationRepository.claim(courseId, nodeId, leaseExpiry()).orElse(null)) != null) {
+            long pass = job.getRequested();
+            boolean resuming = job.getPass() == pass;
+            String lastStudentId = resuming ? job.getLastStudentId() : null;
+            long updated = resuming ? job.getEnrollmentsUpdated() : 0;
+
+            // Read after the claim, so the modules are at least as new as the request being served
+            List<String> moduleIds = courseRepository.findModuleIds(courseId).orElse(null);
+            if (moduleIds != null) {
+                WriteThrottle throttle = new WriteThrottle(maxWritesPerSecond);
+                List<String> batch;
+                do {
+                    throttle.acquire(batchSize);
+                    batch = enrollmentRepository.recalculateProgressBatch(courseId, moduleIds, lastStudentId, batchSize);
+                    if (!batch.isEmpty()) {
+                        lastStudentId = batch.get(batch.size() - 1);
+                        updated += batch.size();
+                        if (!progressRecalculationRepository.checkpoint(courseId, nodeId, pass, lastStudentId, updated,
+                                leaseExpiry())) {
+                            log.warn("Lost the lease on recalculating progress for course {}; leaving it to the node "
+                                    + "that took it over", courseId);
+                            return;
+                        }
+                    }
+                    if (Thread.currentThread().isInterrupted()) {
+                        return;
+                    }
+                } while (batch.size() == batchSize);
+            }
+
+            if (progressRecalculationRepository.complete(courseId, nodeId, pass)) {
+                log.info("Recalculated progress of {} enrollments for course {}", updated, courseId);
+                return;
+            }
+        }
+    }
+
+    private Instant leaseExpiry() {
+        return Instant.now().plusMillis(leaseMs);
+    }
+}
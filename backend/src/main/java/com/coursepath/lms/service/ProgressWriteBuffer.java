@@ -0,0 +1,220 @@
+package com.coursepath.lms.service;
+
+import com.coursepath.lms.model.Enrollment;
+import com.coursepath.lms.repository.CourseRepository;
+import com.coursepath.lms.repository.EnrollmentRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Write-behind buffer for enrollment progress. Rapid module toggles on the same
+ * enrollment are coalesced in memory so only the latest state is written, in
+ * bulk, on a fixed interval or as soon as the buffer grows past its threshold.
+ *
+ * Pending state is served back through {@link #get(String)} so a student always
+ * reads their own writes on this node. Anything still buffered is flushed on
+ * graceful shutdown; a crash loses at most one flush interval of progress.
+ *
+ * The buffer is local to the node. With more than one node the load balancer
+ * must route each student to the same node (sticky sessions): a request landing
+ * on another node neither sees the pending progress nor waits for it, so the
+ * student reads older progress and a toggle made there can be overwritten when
+ * the first node flushes. Leave write-behind disabled where that cannot be
+ * guaranteed; every update is then written synchronously.
+ *
+ * A course's modules can change while its progress sits in the buffer, and the
+ * background recalculation may already have updated the stored enrollment. So
+ * each flush reads the current module ids of every course in the batch, in a
+ * single query, and drops completed modules the course no longer has before
+ * writing, instead of writing back the set that was valid when the student
+ * clicked.
+ */
+@Component
+@ConditionalOnProperty(prefix = "lms.progress.write-behind", name = "enabled", havingValue = "true")
+public class ProgressWriteBuffer {
+
+    private static final Logger log = LoggerFactory.getLogger(ProgressWriteBuffer.class);
+
+    private final EnrollmentRepository enrollmentRepository;
+    private final CourseRepository courseRepository;
+    private final MongoTemplate mongoTemplate;
+    private final Map<String, Enrollment>[] shards;
+    private final ExecutorService flushExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "progress-write-behind");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final Object flushLock = new Object();
+
+    @Value("${lms.progress.write-behind.max-pending:5000}")
+    private int maxPending;
+
+    @SuppressWarnings("unchecked")
+    public ProgressWriteBuffer(EnrollmentRepository enrollmentRepository, CourseRepository courseRepository,
+                               ObjectProvider<MongoTemplate> mongoTemplate,
+                               @Value("${lms.progress.write-behind.shards:16}") int shardCount) {
+        this.enrollmentRepository = enrollmentRepository;
+        this.courseRepository = courseRepository;
+        this.mongoTemplate = mongoTemplate.getIfAvailable();
+        this.shards = new Map[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new ConcurrentHashMap<>();
+        }
+    }
+
+    public Optional<Enrollment> get(String enrollmentId) {
+        return Optional.ofNullable(shard(enrollmentId).get(enrollmentId)).map(ProgressWriteBuffer::copy);
+    }
+
+    public Enrollment put(Enrollment enrollment) {
+        shard(enrollment.getId()).put(enrollment.getId(), copy(enrollment));
+        if (pendingCount() >= maxPending && flushScheduled.compareAndSet(false, true)) {
+            flushExecutor.execute(() -> {
+                flushScheduled.set(false);
+                flush();
+            });
+        }
+        return enrollment;
+    }
+
+    public int pendingCount() {
+        int count = 0;
+        for (Map<String, Enrollment> shard : shards) {
+            count += shard.size();
+        }
+        return count;
+    }
+
+    @Scheduled(fixedDelayString = "${lms.progress.write-behind.flush-interval:1000}")
+    public void flush() {
+        synchronized (flushLock) {
+            List<List<Enrollment>> batches = new ArrayList<>(shards.length);
+            Set<String> courseIds = new HashSet<>();
+            for (Map<String, Enrollment> shard : shards) {
+                List<Enrollment> batch = new ArrayList<>(shard.values());
+                batches.add(batch);
+                for (Enrollment enrollment : batch) {
+                    courseIds.add(enrollment.getCourseId());
+                }
+            }
+            if (courseIds.isEmpty()) {
+                return;
+            }
+            // The modules of every course in the flush are read in one query rather than one per course
+            Map<String, List<String>> modulesByCourse;
+            try {
+                modulesByCourse = courseRepository.findModuleIds(courseIds);
+            } catch (RuntimeException e) {
+                log.error("Failed to read the modules of {} courses with buffered progress", courseIds.size(), e);
+                return;
+            }
+            for (int i = 0; i < shards.length; i++) {
+                flushShard(shards[i], batches.get(i), modulesByCourse);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushExecutor.shutdown();
+        flush();
+        if (pendingCount() > 0) {
+            log.warn("{} progress updates could not be written before shutdown", pendingCount());
+        }
+    }
+
+    private void flushShard(Map<String, Enrollment> shard, List<Enrollment> batch,
+                            Map<String, List<String>> modulesByCourse) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            write(withCurrentModules(batch, modulesByCourse));
+        } catch (RuntimeException e) {
+            // Entries stay buffered and are retried on the next flush
+            log.error("Failed to flush {} buffered progress updates", batch.size(), e);
+            return;
+        }
+        // Only drop entries that were not updated again while the batch was written
+        for (Enrollment enrollment : batch) {
+            shard.remove(enrollment.getId(), enrollment);
+        }
+    }
+
+    private void write(List<Enrollment> current) {
+        if (current.isEmpty()) {
+            return;
+        }
+        if (mongoTemplate == null) {
+            enrollmentRepository.saveAll(current);
+            return;
+        }
+        BulkOperations operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Enrollment.class);
+        for (Enrollment enrollment : current) {
+            operations.updateOne(
+                    Query.query(Criteria.where("_id").is(enrollment.getId())),
+                    new Update()
+                            .set("completedModules", enrollment.getCompletedModules())
+                            .set("progress", enrollment.getProgress())
+                            .set("lastActivity", enrollment.getLastActivity()));
+        }
+        operations.execute();
+    }
+
+    // Copies pruned to each course's modules as they are now; enrollments of deleted courses are left out
+    private static List<Enrollment> withCurrentModules(List<Enrollment> batch,
+                                                       Map<String, List<String>> modulesByCourse) {
+        List<Enrollment> current = new ArrayList<>(batch.size());
+        for (Enrollment enrollment : batch) {
+            List<String> modules = modulesByCourse.get(enrollment.getCourseId());
+            if (modules == null) {
+                continue;
+            }
+            Enrollment pruned = copy(enrollment);
+            pruned.getCompletedModules().retainAll(modules);
+            int totalModules = modules.size();
+            pruned.setProgress(totalModules > 0 ? (double) pruned.getCompletedModules().size() / totalModules * 100 : 0);
+            current.add(pruned);
+        }
+        return current;
+    }
+
+    private Map<String, Enrollment> shard(String enrollmentId) {
+        return shards[Math.floorMod(enrollmentId.hashCode(), shards.length)];
+    }
+
+    private static Enrollment copy(Enrollment enrollment) {
+        return new Enrollment(
+                enrollment.getId(),
+                enrollment.getCourseId(),
+                enrollment.getStudentId(),
+                enrollment.getEnrolledDate(),
+                enrollment.getProgress(),
+                new ArrayList<>(enrollment.getCompletedModules()),
+                enrollment.getLastActivity()
+        );
+    }
+}
@@ -0,0 +1,65 @@
+package com.coursepath.lms.service;
+
+import com.coursepath.lms.model.RefreshToken;
+import com.coursepath.lms.repository.RefreshTokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+
+@Service
+public class RefreshTokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final RefreshTokenRepository refreshTokenRepository;
+
+    @Value("${jwt.refresh-expiration}")
+    private long refreshExpirationInMs;
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository) {
+        this.refreshTokenRepository = refreshTokenRepository;
+    }
+
+    public RefreshToken createRefreshToken(String userId) {
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+
+        RefreshToken refreshToken = new RefreshToken();
+        refreshToken.setToken(Base64.getUrlEncoder().withoutPadding().encodeToString(bytes));
+        refreshToken.setUserId(userId);
+        refreshToken.setExpiryDate(Instant.now().plusMillis(refreshExpirationInMs));
+        return refreshTokenRepository.save(refreshToken);
+    }
+
+    // Each refresh token is single use: it is atomically marked used and replaced by a new one. Presenting a used
+    // token again means it leaked or was replayed, so every refresh token of that user is revoked
+    public RefreshToken rotate(String token) {
+        RefreshToken existing = refreshTokenRepository.markUsed(token, Instant.now()).orElse(null);
+        if (existing == null) {
+            refreshTokenRepository.findByToken(token).ifPresent(reused -> {
+                log.warn("Refresh token reused for user {}; revoking all of their refresh tokens", reused.getUserId());
+                revokeAllForUser(reused.getUserId());
+            });
+            throw new RuntimeException("Invalid refresh token");
+        }
+        if (existing.getExpiryDate().isBefore(Instant.now())) {
+            throw new RuntimeException("Refresh token has expired");
+        }
+        return createRefreshToken(existing.getUserId());
+    }
+
+    public void revoke(String token) {
+        refreshTokenRepository.deleteByToken(token);
+    }
+
+    public void revokeAllForUser(String userId) {
+        refreshTokenRepository.deleteByUserId(userId);
+    }
+}
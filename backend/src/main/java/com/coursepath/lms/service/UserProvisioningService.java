@@ -0,0 +1,231 @@
+package com.coursepath.lms.service;
+
+import com.coursepath.lms.dto.ProvisioningError;
+import com.coursepath.lms.dto.ProvisioningReport;
+import com.coursepath.lms.dto.RegisterRequest;
+import com.coursepath.lms.model.Role;
+import com.coursepath.lms.model.User;
+import com.coursepath.lms.repository.UserRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates user accounts in bulk from CSV (with a header row) or NDJSON, one
+ * account per line, using the same fields and validation as registration.
+ *
+ * The upload is streamed in batches. Password hashing dominates the cost, so
+ * each batch is hashed in parallel on a bounded pool shared by all uploads and
+ * then written with one unordered insert; rows rejected by the unique indexes
+ * are reported without stopping the rest of the batch.
+ */
+@Service
+public class UserProvisioningService {
+
+    public enum Format {
+        CSV,
+        NDJSON
+    }
+
+    private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService hashPool;
+
+    @Value("${lms.provisioning.batch-size:500}")
+    private int batchSize;
+
+    @Value("${lms.provisioning.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    public UserProvisioningService(UserRepository userRepository, PasswordEncoder passwordEncoder, Validator validator,
+                                   ObjectMapper objectMapper, @Value("${lms.provisioning.hash-threads:0}") int hashThreads) {
+        this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.hashPool = Executors.newFixedThreadPool(
+                hashThreads > 0 ? hashThreads : Runtime.getRuntime().availableProcessors(), runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    public ProvisioningReport provision(InputStream input, Format format) throws IOException {
+        ProvisioningReport report = new ProvisioningReport(0, 0, 0, new ArrayList<>());
+        // Failures of a batch are only known once it is inserted, after later rows may already have failed
+        // validation, so errors are kept by line and the report lists the first ones in order
+        NavigableMap<Long, ProvisioningError> errors = new TreeMap<>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        Map<String, Integer> columns = null;
+        List<Row> batch = new ArrayList<>(batchSize);
+        long lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            if (format == Format.CSV && columns == null) {
+                columns = header(parseCsv(line));
+                continue;
+            }
+            report.setReceived(report.getReceived() + 1);
+
+            RegisterRequest request;
+            try {
+                request = format == Format.CSV ? fromCsv(columns, parseCsv(line))
+                        : objectMapper.readValue(line, RegisterRequest.class);
+            } catch (JsonProcessingException | IllegalArgumentException e) {
+                fail(report, errors, lineNumber, null, "Malformed row");
+                continue;
+            }
+            Set<ConstraintViolation<RegisterRequest>> violations = validator.validate(request);
+            if (!violations.isEmpty()) {
+                ConstraintViolation<RegisterRequest> violation = violations.iterator().next();
+                fail(report, errors, lineNumber, request.getUsername(),
+                        violation.getPropertyPath() + " " + violation.getMessage());
+                continue;
+            }
+
+            batch.add(new Row(lineNumber, request));
+            if (batch.size() == batchSize) {
+                insert(batch, report, errors);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        insert(batch, report, errors);
+        report.setErrors(new ArrayList<>(errors.values()));
+        return report;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashPool.shutdownNow();
+    }
+
+    private void insert(List<Row> batch, ProvisioningReport report, NavigableMap<Long, ProvisioningError> errors) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<Future<User>> hashing = new ArrayList<>(batch.size());
+        for (Row row : batch) {
+            RegisterRequest request = row.request;
+            hashing.add(hashPool.submit(() -> UserService.newUser(request.getUsername(),
+                    passwordEncoder.encode(request.getPassword()), request.getName(), request.getEmail(),
+                    request.getRole())));
+        }
+        List<User> users = new ArrayList<>(batch.size());
+        try {
+            for (Future<User> user : hashing) {
+                users.add(user.get());
+            }
+        } catch (InterruptedException e) {
+            hashing.forEach(user -> user.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Provisioning interrupted");
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Password hashing failed", e.getCause());
+        }
+
+        Map<Integer, String> failures = userRepository.insertUnordered(users);
+        report.setCreated(report.getCreated() + users.size() - failures.size());
+        failures.forEach((index, error) -> {
+            Row row = batch.get(index);
+            fail(report, errors, row.line, row.request.getUsername(), UserService.duplicateMessage(error));
+        });
+    }
+
+    private void fail(ProvisioningReport report, NavigableMap<Long, ProvisioningError> errors, long line,
+                      String username, String message) {
+        report.setFailed(report.getFailed() + 1);
+        errors.put(line, new ProvisioningError(line, username, message));
+        if (errors.size() > maxReportedErrors) {
+            errors.pollLastEntry();
+        }
+    }
+
+    private static Map<String, Integer> header(List<String> names) {
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim().toLowerCase(), i);
+        }
+        return columns;
+    }
+
+    private static RegisterRequest fromCsv(Map<String, Integer> columns, List<String> fields) {
+        RegisterRequest request = new RegisterRequest();
+        request.setUsername(field(columns, fields, "username"));
+        request.setPassword(field(columns, fields, "password"));
+        request.setName(field(columns, fields, "name"));
+        request.setEmail(field(columns, fields, "email"));
+        String role = field(columns, fields, "role");
+        if (role != null && !role.isBlank()) {
+            request.setRole(Role.valueOf(role.trim().toUpperCase()));
+        }
+        return request;
+    }
+
+    private static String field(Map<String, Integer> columns, List<String> fields, String name) {
+        Integer index = columns.get(name);
+        return index == null || index >= fields.size() ? null : fields.get(index);
+    }
+
+    // RFC 4180 fields on a single line: quoted fields may contain commas and doubled quotes
+    private static List<String> parseCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private record Row(long line, RegisterRequest request) {
+    }
+}
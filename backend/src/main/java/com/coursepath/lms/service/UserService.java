@@ -4,6 +4,7 @@ package com.coursepath.lms.service;
 import com.coursepath.lms.model.Role;
 import com.coursepath.lms.model.User;
 import com.coursepath.lms.repository.UserRepository;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -11,10 +12,14 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 @Service
 public class UserService implements UserDetailsService {
 
+    private static final Pattern DUPLICATE_INDEX = Pattern.compile("index:?\\s+(\\w+)");
+
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
 
@@ -29,23 +34,39 @@ public class UserService implements UserDetailsService {
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
     }
 
+    // A single insert: the unique indexes on username and email reject duplicates, even under concurrent sign-ups
     public User register(String username, String password, String name, String email, Role role) {
-        if (userRepository.existsByUsername(username)) {
-            throw new RuntimeException("Username is already taken");
-        }
-        if (userRepository.existsByEmail(email)) {
-            throw new RuntimeException("Email is already in use");
+        User user = newUser(username, passwordEncoder.encode(password), name, email, role);
+        try {
+            return userRepository.insert(user);
+        } catch (DuplicateKeyException e) {
+            throw new RuntimeException(duplicateMessage(e.getMessage()));
         }
+    }
 
+    static User newUser(String username, String encodedPassword, String name, String email, Role role) {
         User user = new User();
         user.setUsername(username);
-        user.setPassword(passwordEncoder.encode(password));
+        user.setPassword(encodedPassword);
         user.setName(name);
         user.setEmail(email);
         user.setRole(role);
         user.setEnrolledCourses(new ArrayList<>());
+        return user;
+    }
 
-        return userRepository.save(user);
+    // Maps a duplicate key error to the message for the unique index it names
+    static String duplicateMessage(String error) {
+        Matcher index = DUPLICATE_INDEX.matcher(error == null ? "" : error);
+        String name = index.find() ? index.group(1) : "";
+        switch (name) {
+            case "username":
+                return "Username is already taken";
+            case "email":
+                return "Email is already in use";
+            default:
+                return "User already exists";
+        }
     }
 
     public User getUserById(String id) {
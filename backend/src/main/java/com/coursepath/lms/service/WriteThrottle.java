@@ -0,0 +1,31 @@
+package com.coursepath.lms.service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Caps the rate of background writes shared by any number of threads, so
+ * maintenance jobs cannot saturate the primary.
+ */
+public class WriteThrottle {
+
+    private final double nanosPerWrite;
+    private long nextFreeNanos = System.nanoTime();
+
+    public WriteThrottle(int writesPerSecond) {
+        this.nanosPerWrite = (double) TimeUnit.SECONDS.toNanos(1) / Math.max(writesPerSecond, 1);
+    }
+
+    public void acquire(int writes) {
+        long wakeAt;
+        synchronized (this) {
+            long now = System.nanoTime();
+            wakeAt = Math.max(nextFreeNanos, now);
+            nextFreeNanos = wakeAt + (long) (writes * nanosPerWrite);
+        }
+        long wait;
+        while ((wait = wakeAt - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(wait);
+        }
+    }
+}
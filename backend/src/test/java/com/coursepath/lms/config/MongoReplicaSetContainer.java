@@ -0,0 +1,100 @@
+package com.coursepath.lms.config;
+
+import com.github.dockerjava.api.model.ExposedPort;
+import com.github.dockerjava.api.model.PortBinding;
+import com.github.dockerjava.api.model.Ports;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.wait.strategy.Wait;
+import org.testcontainers.utility.DockerImageName;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * A three-member replica set in one container, for tests that need real
+ * secondaries.
+ *
+ * Each member listens on a port that is published under the same number on the
+ * host, and the set is configured with {@code localhost:<port>} members, so the
+ * addresses the members gossip work both inside the container and for the
+ * driver on the host. This needs the Docker daemon to run on the test host.
+ * The first member is given the highest priority and is always the primary.
+ */
+public class MongoReplicaSetContainer extends GenericContainer<MongoReplicaSetContainer> {
+
+    private static final String REPLICA_SET = "rs0";
+
+    private final int[] ports;
+
+    public MongoReplicaSetContainer(String image) {
+        super(DockerImageName.parse(image));
+        this.ports = freePorts(3);
+        List<ExposedPort> exposed = Arrays.stream(ports).mapToObj(ExposedPort::tcp).collect(Collectors.toList());
+        List<PortBinding> bindings = Arrays.stream(ports)
+                .mapToObj(port -> new PortBinding(Ports.Binding.bindPort(port), ExposedPort.tcp(port)))
+                .collect(Collectors.toList());
+        withCreateContainerCmdModifier(cmd -> {
+            cmd.withEntrypoint("bash", "-c", startScript());
+            cmd.withExposedPorts(exposed);
+            cmd.getHostConfig().withPortBindings(bindings);
+        });
+        waitingFor(Wait.forLogMessage(".*replica set ready.*", 1).withStartupTimeout(Duration.ofMinutes(2)));
+    }
+
+    public String getReplicaSetUrl(String database) {
+        String hosts = Arrays.stream(ports).mapToObj(port -> "localhost:" + port).collect(Collectors.joining(","));
+        return "mongodb://" + hosts + "/" + database + "?replicaSet=" + REPLICA_SET;
+    }
+
+    public String getPrimaryAddress() {
+        return "localhost:" + ports[0];
+    }
+
+    private String startScript() {
+        StringBuilder script = new StringBuilder("set -e\n");
+        List<String> members = new ArrayList<>();
+        for (int i = 0; i < ports.length; i++) {
+            int port = ports[i];
+            script.append("mkdir -p /data/rs").append(i).append('\n')
+                    .append("mongod --replSet ").append(REPLICA_SET).append(" --port ").append(port)
+                    .append(" --bind_ip_all --dbpath /data/rs").append(i)
+                    .append(" --fork --logpath /data/rs").append(i).append(".log\n");
+            members.add("{_id: " + i + ", host: 'localhost:" + port + "', priority: " + (i == 0 ? 2 : 1) + "}");
+        }
+        script.append("mongosh --quiet --port ").append(ports[0]).append(" --eval \"")
+                .append("rs.initiate({_id: '").append(REPLICA_SET).append("', members: [")
+                .append(String.join(", ", members)).append("]});")
+                .append(" while (!db.hello().isWritablePrimary) { sleep(100); }")
+                .append(" while (rs.status().members.some(m => m.stateStr !== 'PRIMARY' && m.stateStr !== 'SECONDARY'))")
+                .append(" { sleep(100); }\"\n")
+                .append("echo 'replica set ready'\n")
+                .append("tail -f /dev/null\n");
+        return script.toString();
+    }
+
+    private static int[] freePorts(int count) {
+        List<ServerSocket> sockets = new ArrayList<>();
+        try {
+            for (int i = 0; i < count; i++) {
+                sockets.add(new ServerSocket(0));
+            }
+            return sockets.stream().mapToInt(ServerSocket::getLocalPort).toArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            for (ServerSocket socket : sockets) {
+                try {
+                    socket.close();
+                } catch (IOException e) {
+                    // The port is released either way
+                }
+            }
+        }
+    }
+}
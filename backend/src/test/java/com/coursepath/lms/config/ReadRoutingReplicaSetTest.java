@@ -0,0 +1,127 @@
+package com.coursepath.lms.config;
+
+import com.coursepath.lms.model.Course;
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.WriteConcern;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.SimpleMongoClientDatabaseFactory;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers(disabledWithoutDocker = true)
+class ReadRoutingReplicaSetTest {
+
+    private static final String DATABASE = "read_routing_test";
+
+    @Container
+    private static final MongoReplicaSetContainer REPLICA_SET = new MongoReplicaSetContainer("mongo:6.0");
+
+    // Server that ran the last find, keyed by the collection it read
+    private final Map<String, String> readFrom = new ConcurrentHashMap<>();
+
+    private MongoClient client;
+    private CatalogReads reads;
+
+    @BeforeEach
+    void setUp() {
+        CommandListener listener = new CommandListener() {
+            @Override
+            public void commandStarted(CommandStartedEvent event) {
+                if ("find".equals(event.getCommandName()) && DATABASE.equals(event.getDatabaseName())) {
+                    readFrom.put(event.getCommand().getString("find").getValue(),
+                            event.getConnectionDescription().getServerAddress().toString());
+                }
+            }
+        };
+        client = MongoClients.create(MongoClientSettings.builder()
+                .applyConnectionString(new ConnectionString(REPLICA_SET.getReplicaSetUrl(DATABASE)))
+                .writeConcern(new WriteConcern(3))
+                .addCommandListener(listener)
+                .build());
+        MongoTemplate defaults = new MongoTemplate(client, DATABASE);
+        MongoTemplate template = new ReadRoutingConfig.RoutingMongoTemplate(
+                new SimpleMongoClientDatabaseFactory(client, DATABASE), defaults.getConverter());
+        template.dropCollection(Course.class);
+        template.insert(new Course(null, "Java", "", "", "", "", new ArrayList<>(), new ArrayList<>(), null));
+
+        ProxyFactory proxy = new ProxyFactory(new CatalogReads(template));
+        proxy.addAdvisor(ReadRoutingConfig.replicaReadAdvisor("secondaryPreferred", 120_000));
+        proxy.setProxyTargetClass(true);
+        reads = (CatalogReads) proxy.getProxy();
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+    }
+
+    @Test
+    void annotatedReadsGoToASecondary() {
+        assertThat(reads.replicaRead()).hasSize(1);
+
+        assertThat(readFrom.get("courses")).isNotEqualTo(REPLICA_SET.getPrimaryAddress());
+    }
+
+    @Test
+    void unannotatedReadsGoToThePrimary() {
+        assertThat(reads.primaryRead()).hasSize(1);
+
+        assertThat(readFrom.get("courses")).isEqualTo(REPLICA_SET.getPrimaryAddress());
+    }
+
+    @Test
+    void pinnedReadsInsideAnnotatedMethodsGoToThePrimary() {
+        assertThat(reads.pinnedRead()).hasSize(1);
+
+        assertThat(readFrom.get("courses")).isEqualTo(REPLICA_SET.getPrimaryAddress());
+    }
+
+    @Test
+    void routingEndsWithTheAnnotatedMethod() {
+        reads.replicaRead();
+        assertThat(ReadRouting.current()).isNull();
+
+        reads.primaryRead();
+
+        assertThat(readFrom.get("courses")).isEqualTo(REPLICA_SET.getPrimaryAddress());
+    }
+
+    static class CatalogReads {
+
+        private final MongoTemplate template;
+
+        CatalogReads(MongoTemplate template) {
+            this.template = template;
+        }
+
+        @ReplicaRead
+        public List<Course> replicaRead() {
+            return template.findAll(Course.class);
+        }
+
+        public List<Course> primaryRead() {
+            return template.findAll(Course.class);
+        }
+
+        @ReplicaRead
+        public List<Course> pinnedRead() {
+            return ReadRouting.primary(() -> template.findAll(Course.class));
+        }
+    }
+}
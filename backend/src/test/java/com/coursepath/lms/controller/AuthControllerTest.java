@@ -0,0 +1,83 @@
+package com.coursepath.lms.controller;
+
+import com.coursepath.lms.dto.RefreshTokenRequest;
+import com.coursepath.lms.model.RefreshToken;
+import com.coursepath.lms.model.Role;
+import com.coursepath.lms.model.User;
+import com.coursepath.lms.repository.inmemory.InMemoryRefreshTokenRepository;
+import com.coursepath.lms.repository.inmemory.InMemoryRevokedTokenRepository;
+import com.coursepath.lms.security.JwtTokenProvider;
+import com.coursepath.lms.security.TokenRevocationList;
+import com.coursepath.lms.service.RefreshTokenService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuthControllerTest {
+
+    private final User user = new User("u1", "student", "secret", "Student", "s@example.com", Role.STUDENT,
+            new ArrayList<>());
+    private InMemoryRefreshTokenRepository refreshTokenRepository;
+    private JwtTokenProvider tokenProvider;
+    private RefreshTokenService refreshTokenService;
+    private AuthController controller;
+
+    @BeforeEach
+    void setUp() {
+        TokenRevocationList revocationList = new TokenRevocationList(new InMemoryRevokedTokenRepository());
+        ReflectionTestUtils.setField(revocationList, "expectedSize", 1000);
+        ReflectionTestUtils.setField(revocationList, "falsePositiveRate", 0.01);
+        revocationList.load();
+        tokenProvider = new JwtTokenProvider(revocationList);
+        ReflectionTestUtils.setField(tokenProvider, "jwtSecret",
+                "testSecretKey89234792837492349823749238749238749238923479283749234982374923874923874923");
+        ReflectionTestUtils.setField(tokenProvider, "jwtExpirationInMs", 60_000L);
+        refreshTokenRepository = new InMemoryRefreshTokenRepository();
+        refreshTokenService = new RefreshTokenService(refreshTokenRepository);
+        ReflectionTestUtils.setField(refreshTokenService, "refreshExpirationInMs", 60_000L);
+        controller = new AuthController();
+        ReflectionTestUtils.setField(controller, "tokenProvider", tokenProvider);
+        ReflectionTestUtils.setField(controller, "refreshTokenService", refreshTokenService);
+    }
+
+    @Test
+    void logoutRevokesBothTokens() {
+        String token = tokenProvider.generateToken(user);
+        RefreshToken refreshToken = refreshTokenService.createRefreshToken(user.getId());
+
+        assertThat(controller.logout("Bearer " + token, request(refreshToken.getToken()))
+                .getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+
+        assertThat(tokenProvider.validateToken(token, user)).isFalse();
+        assertThat(refreshTokenRepository.findByToken(refreshToken.getToken())).isEmpty();
+    }
+
+    @Test
+    void logoutWithAnExpiredAccessTokenStillRevokesTheRefreshToken() {
+        ReflectionTestUtils.setField(tokenProvider, "jwtExpirationInMs", -1000L);
+        String expired = tokenProvider.generateToken(user);
+        RefreshToken refreshToken = refreshTokenService.createRefreshToken(user.getId());
+
+        assertThat(controller.logout("Bearer " + expired, request(refreshToken.getToken()))
+                .getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+
+        assertThat(refreshTokenRepository.findByToken(refreshToken.getToken())).isEmpty();
+    }
+
+    @Test
+    void logoutWithAnInvalidAccessTokenSucceeds() {
+        assertThat(controller.logout("Bearer not-a-token", null).getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+        assertThat(controller.logout("Bearer ", null).getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+    }
+
+    private static RefreshTokenRequest request(String refreshToken) {
+        RefreshTokenRequest request = new RefreshTokenRequest();
+        request.setRefreshToken(refreshToken);
+        return request;
+    }
+}
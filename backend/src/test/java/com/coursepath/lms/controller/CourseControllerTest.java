@@ -0,0 +1,162 @@
+package com.coursepath.lms.controller;
+
+import com.coursepath.lms.dto.CourseDeletionView;
+import com.coursepath.lms.dto.CourseSummary;
+import com.coursepath.lms.dto.CourseView;
+import com.coursepath.lms.dto.RosterPage;
+import com.coursepath.lms.model.Course;
+import com.coursepath.lms.model.CourseDeletion;
+import com.coursepath.lms.model.DeletionStatus;
+import com.coursepath.lms.model.Module;
+import com.coursepath.lms.model.Role;
+import com.coursepath.lms.model.User;
+import com.coursepath.lms.repository.inmemory.InMemoryCourseDeletionRepository;
+import com.coursepath.lms.repository.inmemory.InMemoryCourseRepository;
+import com.coursepath.lms.repository.inmemory.InMemoryEnrollmentRepository;
+import com.coursepath.lms.repository.inmemory.InMemoryUserRepository;
+import com.coursepath.lms.service.CourseCache;
+import com.coursepath.lms.service.CourseDeletionService;
+import com.coursepath.lms.service.CourseService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+class CourseControllerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private CourseController controller;
+    private Course course;
+
+    @BeforeEach
+    void setUp() {
+        InMemoryCourseRepository courseRepository = new InMemoryCourseRepository();
+        course = courseRepository.save(new Course(null, "Java", "", "", "Jane Smith", "",
+                new ArrayList<>(List.of(new Module("m1", "Intro", "secret content", "https://videos/m1"))),
+                new ArrayList<>(), null));
+        CourseCache courseCache = new CourseCache(courseRepository,
+                new StaticListableBeanFactory().getBeanProvider(MongoTemplate.class));
+        ReflectionTestUtils.setField(courseCache, "enabled", true);
+        ReflectionTestUtils.setField(courseCache, "maxStalenessMs", 60_000L);
+        courseCache.warmUp();
+        CourseService courseService = new CourseService();
+        ReflectionTestUtils.setField(courseService, "courseCache", courseCache);
+        ReflectionTestUtils.setField(courseService, "enrollmentRepository",
+                new InMemoryEnrollmentRepository(courseRepository, new InMemoryUserRepository()));
+        controller = new CourseController();
+        ReflectionTestUtils.setField(controller, "courseService", courseService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void catalogListsModulesWithoutContent() throws Exception {
+        List<CourseSummary> catalog = controller.getAllCourses().getBody().collect(Collectors.toList());
+
+        assertThat(catalog).singleElement().satisfies(summary ->
+                assertThat(summary.getModules()).extracting("id", "title").containsExactly(
+                        tuple("m1", "Intro")));
+        assertThat(objectMapper.writeValueAsString(catalog)).doesNotContain("secret content", "videos/m1");
+    }
+
+    @Test
+    void anonymousVisitorsGetTheCourseWithoutContent() throws Exception {
+        Object body = controller.getCourseById(course.getId()).getBody();
+
+        assertThat(body).isInstanceOf(CourseSummary.class);
+        assertThat(objectMapper.writeValueAsString(body)).doesNotContain("secret content", "videos/m1");
+    }
+
+    @Test
+    void studentsNotEnrolledGetTheCourseWithoutContent() {
+        signIn(Role.STUDENT, List.of("another-course"));
+
+        assertThat(controller.getCourseById(course.getId()).getBody()).isInstanceOf(CourseSummary.class);
+    }
+
+    @Test
+    void enrolledStudentsGetTheModuleContent() {
+        signIn(Role.STUDENT, List.of(course.getId()));
+
+        assertThat(controller.getCourseById(course.getId()).getBody()).isInstanceOfSatisfying(CourseView.class,
+                view -> assertThat(view.getModules().get(0).getContent()).isEqualTo("secret content"));
+    }
+
+    @Test
+    void adminsGetTheModuleContent() {
+        signIn(Role.ADMIN, null);
+
+        assertThat(controller.getCourseById(course.getId()).getBody()).isInstanceOfSatisfying(CourseView.class,
+                view -> assertThat(view.getModules().get(0).getVideoUrl()).isEqualTo("https://videos/m1"));
+    }
+
+    @Test
+    void instructorsGetTheRosterOfTheirOwnCourse() {
+        signIn(Role.INSTRUCTOR, "Jane Smith", null);
+
+        assertThat(roster().getItems()).isEmpty();
+    }
+
+    @Test
+    void instructorsCannotReadTheRosterOfAnotherInstructorsCourse() {
+        signIn(Role.INSTRUCTOR, "John Doe", null);
+
+        assertThatThrownBy(this::roster).isInstanceOfSatisfying(ResponseStatusException.class,
+                e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN));
+    }
+
+    @Test
+    void adminsGetTheRosterOfAnyCourse() {
+        signIn(Role.ADMIN, null);
+
+        assertThat(roster().getNextCursor()).isNull();
+    }
+
+    @Test
+    void deletionStatusLeavesOutTheLease() throws Exception {
+        InMemoryCourseDeletionRepository deletionRepository = new InMemoryCourseDeletionRepository();
+        deletionRepository.save(new CourseDeletion(course.getId(), "Java", DeletionStatus.IN_PROGRESS, 3, 2,
+                Instant.now(), Instant.now(), null, "node-1", Instant.now().plusSeconds(60)));
+        ReflectionTestUtils.setField(controller, "courseDeletionService",
+                new CourseDeletionService(deletionRepository, null, null, null, null));
+
+        CourseDeletionView deletion = controller.getCourseDeletion(course.getId()).getBody();
+
+        assertThat(deletion.getStatus()).isEqualTo(DeletionStatus.IN_PROGRESS);
+        assertThat(deletion.getEnrollmentsRemoved()).isEqualTo(3);
+        assertThat(objectMapper.writeValueAsString(deletion)).doesNotContain("owner", "node-1", "leaseUntil");
+    }
+
+    private RosterPage roster() {
+        return controller.getCourseRoster(course.getId(), "enrolledDate", "asc", null, null, null, 50).getBody();
+    }
+
+    private void signIn(Role role, List<String> enrolledCourses) {
+        signIn(role, "User", enrolledCourses);
+    }
+
+    private void signIn(Role role, String name, List<String> enrolledCourses) {
+        User user = new User("u1", "user", "secret", name, "user@example.com", role, enrolledCourses);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+    }
+}
@@ -0,0 +1,82 @@
+package com.coursepath.lms.repository;
+
+import com.coursepath.lms.model.ActivityBucket;
+import com.coursepath.lms.model.ActivityGranularity;
+import com.coursepath.lms.model.ActivityLearner;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers(disabledWithoutDocker = true)
+class ActivityLearnerRepositoryImplTest {
+
+    @Container
+    private static final MongoDBContainer MONGO = new MongoDBContainer("mongo:6.0");
+
+    private static final Instant DAY = Instant.parse("2026-01-05T00:00:00Z");
+
+    private MongoClient client;
+    private ActivityLearnerRepositoryImpl learnerRepository;
+
+    @BeforeEach
+    void setUp() {
+        client = MongoClients.create(MONGO.getReplicaSetUrl());
+        MongoTemplate template = new MongoTemplate(client, "activity_learner_repository_test");
+        template.getDb().drop();
+        learnerRepository = new ActivityLearnerRepositoryImpl(template);
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+    }
+
+    @Test
+    void markCountsOnlyTheLearnersNewToEachBucket() {
+        assertThat(learnerRepository.mark(List.of(learner("c1", DAY, "s1"), learner("c1", DAY, "s2")), "b1"))
+                .containsEntry(ActivityBucket.idOf("c1", ActivityGranularity.DAY, DAY), 2L);
+
+        // The retried batch reports the same counts; the next one only counts s3
+        assertThat(learnerRepository.mark(List.of(learner("c1", DAY, "s1"), learner("c1", DAY, "s2")), "b1"))
+                .containsEntry(ActivityBucket.idOf("c1", ActivityGranularity.DAY, DAY), 2L);
+        assertThat(learnerRepository.mark(List.of(learner("c1", DAY, "s2"), learner("c1", DAY, "s3")), "b2"))
+                .containsExactlyEntriesOf(Map.of(ActivityBucket.idOf("c1", ActivityGranularity.DAY, DAY), 1L));
+    }
+
+    @Test
+    void distinctLearnersAreCountedFromTheBucketsInTheRangeOnly() {
+        List<ActivityLearner> learners = new ArrayList<>();
+        learners.add(learner("c1", DAY.minus(1, ChronoUnit.DAYS), "before"));
+        learners.add(learner("c1", DAY, "s1"));
+        learners.add(learner("c1", DAY, "s2"));
+        learners.add(learner("c1", DAY.plus(1, ChronoUnit.DAYS), "s1"));
+        learners.add(learner("c1", DAY.plus(2, ChronoUnit.DAYS), "after"));
+        learners.add(learner("c2", DAY, "other-course"));
+        learnerRepository.mark(learners, "b1");
+
+        assertThat(learnerRepository.countDistinctLearners("c1", ActivityGranularity.DAY, DAY,
+                DAY.plus(2, ChronoUnit.DAYS))).isEqualTo(2);
+        assertThat(learnerRepository.countDistinctLearners("c1", ActivityGranularity.HOUR, DAY,
+                DAY.plus(2, ChronoUnit.DAYS))).isZero();
+    }
+
+    private static ActivityLearner learner(String courseId, Instant start, String studentId) {
+        String bucketId = ActivityBucket.idOf(courseId, ActivityGranularity.DAY, start);
+        return new ActivityLearner(ActivityLearner.idOf(bucketId, studentId), courseId, ActivityGranularity.DAY,
+                start, studentId, null);
+    }
+}
@@ -0,0 +1,105 @@
+package com.coursepath.lms.repository;
+
+import com.coursepath.lms.model.Course;
+import com.coursepath.lms.model.Module;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+@Testcontainers(disabledWithoutDocker = true)
+class CourseRepositoryImplTest {
+
+    @Container
+    private static final MongoDBContainer MONGO = new MongoDBContainer("mongo:6.0");
+
+    private MongoClient client;
+    private MongoTemplate template;
+    private CourseRepositoryImpl courseRepository;
+    private Course course;
+
+    @BeforeEach
+    void setUp() {
+        client = MongoClients.create(MONGO.getReplicaSetUrl());
+        template = new MongoTemplate(client, "course_repository_test");
+        template.getDb().drop();
+        courseRepository = new CourseRepositoryImpl(template);
+        course = template.insert(new Course(null, "Java", "", "", "", "",
+                new ArrayList<>(List.of(new Module("m1", "Intro", "content", null))),
+                new ArrayList<>(List.of("s1")), null));
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+    }
+
+    @Test
+    void addEnrolledStudentReturnsTheNewCountOnlyWhenTheStudentWasAdded() {
+        assertThat(courseRepository.addEnrolledStudent(course.getId(), "s2")).hasValue(2);
+        assertThat(courseRepository.addEnrolledStudent(course.getId(), "s2")).isEmpty();
+        assertThat(template.findById(course.getId(), Course.class).getEnrolledStudents()).containsExactly("s1", "s2");
+    }
+
+    @Test
+    void markDeletedDoesNotOverwriteAConcurrentEnrollment() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        courseRepository.addEnrolledStudent(course.getId(), "s2");
+
+        Course marked = courseRepository.markDeleted(course.getId(), now).orElseThrow();
+
+        assertThat(marked.getEnrolledStudents()).isNull();
+        assertThat(courseRepository.markDeleted(course.getId(), now)).isEmpty();
+        assertThat(courseRepository.addEnrolledStudent(course.getId(), "s3")).isEmpty();
+        Course stored = template.findById(course.getId(), Course.class);
+        assertThat(stored.getDeletedAt()).isEqualTo(now);
+        assertThat(stored.getEnrolledStudents()).containsExactly("s1", "s2");
+    }
+
+    @Test
+    void updateDetailsSetsOnlyTheEditedFields() {
+        courseRepository.addEnrolledStudent(course.getId(), "s2");
+        Course details = new Course(null, "Modern Java", "d", "t", "i", "2h",
+                List.of(new Module("m2", "Records", "content", null)), null, null);
+
+        assertThat(courseRepository.updateDetails(course.getId(), details)).isTrue();
+
+        Course stored = template.findById(course.getId(), Course.class);
+        assertThat(stored.getTitle()).isEqualTo("Modern Java");
+        assertThat(stored.getModules()).extracting(Module::getId).containsExactly("m2");
+        assertThat(stored.getEnrolledStudents()).containsExactly("s1", "s2");
+    }
+
+    @Test
+    void updateDetailsDoesNotRestoreACourseBeingDeleted() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        courseRepository.markDeleted(course.getId(), now);
+
+        assertThat(courseRepository.updateDetails(course.getId(), course)).isFalse();
+        assertThat(template.findById(course.getId(), Course.class).getDeletedAt()).isEqualTo(now);
+    }
+
+    @Test
+    void findModuleIdsReadsEveryCourseAtOnceAndLeavesOutDeletedCourses() {
+        Course empty = template.insert(new Course(null, "Go", "", "", "", "", null, new ArrayList<>(), null));
+        Course deleted = template.insert(new Course(null, "Perl", "", "", "", "",
+                new ArrayList<>(List.of(new Module("m9", "Intro", "content", null))), new ArrayList<>(), null));
+        courseRepository.markDeleted(deleted.getId(), LocalDateTime.now());
+
+        assertThat(courseRepository.findModuleIds(List.of(course.getId(), empty.getId(), deleted.getId(), "missing")))
+                .containsOnly(entry(course.getId(), List.of("m1")), entry(empty.getId(), List.of()));
+    }
+}
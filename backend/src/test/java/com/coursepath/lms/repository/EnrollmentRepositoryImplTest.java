@@ -0,0 +1,114 @@
+package com.coursepath.lms.repository;
+
+import com.coursepath.lms.dto.RosterEntry;
+import com.coursepath.lms.model.Enrollment;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers(disabledWithoutDocker = true)
+class EnrollmentRepositoryImplTest {
+
+    @Container
+    private static final MongoDBContainer MONGO = new MongoDBContainer("mongo:6.0");
+
+    private static final String COURSE_ID = "course-1";
+    private static final LocalDateTime T0 = LocalDateTime.of(2026, 1, 1, 9, 0);
+
+    private MongoClient client;
+    private MongoTemplate template;
+    private EnrollmentRepositoryImpl enrollmentRepository;
+
+    @BeforeEach
+    void setUp() {
+        client = MongoClients.create(MONGO.getReplicaSetUrl());
+        template = new MongoTemplate(client, "enrollment_repository_test");
+        template.getDb().drop();
+        enrollmentRepository = new EnrollmentRepositoryImpl(template);
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+    }
+
+    @Test
+    void rosterKeysetBreaksTiesByIdInBothDirections() {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            ids.add(enroll("s" + i, T0, 50).getId());
+        }
+        ids.sort(null);
+        List<String> descending = new ArrayList<>(ids);
+        descending.sort(Comparator.reverseOrder());
+
+        assertThat(walk("progress", false, 3)).containsExactlyElementsOf(ids);
+        assertThat(walk("progress", true, 3)).containsExactlyElementsOf(descending);
+        assertThat(walk("enrolledDate", false, 2)).containsExactlyElementsOf(ids);
+    }
+
+    @Test
+    void rosterKeysetResumesAfterFractionalProgressAndMillisecondDates() {
+        String third = enroll("s1", T0.plusNanos(123_000_000), 100.0 / 3).getId();
+        String twoThirds = enroll("s2", T0.plusNanos(124_000_000), 200.0 / 3).getId();
+        String zero = enroll("s3", T0, 0).getId();
+
+        assertThat(walk("progress", false, 1)).containsExactly(zero, third, twoThirds);
+        assertThat(walk("enrolledDate", true, 1)).containsExactly(twoThirds, third, zero);
+    }
+
+    @Test
+    void rosterKeysetAppliesProgressFiltersAfterTheCursor() {
+        enroll("s1", T0, 10);
+        String mid = enroll("s2", T0, 40).getId();
+        String high = enroll("s3", T0, 60).getId();
+        enroll("s4", T0, 90);
+
+        List<RosterEntry> first = enrollmentRepository.findCourseRoster(COURSE_ID, "progress", false, 20.0, 80.0,
+                null, 1);
+        List<RosterEntry> rest = enrollmentRepository.findCourseRoster(COURSE_ID, "progress", false, 20.0, 80.0,
+                after(first.get(0)), 10);
+
+        assertThat(first).extracting(RosterEntry::getEnrollmentId).containsExactly(mid);
+        assertThat(rest).extracting(RosterEntry::getEnrollmentId).containsExactly(high);
+    }
+
+    private List<String> walk(String sortBy, boolean descending, int limit) {
+        List<String> ids = new ArrayList<>();
+        Enrollment after = null;
+        List<RosterEntry> page;
+        do {
+            page = enrollmentRepository.findCourseRoster(COURSE_ID, sortBy, descending, null, null, after, limit);
+            ids.addAll(page.stream().map(RosterEntry::getEnrollmentId).collect(Collectors.toList()));
+            after = page.isEmpty() ? null : after(page.get(page.size() - 1));
+        } while (page.size() == limit);
+        return ids;
+    }
+
+    private static Enrollment after(RosterEntry entry) {
+        Enrollment after = new Enrollment();
+        after.setId(entry.getEnrollmentId());
+        after.setProgress(entry.getProgress());
+        after.setEnrolledDate(entry.getEnrolledDate());
+        return after;
+    }
+
+    private Enrollment enroll(String studentId, LocalDateTime enrolledDate, double progress) {
+        return template.insert(new Enrollment(null, COURSE_ID, studentId, enrolledDate, progress, new ArrayList<>(),
+                enrolledDate));
+    }
+}
@@ -0,0 +1,56 @@
+package com.coursepath.lms.repository.inmemory;
+
+import com.coursepath.lms.model.Course;
+import com.coursepath.lms.model.Module;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryCourseRepositoryTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2026, 1, 1, 9, 0);
+
+    private InMemoryCourseRepository courseRepository;
+    private Course course;
+
+    @BeforeEach
+    void setUp() {
+        courseRepository = new InMemoryCourseRepository();
+        course = courseRepository.save(new Course(null, "Java", "", "", "", "",
+                new ArrayList<>(List.of(new Module("m1", "Intro", "content", null))),
+                new ArrayList<>(List.of("s1")), null));
+    }
+
+    @Test
+    void addEnrolledStudentReturnsTheNewCountOnlyWhenTheStudentWasAdded() {
+        assertThat(courseRepository.addEnrolledStudent(course.getId(), "s2")).hasValue(2);
+        assertThat(courseRepository.addEnrolledStudent(course.getId(), "s2")).isEmpty();
+        assertThat(courseRepository.findById(course.getId()).orElseThrow().getEnrolledStudents())
+                .containsExactly("s1", "s2");
+    }
+
+    @Test
+    void addEnrolledStudentIgnoresCoursesPendingDeletion() {
+        courseRepository.markDeleted(course.getId(), T0);
+
+        assertThat(courseRepository.addEnrolledStudent(course.getId(), "s2")).isEmpty();
+        assertThat(courseRepository.addEnrolledStudent("missing", "s2")).isEmpty();
+    }
+
+    @Test
+    void markDeletedKeepsTheRosterAndOnlySucceedsOnce() {
+        Course marked = courseRepository.markDeleted(course.getId(), T0).orElseThrow();
+
+        assertThat(marked.getTitle()).isEqualTo("Java");
+        assertThat(marked.getEnrolledStudents()).isNull();
+        assertThat(courseRepository.markDeleted(course.getId(), T0.plusHours(1))).isEmpty();
+        Course stored = courseRepository.findById(course.getId()).orElseThrow();
+        assertThat(stored.getDeletedAt()).isEqualTo(T0);
+        assertThat(stored.getEnrolledStudents()).containsExactly("s1");
+    }
+}
@@ -0,0 +1,87 @@
+package com.coursepath.lms.repository.inmemory;
+
+import com.coursepath.lms.dto.DashboardCourse;
+import com.coursepath.lms.dto.DashboardPage;
+import com.coursepath.lms.model.Course;
+import com.coursepath.lms.model.Enrollment;
+import com.coursepath.lms.model.Module;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class InMemoryEnrollmentRepositoryTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2026, 1, 1, 9, 0);
+
+    private InMemoryCourseRepository courseRepository;
+    private InMemoryEnrollmentRepository enrollmentRepository;
+
+    @BeforeEach
+    void setUp() {
+        courseRepository = new InMemoryCourseRepository();
+        enrollmentRepository = new InMemoryEnrollmentRepository(courseRepository, new InMemoryUserRepository());
+    }
+
+    @Test
+    void dashboardListsCourseHeadersMostRecentlyActiveFirst() {
+        Course java = course("Java", "6 weeks", 3, null);
+        Course sql = course("SQL", "2 weeks", 2, null);
+        enroll(java, "s1", T0, List.of("m1"));
+        enroll(sql, "s1", T0.plusHours(1), List.of());
+        enroll(java, "s2", T0.plusHours(2), List.of());
+
+        DashboardPage page = enrollmentRepository.findStudentDashboard("s1", 0, 10);
+
+        assertThat(page.getTotal()).isEqualTo(2);
+        assertThat(page.getItems()).extracting(DashboardCourse::getTitle).containsExactly("SQL", "Java");
+        DashboardCourse first = page.getItems().get(1);
+        assertThat(first.getDuration()).isEqualTo("6 weeks");
+        assertThat(first.getModuleCount()).isEqualTo(3);
+        assertThat(first.getCompletedModuleCount()).isEqualTo(1);
+    }
+
+    @Test
+    void dashboardPagesAndSkipsCoursesPendingDeletion() {
+        for (int i = 0; i < 5; i++) {
+            enroll(course("Course " + i, "1 week", 1, null), "s1", T0.plusMinutes(i), List.of());
+        }
+        enroll(course("Deleted", "1 week", 1, T0), "s1", T0.plusHours(1), List.of());
+
+        DashboardPage second = enrollmentRepository.findStudentDashboard("s1", 1, 2);
+
+        assertThat(second.getTotal()).isEqualTo(5);
+        assertThat(second.getItems()).extracting(DashboardCourse::getTitle).containsExactly("Course 2", "Course 1");
+        assertThat(enrollmentRepository.findStudentDashboard("s1", 3, 2).getItems()).isEmpty();
+    }
+
+    @Test
+    void rejectsASecondEnrollmentOfTheSameStudentInTheSameCourse() {
+        Course java = course("Java", "6 weeks", 1, null);
+        enroll(java, "s1", T0, List.of());
+
+        assertThatThrownBy(() -> enroll(java, "s1", T0, List.of())).isInstanceOf(DuplicateKeyException.class);
+        assertThat(enrollmentRepository.findByCourseIdAndStudentId(java.getId(), "s1")).isPresent();
+        assertThat(enrollmentRepository.findAll()).hasSize(1);
+    }
+
+    private Course course(String title, String duration, int modules, LocalDateTime deletedAt) {
+        List<Module> moduleList = new ArrayList<>();
+        for (int i = 1; i <= modules; i++) {
+            moduleList.add(new Module("m" + i, "Module " + i, "content", null));
+        }
+        return courseRepository.save(new Course(null, title, "", "thumb.png", "Instructor", duration, moduleList,
+                new ArrayList<>(), deletedAt));
+    }
+
+    private Enrollment enroll(Course course, String studentId, LocalDateTime lastActivity, List<String> completed) {
+        return enrollmentRepository.save(new Enrollment(null, course.getId(), studentId, T0, 0,
+                new ArrayList<>(completed), lastActivity));
+    }
+}
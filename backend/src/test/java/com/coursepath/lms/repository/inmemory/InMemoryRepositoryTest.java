@@ -0,0 +1,199 @@
+package com.coursepath.lms.repository.inmemory;
+
+import com.coursepath.lms.model.Role;
+import com.coursepath.lms.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.repository.query.FluentQuery;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class InMemoryRepositoryTest {
+
+    private InMemoryUserRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new InMemoryUserRepository();
+    }
+
+    @Test
+    void uniqueIndexRejectsSecondDocumentWithSameKey() {
+        repository.save(user("alice", "alice@example.com", Role.STUDENT));
+
+        assertThatThrownBy(() -> repository.save(user("alice", "other@example.com", Role.STUDENT)))
+                .isInstanceOf(DuplicateKeyException.class);
+        assertThat(repository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void rejectedWriteReleasesKeysItClaimedOnOtherIndexes() {
+        repository.save(user("alice", "alice@example.com", Role.STUDENT));
+
+        assertThatThrownBy(() -> repository.save(user("alice", "bob@example.com", Role.STUDENT)))
+                .isInstanceOf(DuplicateKeyException.class);
+
+        repository.save(user("bob", "bob@example.com", Role.STUDENT));
+        assertThat(repository.findByEmail("bob@example.com")).get().extracting(User::getUsername).isEqualTo("bob");
+    }
+
+    @Test
+    void changingKeyFreesTheOldOne() {
+        User alice = repository.save(user("alice", "alice@example.com", Role.STUDENT));
+        alice.setUsername("alicia");
+        repository.save(alice);
+
+        assertThat(repository.existsByUsername("alice")).isFalse();
+        repository.save(user("alice", "new@example.com", Role.STUDENT));
+        assertThat(repository.findByUsername("alicia")).get().extracting(User::getId).isEqualTo(alice.getId());
+    }
+
+    @Test
+    void concurrentInsertsOfOneKeyHaveOneWinner() throws Exception {
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                String email = "user" + i + "@example.com";
+                results.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        repository.insert(user("same", email, Role.STUDENT));
+                        return true;
+                    } catch (DuplicateKeyException e) {
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+
+            int inserted = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get()) {
+                    inserted++;
+                }
+            }
+            assertThat(inserted).isEqualTo(1);
+            assertThat(repository.count()).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void exampleMatchesSetPropertiesOnly() {
+        repository.save(user("alice", "alice@example.com", Role.STUDENT));
+        repository.save(user("bob", "bob@example.com", Role.STUDENT));
+        repository.save(user("carol", "carol@example.com", Role.ADMIN));
+
+        User probe = new User();
+        probe.setRole(Role.STUDENT);
+
+        assertThat(repository.findAll(Example.of(probe), Sort.by("username")))
+                .extracting(User::getUsername).containsExactly("alice", "bob");
+        assertThat(repository.count(Example.of(probe))).isEqualTo(2);
+        assertThat(repository.findAll(Example.of(probe), PageRequest.of(1, 1, Sort.by("username"))).getContent())
+                .extracting(User::getUsername).containsExactly("bob");
+    }
+
+    @Test
+    void exampleHonoursStringMatcherAndIgnoredPaths() {
+        repository.save(user("alice", "alice@example.com", Role.STUDENT));
+        repository.save(user("alfred", "alfred@other.org", Role.ADMIN));
+
+        User probe = new User();
+        probe.setUsername("AL");
+        probe.setRole(Role.STUDENT);
+        ExampleMatcher matcher = ExampleMatcher.matching()
+                .withStringMatcher(ExampleMatcher.StringMatcher.STARTING)
+                .withIgnoreCase()
+                .withIgnorePaths("role");
+
+        assertThat(repository.findAll(Example.of(probe, matcher))).hasSize(2);
+        assertThat(repository.exists(Example.of(probe))).isFalse();
+    }
+
+    @Test
+    void anyMatchingNeedsOneProperty() {
+        repository.save(user("alice", "alice@example.com", Role.STUDENT));
+        repository.save(user("bob", "bob@example.com", Role.ADMIN));
+
+        User probe = new User();
+        probe.setUsername("alice");
+        probe.setRole(Role.ADMIN);
+
+        assertThat(repository.findAll(Example.of(probe, ExampleMatcher.matchingAny()))).hasSize(2);
+        assertThat(repository.findOne(Example.of(probe))).isEmpty();
+    }
+
+    @Test
+    void insertRejectsAnExistingIdAndKeepsTheStoredDocument() {
+        User alice = repository.insert(user("alice", "alice@example.com", Role.STUDENT));
+        User other = user("other", "other@example.com", Role.ADMIN);
+        other.setId(alice.getId());
+
+        assertThatThrownBy(() -> repository.insert(other)).isInstanceOf(DuplicateKeyException.class);
+        assertThat(repository.findById(alice.getId())).get().extracting(User::getUsername).isEqualTo("alice");
+        assertThat(repository.existsByUsername("other")).isFalse();
+    }
+
+    @Test
+    void fluentExampleQueriesSortLimitAndProject() {
+        repository.save(user("carol", "carol@example.com", Role.STUDENT));
+        repository.save(user("alice", "alice@example.com", Role.STUDENT));
+        repository.save(user("bob", "bob@example.com", Role.STUDENT));
+        repository.save(user("dave", "dave@example.com", Role.ADMIN));
+        User probe = new User();
+        probe.setRole(Role.STUDENT);
+
+        List<User> firstTwo = repository.findBy(Example.of(probe),
+                query -> query.sortBy(Sort.by("username")).limit(2).all());
+        User first = repository.findBy(Example.of(probe),
+                query -> query.sortBy(Sort.by("username")).project("username").firstValue());
+        List<String> usernames = repository.findBy(Example.of(probe),
+                query -> query.as(Username.class).stream().map(Username::getUsername).sorted().toList());
+
+        assertThat(firstTwo).extracting(User::getUsername).containsExactly("alice", "bob");
+        assertThat(first.getId()).isNotNull();
+        assertThat(first.getUsername()).isEqualTo("alice");
+        assertThat(first.getEmail()).isNull();
+        assertThat(usernames).containsExactly("alice", "bob", "carol");
+        Long count = repository.findBy(Example.of(probe), FluentQuery.FetchableFluentQuery::count);
+        assertThat(count).isEqualTo(3);
+        assertThatThrownBy(() -> repository.<User, User>findBy(Example.of(probe),
+                FluentQuery.FetchableFluentQuery::oneValue)).isInstanceOf(IncorrectResultSizeDataAccessException.class);
+    }
+
+    @Test
+    void returnedDocumentsAreCopies() {
+        User saved = repository.save(user("alice", "alice@example.com", Role.STUDENT));
+        User loaded = repository.findById(saved.getId()).orElseThrow();
+        loaded.getEnrolledCourses().add("course-1");
+
+        assertThat(repository.findById(saved.getId()).orElseThrow().getEnrolledCourses()).isEmpty();
+    }
+
+    interface Username {
+        String getUsername();
+    }
+
+    private static User user(String username, String email, Role role) {
+        return new User(null, username, "secret", username, email, role, new ArrayList<>());
+    }
+}
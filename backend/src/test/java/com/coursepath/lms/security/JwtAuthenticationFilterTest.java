@@ -0,0 +1,83 @@
+package com.coursepath.lms.security;
+
+import com.coursepath.lms.model.Role;
+import com.coursepath.lms.model.User;
+import com.coursepath.lms.repository.inmemory.InMemoryRevokedTokenRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtAuthenticationFilterTest {
+
+    private final User user = new User("u1", "student", "secret", "Student", "s@example.com", Role.STUDENT,
+            new ArrayList<>());
+    private JwtTokenProvider provider;
+    private JwtAuthenticationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        TokenRevocationList revocationList = new TokenRevocationList(new InMemoryRevokedTokenRepository());
+        ReflectionTestUtils.setField(revocationList, "expectedSize", 1000);
+        ReflectionTestUtils.setField(revocationList, "falsePositiveRate", 0.01);
+        revocationList.load();
+        provider = new JwtTokenProvider(revocationList);
+        ReflectionTestUtils.setField(provider, "jwtSecret",
+                "testSecretKey89234792837492349823749238749238749238923479283749234982374923874923874923");
+        ReflectionTestUtils.setField(provider, "jwtExpirationInMs", 60_000L);
+        ReflectionTestUtils.setField(provider, "streamTicketExpirationInMs", 30_000L);
+        filter = new JwtAuthenticationFilter(provider, username -> user);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void streamTicketOpensTheEventStream() throws Exception {
+        filter.doFilter(eventStream(provider.generateStreamTicket(user)), new MockHttpServletResponse(),
+                new MockFilterChain());
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNotNull();
+    }
+
+    @Test
+    void expiredStreamTicketIsRejected() throws Exception {
+        ReflectionTestUtils.setField(provider, "streamTicketExpirationInMs", -1_000L);
+        String ticket = provider.generateStreamTicket(user);
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(eventStream(ticket), new MockHttpServletResponse(), chain);
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        // The request continues unauthenticated, so the security chain answers 401
+        assertThat(chain.getRequest()).isNotNull();
+    }
+
+    @Test
+    void streamTicketIsOnlyAcceptedOnTheEventStream() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/courses/enrollments");
+        request.setServletPath("/api/courses/enrollments");
+        request.setParameter("ticket", provider.generateStreamTicket(user));
+
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+    }
+
+    private static MockHttpServletRequest eventStream(String ticket) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/courses/events");
+        request.setServletPath("/api/courses/events");
+        request.setParameter("ticket", ticket);
+        return request;
+    }
+}
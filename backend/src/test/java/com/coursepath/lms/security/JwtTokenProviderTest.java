@@ -0,0 +1,58 @@
+package com.coursepath.lms.security;
+
+import com.coursepath.lms.model.Role;
+import com.coursepath.lms.model.User;
+import com.coursepath.lms.repository.inmemory.InMemoryRevokedTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtTokenProviderTest {
+
+    private final User user = new User("u1", "student", "secret", "Student", "s@example.com", Role.STUDENT,
+            new ArrayList<>());
+    private TokenRevocationList revocationList;
+    private JwtTokenProvider provider;
+
+    @BeforeEach
+    void setUp() {
+        revocationList = new TokenRevocationList(new InMemoryRevokedTokenRepository());
+        ReflectionTestUtils.setField(revocationList, "expectedSize", 1000);
+        ReflectionTestUtils.setField(revocationList, "falsePositiveRate", 0.01);
+        revocationList.load();
+        provider = new JwtTokenProvider(revocationList);
+        ReflectionTestUtils.setField(provider, "jwtSecret",
+                "testSecretKey89234792837492349823749238749238749238923479283749234982374923874923874923");
+        ReflectionTestUtils.setField(provider, "jwtExpirationInMs", 60_000L);
+        ReflectionTestUtils.setField(provider, "streamTicketExpirationInMs", 30_000L);
+    }
+
+    @Test
+    void accessTokenIsNotAStreamTicket() {
+        String token = provider.generateToken(user);
+
+        assertThat(provider.validateToken(token, user)).isTrue();
+        assertThat(provider.validateStreamTicket(token, user)).isFalse();
+    }
+
+    @Test
+    void streamTicketIsNotAnAccessToken() {
+        String ticket = provider.generateStreamTicket(user);
+
+        assertThat(provider.validateStreamTicket(ticket, user)).isTrue();
+        assertThat(provider.validateToken(ticket, user)).isFalse();
+        assertThat(provider.getUsernameFromToken(ticket)).isEqualTo("student");
+    }
+
+    @Test
+    void revokedTokenIsRejected() {
+        String token = provider.generateToken(user);
+        provider.revokeToken(token);
+
+        assertThat(provider.validateToken(token, user)).isFalse();
+    }
+}
@@ -0,0 +1,186 @@
+package com.coursepath.lms.service;
+
+import com.coursepath.lms.dto.ActivityPoint;
+import com.coursepath.lms.dto.ActivityReport;
+import com.coursepath.lms.model.ActivityBucket;
+import com.coursepath.lms.model.ActivityEvent;
+import com.coursepath.lms.model.ActivityRollupCheckpoint;
+import com.coursepath.lms.model.ActivityType;
+import com.coursepath.lms.model.Course;
+import com.coursepath.lms.repository.inmemory.InMemoryActivityBucketRepository;
+import com.coursepath.lms.repository.inmemory.InMemoryActivityEventRepository;
+import com.coursepath.lms.repository.inmemory.InMemoryActivityLearnerRepository;
+import com.coursepath.lms.repository.inmemory.InMemoryActivityRollupCheckpointRepository;
+import com.coursepath.lms.repository.inmemory.InMemoryCourseRepository;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ActivityRollupServiceTest {
+
+    private static final Instant T0 = Instant.parse("2026-01-05T10:15:00Z");
+    private static final Instant DAY = Instant.parse("2026-01-05T00:00:00Z");
+
+    private InMemoryActivityEventRepository eventRepository;
+    private InMemoryActivityBucketRepository bucketRepository;
+    private InMemoryActivityLearnerRepository learnerRepository;
+    private InMemoryActivityRollupCheckpointRepository checkpointRepository;
+    private CourseCache courseCache;
+    private String courseId;
+
+    @BeforeEach
+    void setUp() {
+        eventRepository = new InMemoryActivityEventRepository();
+        bucketRepository = new InMemoryActivityBucketRepository();
+        learnerRepository = new InMemoryActivityLearnerRepository();
+        checkpointRepository = new InMemoryActivityRollupCheckpointRepository();
+        InMemoryCourseRepository courseRepository = new InMemoryCourseRepository();
+        courseId = courseRepository.save(new Course(null, "Java", "", "", "", "", new ArrayList<>(),
+                new ArrayList<>(), null)).getId();
+        courseCache = new CourseCache(courseRepository,
+                new StaticListableBeanFactory().getBeanProvider(MongoTemplate.class));
+        ReflectionTestUtils.setField(courseCache, "enabled", true);
+        ReflectionTestUtils.setField(courseCache, "maxStalenessMs", 60_000L);
+        courseCache.warmUp();
+
+        // Spread over several batches, with s1 active in both hours and in more than one batch
+        record("s1", ActivityType.ENROLLED, T0);
+        record("s1", ActivityType.MODULE_COMPLETED, T0.plusSeconds(60));
+        record("s2", ActivityType.ENROLLED, T0.plusSeconds(120));
+        record("s1", ActivityType.MODULE_COMPLETED, T0.plusSeconds(3600));
+        record("s3", ActivityType.ENROLLED, T0.plusSeconds(3660));
+    }
+
+    @Test
+    void countsDistinctLearnersPerBucketAndRange() {
+        ActivityRollupService service = service();
+
+        service.rollUp();
+
+        assertRolledUpOnce(service);
+    }
+
+    @Test
+    void rollingUpAgainChangesNothing() {
+        ActivityRollupService service = service();
+
+        service.rollUp();
+        service.rollUp();
+
+        assertRolledUpOnce(service);
+    }
+
+    @Test
+    void batchInterruptedAfterMarkingLearnersIsAppliedOnce() {
+        InMemoryActivityBucketRepository failingOnce = new InMemoryActivityBucketRepository() {
+            private boolean failed;
+
+            @Override
+            public synchronized void apply(Collection<ActivityBucket> deltas, String through) {
+                if (!failed) {
+                    failed = true;
+                    throw new RuntimeException("connection reset");
+                }
+                super.apply(deltas, through);
+            }
+        };
+        bucketRepository = failingOnce;
+        ActivityRollupService service = service();
+
+        service.rollUp();
+        assertThat(checkpointRepository.findById("activity")).get()
+                .extracting(ActivityRollupCheckpoint::getPendingThrough).isNotNull();
+        service.rollUp();
+
+        assertRolledUpOnce(service);
+    }
+
+    @Test
+    void batchInterruptedAfterUpdatingBucketsIsAppliedOnce() {
+        // Fails the checkpoint write that follows the first applied batch
+        checkpointRepository = new InMemoryActivityRollupCheckpointRepository() {
+            private boolean failed;
+
+            @Override
+            public synchronized boolean advance(ActivityRollupCheckpoint checkpoint) {
+                if (!failed && checkpoint.getPendingThrough() == null) {
+                    failed = true;
+                    throw new RuntimeException("connection reset");
+                }
+                return super.advance(checkpoint);
+            }
+        };
+        ActivityRollupService service = service();
+
+        service.rollUp();
+        service.rollUp();
+
+        assertRolledUpOnce(service);
+    }
+
+    @Test
+    void lostLeaseStopsTheRollupAndStaysWithTheNewOwner() {
+        checkpointRepository = new InMemoryActivityRollupCheckpointRepository() {
+            @Override
+            public synchronized boolean advance(ActivityRollupCheckpoint checkpoint) {
+                // Another node claims the checkpoint after this node's lease lapsed
+                ActivityRollupCheckpoint taken = findById(checkpoint.getId()).orElseThrow();
+                taken.setOwner("other-node");
+                save(taken);
+                return super.advance(checkpoint);
+            }
+        };
+        ActivityRollupService service = service();
+
+        service.rollUp();
+
+        ActivityRollupCheckpoint checkpoint = checkpointRepository.findById("activity").orElseThrow();
+        assertThat(checkpoint.getOwner()).isEqualTo("other-node");
+        assertThat(checkpoint.getLastEventId()).isNull();
+        assertThat(bucketRepository.findAll()).isEmpty();
+    }
+
+    private void assertRolledUpOnce(ActivityRollupService service) {
+        ActivityReport hours = service.getCourseActivity(courseId, "hour", DAY, DAY.plusSeconds(86_400));
+        assertThat(hours.getBuckets()).extracting(ActivityPoint::getActiveLearners).containsExactly(2, 2);
+        assertThat(hours.getBuckets()).extracting(ActivityPoint::getEnrollments).containsExactly(2L, 1L);
+        assertThat(hours.getBuckets()).extracting(ActivityPoint::getCompletions).containsExactly(1L, 1L);
+        assertThat(hours.getActiveLearners()).isEqualTo(3);
+
+        ActivityReport days = service.getCourseActivity(courseId, "day", DAY, DAY.plusSeconds(86_400));
+        assertThat(days.getBuckets()).extracting(ActivityPoint::getActiveLearners).containsExactly(3);
+        assertThat(days.getEnrollments()).isEqualTo(3);
+        assertThat(days.getCompletions()).isEqualTo(2);
+        assertThat(days.getActiveLearners()).isEqualTo(3);
+
+        ActivityRollupCheckpoint checkpoint = checkpointRepository.findById("activity").orElseThrow();
+        assertThat(checkpoint.getEventsRolledUp()).isEqualTo(5);
+        assertThat(checkpoint.getPendingThrough()).isNull();
+        assertThat(checkpoint.getOwner()).isNull();
+    }
+
+    private ActivityRollupService service() {
+        ActivityRollupService service = new ActivityRollupService(eventRepository, bucketRepository, learnerRepository,
+                checkpointRepository, courseCache);
+        ReflectionTestUtils.setField(service, "batchSize", 2);
+        ReflectionTestUtils.setField(service, "settleDelayMs", 0L);
+        ReflectionTestUtils.setField(service, "leaseMs", 60_000L);
+        return service;
+    }
+
+    private void record(String studentId, ActivityType type, Instant at) {
+        eventRepository.insert(List.of(new ActivityEvent(new ObjectId(Date.from(at)).toHexString(), courseId,
+                studentId, type, null, at)));
+    }
+}
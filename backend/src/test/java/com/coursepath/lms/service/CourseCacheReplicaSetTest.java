@@ -0,0 +1,124 @@
+package com.coursepath.lms.service;
+
+import com.coursepath.lms.dto.CourseView;
+import com.coursepath.lms.model.Course;
+import com.coursepath.lms.model.Module;
+import com.coursepath.lms.repository.CourseRepository;
+import com.coursepath.lms.repository.CourseRepositoryImpl;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+import org.springframework.data.repository.core.support.RepositoryComposition.RepositoryFragments;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two cache instances sharing one replica set, standing in for two API nodes.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class CourseCacheReplicaSetTest {
+
+    @Container
+    private static final MongoDBContainer MONGO = new MongoDBContainer("mongo:6.0");
+
+    private MongoClient client;
+    private MongoTemplate template;
+    private CourseRepository courseRepository;
+    private CourseCache nodeA;
+    private CourseCache nodeB;
+
+    @BeforeEach
+    void setUp() {
+        client = MongoClients.create(MONGO.getReplicaSetUrl());
+        template = new MongoTemplate(client, "course_cache_test");
+        template.getDb().drop();
+        courseRepository = new MongoRepositoryFactory(template)
+                .getRepository(CourseRepository.class, RepositoryFragments.just(new CourseRepositoryImpl(template)));
+        nodeA = cache();
+        nodeB = cache();
+    }
+
+    @AfterEach
+    void tearDown() {
+        nodeA.shutdown();
+        nodeB.shutdown();
+        client.close();
+    }
+
+    @Test
+    void courseChangesReachTheOtherNode() throws InterruptedException {
+        Course course = save("Java");
+        nodeA.warmUp();
+        nodeB.warmUp();
+
+        course.setTitle("Modern Java");
+        courseRepository.save(course);
+        nodeA.courseChanged(course.getId());
+
+        awaitTrue(() -> nodeB.getView(course.getId()).map(CourseView::getTitle).orElse("").equals("Modern Java"));
+    }
+
+    @Test
+    void enrollmentUpdatesOnlyTheCountOnTheOtherNode() throws InterruptedException {
+        Course course = save("Java");
+        nodeA.warmUp();
+        nodeB.warmUp();
+        CourseView before = nodeB.getView(course.getId()).orElseThrow();
+
+        template.updateFirst(Query.query(Criteria.where("_id").is(course.getId())),
+                new Update().addToSet("enrolledStudents", "s1"), Course.class);
+        nodeA.enrolledCountChanged(course.getId(), 1);
+        nodeB.poll();
+        Thread.sleep(500);
+
+        assertThat(nodeB.getView(course.getId())).get().isSameAs(before);
+        assertThat(template.exists(Query.query(Criteria.where("_id").is(course.getId())), "course_versions"))
+                .isFalse();
+
+        nodeB.refreshEnrolledCounts();
+
+        CourseView after = nodeB.getView(course.getId()).orElseThrow();
+        assertThat(after.getEnrolledCount()).isEqualTo(1);
+        assertThat(after.getModules()).isSameAs(before.getModules());
+    }
+
+    private CourseCache cache() {
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        beans.addBean("mongoTemplate", template);
+        CourseCache cache = new CourseCache(courseRepository, beans.getBeanProvider(MongoTemplate.class));
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        ReflectionTestUtils.setField(cache, "maxStalenessMs", 60_000L);
+        ReflectionTestUtils.setField(cache, "pollOverlapMs", 5_000L);
+        ReflectionTestUtils.setField(cache, "changeStreamsEnabled", true);
+        return cache;
+    }
+
+    private Course save(String title) {
+        List<Module> modules = new ArrayList<>(List.of(new Module("m1", "Intro", "content", null)));
+        return courseRepository.save(new Course(null, title, "", "", "", "", modules, new ArrayList<>(), null));
+    }
+
+    private static void awaitTrue(Supplier<Boolean> condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.get() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertThat(condition.get()).isTrue();
+    }
+}
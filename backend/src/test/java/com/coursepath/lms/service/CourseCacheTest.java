@@ -0,0 +1,174 @@
+package com.coursepath.lms.service;
+
+import com.coursepath.lms.dto.CatalogCourse;
+import com.coursepath.lms.dto.CourseSummary;
+import com.coursepath.lms.dto.CourseView;
+import com.coursepath.lms.dto.ModuleSummary;
+import com.coursepath.lms.model.Course;
+import com.coursepath.lms.model.Module;
+import com.coursepath.lms.repository.inmemory.InMemoryCourseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CourseCacheTest {
+
+    private InMemoryCourseRepository courseRepository;
+    private CourseCache cache;
+
+    @BeforeEach
+    void setUp() {
+        courseRepository = new InMemoryCourseRepository();
+        cache = new CourseCache(courseRepository, new StaticListableBeanFactory().getBeanProvider(MongoTemplate.class));
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        ReflectionTestUtils.setField(cache, "maxStalenessMs", 60_000L);
+    }
+
+    @Test
+    void cachesCountInsteadOfEnrolledStudents() {
+        Course course = save("Java", List.of("s1", "s2", "s3"));
+        cache.warmUp();
+
+        assertThat(cache.get(course.getId())).get().extracting(Course::getEnrolledStudents).isNull();
+        assertThat(cache.getView(course.getId())).get().extracting(CourseView::getEnrolledCount).isEqualTo(3);
+    }
+
+    @Test
+    void enrolledCountChangeKeepsTheCachedCourse() {
+        Course course = save("Java", List.of("s1"));
+        cache.warmUp();
+        CourseView before = cache.getView(course.getId()).orElseThrow();
+
+        cache.enrolledCountChanged(course.getId(), 2);
+
+        CourseView after = cache.getView(course.getId()).orElseThrow();
+        assertThat(after.getEnrolledCount()).isEqualTo(2);
+        assertThat(after.getModules()).isSameAs(before.getModules());
+    }
+
+    @Test
+    void courseChangeReloadsCatalogFields() {
+        Course course = save("Java", List.of("s1"));
+        cache.warmUp();
+
+        course.setTitle("Modern Java");
+        courseRepository.save(course);
+        cache.courseChanged(course.getId());
+
+        assertThat(cache.getView(course.getId())).get().extracting(CourseView::getTitle).isEqualTo("Modern Java");
+    }
+
+    @Test
+    void coursesPendingDeletionAreMissing() {
+        Course course = save("Java", List.of());
+        cache.warmUp();
+
+        course.setDeletedAt(LocalDateTime.now());
+        courseRepository.save(course);
+        cache.courseChanged(course.getId());
+
+        assertThat(cache.get(course.getId())).isEmpty();
+        assertThat(cache.streamSummaries()).isEmpty();
+    }
+
+    @Test
+    void staleCacheReadsCatalogFromRepository() {
+        Course course = save("Java", List.of("s1", "s2"));
+        ReflectionTestUtils.setField(cache, "enabled", false);
+
+        assertThat(cache.getView(course.getId())).get().extracting(CourseView::getEnrolledCount).isEqualTo(2);
+        assertThat(cache.get(course.getId())).get().extracting(Course::getEnrolledStudents).isNull();
+    }
+
+    @Test
+    void summariesKeepModuleTitlesOnlyAndFollowTheEnrolledCount() {
+        Course course = save("Java", List.of("s1"));
+        cache.warmUp();
+
+        cache.enrolledCountChanged(course.getId(), 2);
+
+        CourseSummary summary = cache.getSummary(course.getId()).orElseThrow();
+        assertThat(summary.getEnrolledCount()).isEqualTo(2);
+        assertThat(summary.getModules()).containsExactly(new ModuleSummary("m1", "Intro"));
+        assertThat(cache.streamSummaries()).containsExactly(summary);
+    }
+
+    @Test
+    void cachedViewsAreSharedSoTheyCannotBeChanged() {
+        Course course = save("Java", List.of("s1"));
+        cache.warmUp();
+
+        CourseView view = cache.getView(course.getId()).orElseThrow();
+        CourseSummary summary = cache.getSummary(course.getId()).orElseThrow();
+
+        assertThatThrownBy(() -> view.getModules().clear()).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> summary.getModules().clear()).isInstanceOf(UnsupportedOperationException.class);
+        assertThat(cache.getView(course.getId()).orElseThrow().getModules()).hasSize(1);
+    }
+
+    @Test
+    void staleCacheBuildsSummariesFromRepository() {
+        Course course = save("Java", List.of("s1", "s2"));
+        ReflectionTestUtils.setField(cache, "enabled", false);
+
+        assertThat(cache.streamSummaries()).singleElement().satisfies(summary -> {
+            assertThat(summary.getId()).isEqualTo(course.getId());
+            assertThat(summary.getEnrolledCount()).isEqualTo(2);
+            assertThat(summary.getModules()).containsExactly(new ModuleSummary("m1", "Intro"));
+        });
+    }
+
+    @Test
+    void missingCoursesAreRememberedBriefly() {
+        AtomicInteger reads = new AtomicInteger();
+        courseRepository = new InMemoryCourseRepository() {
+            @Override
+            public Optional<CatalogCourse> findCatalogCourse(String id) {
+                reads.incrementAndGet();
+                return super.findCatalogCourse(id);
+            }
+        };
+        cache = new CourseCache(courseRepository, new StaticListableBeanFactory().getBeanProvider(MongoTemplate.class));
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        ReflectionTestUtils.setField(cache, "maxStalenessMs", 60_000L);
+        ReflectionTestUtils.setField(cache, "missingTtlMs", 60_000L);
+        cache.warmUp();
+
+        assertThat(cache.getView("unknown")).isEmpty();
+        assertThat(cache.getSummary("unknown")).isEmpty();
+        assertThat(cache.get("unknown")).isEmpty();
+        assertThat(reads).hasValue(1);
+
+        // A course created on this node is visible at once
+        Course course = courseRepository.save(new Course("unknown", "Java", "", "", "", "", new ArrayList<>(),
+                new ArrayList<>(), null));
+        cache.courseChanged(course.getId());
+        assertThat(cache.getView("unknown")).isPresent();
+    }
+
+    @Test
+    void coursesNotPolledYetAreReadWithoutBeingCached() {
+        cache.warmUp();
+        // Created on another node: in the database, but not in this node's cache yet
+        Course course = save("Java", List.of("s1"));
+
+        assertThat(cache.getSummary(course.getId())).get().extracting(CourseSummary::getTitle).isEqualTo("Java");
+        assertThat(cache.streamSummaries()).isEmpty();
+    }
+
+    private Course save(String title, List<String> students) {
+        List<Module> modules = new ArrayList<>(List.of(new Module("m1", "Intro", "content", null)));
+        return courseRepository.save(new Course(null, title, "", "", "", "", modules, new ArrayList<>(students), null));
+    }
+}
@@ -0,0 +1,127 @@
+package com.coursepath.lms.service;
+
+import com.coursepath.lms.model.Course;
+import com.coursepath.lms.model.CourseDeletion;
+import com.coursepath.lms.model.DeletionStatus;
+import com.coursepath.lms.model.Enrollment;
+import com.coursepath.lms.model.Role;
+import com.coursepath.lms.model.User;
+import com.coursepath.lms.repository.inmemory.InMemoryCourseDeletionRepository;
+import com.coursepath.lms.repository.inmemory.InMemoryCourseRepository;
+import com.coursepath.lms.repository.inmemory.InMemoryEnrollmentRepository;
+import com.coursepath.lms.repository.inmemory.InMemoryUserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+
+class CourseDeletionServiceTest {
+
+    private InMemoryCourseRepository courseRepository;
+    private InMemoryUserRepository userRepository;
+    private InMemoryEnrollmentRepository enrollmentRepository;
+    private InMemoryCourseDeletionRepository deletionRepository;
+    private CourseDeletionService service;
+    private Course course;
+
+    @BeforeEach
+    void setUp() {
+        courseRepository = new InMemoryCourseRepository();
+        userRepository = new InMemoryUserRepository();
+        enrollmentRepository = new InMemoryEnrollmentRepository(courseRepository, userRepository);
+        deletionRepository = new InMemoryCourseDeletionRepository();
+        course = courseRepository.save(new Course(null, "Java", "", "", "", "", new ArrayList<>(),
+                new ArrayList<>(), LocalDateTime.now()));
+        for (int i = 0; i < 5; i++) {
+            User student = userRepository.save(new User(null, "student" + i, "secret", "Student", "s" + i + "@example.com",
+                    Role.STUDENT, new ArrayList<>(List.of(course.getId()))));
+            enrollmentRepository.save(new Enrollment(null, course.getId(), student.getId(), LocalDateTime.now(), 0,
+                    new ArrayList<>(), LocalDateTime.now()));
+        }
+        deletionRepository.save(new CourseDeletion(course.getId(), "Java", DeletionStatus.PENDING, 0, 0,
+                Instant.now(), null, null, null, null));
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void removesEnrollmentsUserReferencesAndTheCourse() {
+        service = service();
+
+        process();
+
+        CourseDeletion deletion = deletionRepository.findById(course.getId()).orElseThrow();
+        assertThat(deletion.getStatus()).isEqualTo(DeletionStatus.COMPLETED);
+        assertThat(deletion.getEnrollmentsRemoved()).isEqualTo(5);
+        assertThat(deletion.getUsersUpdated()).isEqualTo(5);
+        assertThat(deletion.getOwner()).isNull();
+        assertThat(enrollmentRepository.findAll()).isEmpty();
+        assertThat(courseRepository.existsById(course.getId())).isFalse();
+    }
+
+    @Test
+    void stopsWithoutOverwritingTheNodeThatTookTheLeaseOver() {
+        deletionRepository = new InMemoryCourseDeletionRepository() {
+            @Override
+            public synchronized boolean checkpoint(CourseDeletion deletion, String owner) {
+                // Another node claims the job after this node's lease lapsed
+                CourseDeletion taken = findById(deletion.getId()).orElseThrow();
+                taken.setOwner("other-node");
+                taken.setEnrollmentsRemoved(3);
+                save(taken);
+                return super.checkpoint(deletion, owner);
+            }
+        };
+        deletionRepository.save(new CourseDeletion(course.getId(), "Java", DeletionStatus.PENDING, 0, 0,
+                Instant.now(), null, null, null, null));
+        service = service();
+
+        process();
+
+        CourseDeletion deletion = deletionRepository.findById(course.getId()).orElseThrow();
+        assertThat(deletion.getOwner()).isEqualTo("other-node");
+        assertThat(deletion.getEnrollmentsRemoved()).isEqualTo(3);
+        assertThat(deletion.getStatus()).isEqualTo(DeletionStatus.IN_PROGRESS);
+        // Only the first batch ran
+        assertThat(enrollmentRepository.findAll()).hasSize(3);
+        assertThat(courseRepository.existsById(course.getId())).isTrue();
+    }
+
+    @Test
+    void sweepResumesJobsWithAnOwnerButNoLease() {
+        CourseDeletion deletion = deletionRepository.findById(course.getId()).orElseThrow();
+        deletion.setOwner("other-node");
+        deletionRepository.save(deletion);
+        service = service();
+
+        assertThatCode(service::resumeUnfinished).doesNotThrowAnyException();
+    }
+
+    private CourseDeletionService service() {
+        CourseCache courseCache = new CourseCache(courseRepository,
+                new StaticListableBeanFactory().getBeanProvider(MongoTemplate.class));
+        CourseDeletionService deletionService = new CourseDeletionService(deletionRepository, courseRepository,
+                enrollmentRepository, userRepository, courseCache);
+        ReflectionTestUtils.setField(deletionService, "batchSize", 2);
+        ReflectionTestUtils.setField(deletionService, "leaseMs", 60_000L);
+        ReflectionTestUtils.setField(deletionService, "maxWritesPerSecond", 100_000);
+        return deletionService;
+    }
+
+    private void process() {
+        ReflectionTestUtils.invokeMethod(service, "process", course.getId());
+    }
+}
@@ -0,0 +1,304 @@
+package com.coursepath.lms.service;
+
+import com.coursepath.lms.dto.CourseView;
+import com.coursepath.lms.dto.RosterEntry;
+import com.coursepath.lms.dto.RosterPage;
+import com.coursepath.lms.model.Course;
+import com.coursepath.lms.model.Enrollment;
+import com.coursepath.lms.model.Module;
+import com.coursepath.lms.model.Role;
+import com.coursepath.lms.model.User;
+import com.coursepath.lms.repository.EnrollmentRepository;
+import com.coursepath.lms.repository.inmemory.InMemoryActivityEventRepository;
+import com.coursepath.lms.repository.inmemory.InMemoryCourseRepository;
+import com.coursepath.lms.repository.inmemory.InMemoryEnrollmentRepository;
+import com.coursepath.lms.repository.inmemory.InMemoryUserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.password.NoOpPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CourseServiceTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2026, 1, 1, 9, 0);
+
+    private InMemoryCourseRepository courseRepository;
+    private InMemoryUserRepository userRepository;
+    private CourseService courseService;
+    private Course course;
+    private User student;
+
+    @BeforeEach
+    void setUp() {
+        courseRepository = new InMemoryCourseRepository();
+        userRepository = new InMemoryUserRepository();
+        course = courseRepository.save(new Course(null, "Java", "", "", "", "",
+                new ArrayList<>(List.of(new Module("m1", "Intro", "content", null))), new ArrayList<>(), null));
+        student = userRepository.save(new User(null, "student", "secret", "Student", "student@example.com",
+                Role.STUDENT, new ArrayList<>()));
+    }
+
+    @Test
+    void enrollingTwiceReturnsTheSameEnrollment() {
+        EnrollmentRepository enrollmentRepository = new InMemoryEnrollmentRepository(courseRepository, userRepository);
+        courseService = courseService(enrollmentRepository);
+
+        Enrollment first = courseService.enrollStudent(course.getId(), student.getId());
+        Enrollment second = courseService.enrollStudent(course.getId(), student.getId());
+
+        assertThat(second.getId()).isEqualTo(first.getId());
+        assertThat(enrollmentRepository.findAll()).hasSize(1);
+    }
+
+    @Test
+    void enrollingUpdatesTheCachedCountOnce() {
+        courseService = courseService(new InMemoryEnrollmentRepository(courseRepository, userRepository));
+
+        courseService.enrollStudent(course.getId(), student.getId());
+        courseService.enrollStudent(course.getId(), student.getId());
+
+        assertThat(courseService.getCourseView(course.getId()).getEnrolledCount()).isEqualTo(1);
+        assertThat(courseRepository.findById(course.getId()).orElseThrow().getEnrolledStudents())
+                .containsExactly(student.getId());
+    }
+
+    @Test
+    void enrollmentCreatedConcurrentlyIsReturnedInsteadOfADuplicate() {
+        Enrollment concurrent = new Enrollment(null, course.getId(), student.getId(), LocalDateTime.now(), 0,
+                new ArrayList<>(), LocalDateTime.now());
+        // Another request inserts the enrollment after this one found none and before it inserts its own
+        EnrollmentRepository enrollmentRepository = new InMemoryEnrollmentRepository(courseRepository, userRepository) {
+            private boolean raced;
+
+            @Override
+            public <S extends Enrollment> S insert(S entity) {
+                if (!raced) {
+                    raced = true;
+                    super.insert(concurrent);
+                }
+                return super.insert(entity);
+            }
+        };
+        courseService = courseService(enrollmentRepository);
+
+        Enrollment enrollment = courseService.enrollStudent(course.getId(), student.getId());
+
+        assertThat(enrollment.getId()).isEqualTo(concurrent.getId());
+        assertThat(enrollmentRepository.findAll()).hasSize(1);
+    }
+
+    @Test
+    void updateKeepsAnEnrollmentMadeWhileTheEditWasInFlight() {
+        useRacingRepository(courseId -> courseRepository.addEnrolledStudent(courseId, "s2"));
+        courseService = courseService(new InMemoryEnrollmentRepository(courseRepository, userRepository));
+
+        CourseView updated = courseService.updateCourse(course.getId(), details("Modern Java"));
+
+        assertThat(updated.getTitle()).isEqualTo("Modern Java");
+        assertThat(updated.getEnrolledCount()).isEqualTo(1);
+        assertThat(courseRepository.findById(course.getId()).orElseThrow().getEnrolledStudents()).containsExactly("s2");
+    }
+
+    @Test
+    void updateDoesNotRestoreACourseDeletedWhileTheEditWasInFlight() {
+        LocalDateTime deletedAt = LocalDateTime.now();
+        useRacingRepository(courseId -> courseRepository.markDeleted(courseId, deletedAt));
+        courseService = courseService(new InMemoryEnrollmentRepository(courseRepository, userRepository));
+
+        assertThatThrownBy(() -> courseService.updateCourse(course.getId(), details("Modern Java")))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND));
+        Course stored = courseRepository.findById(course.getId()).orElseThrow();
+        assertThat(stored.getDeletedAt()).isEqualTo(deletedAt);
+        assertThat(stored.getTitle()).isEqualTo("Java");
+    }
+
+    @Test
+    void progressIsMeasuredAgainstTheStoredModulesWhenTheCacheIsBehind() {
+        courseService = courseService(new InMemoryEnrollmentRepository(courseRepository, userRepository));
+        courseService.enrollStudent(course.getId(), student.getId());
+        courseService.updateProgress(course.getId(), student.getId(), "m1", true);
+        // Saved without notifying the cache, as another node's edit looks until the next poll
+        course.setModules(new ArrayList<>(List.of(new Module("m2", "Basics", "content", null),
+                new Module("m3", "Advanced", "content", null))));
+        courseRepository.save(course);
+
+        Enrollment enrollment = courseService.updateProgress(course.getId(), student.getId(), "m2", true);
+
+        assertThat(enrollment.getCompletedModules()).containsExactly("m2");
+        assertThat(enrollment.getProgress()).isEqualTo(50);
+    }
+
+    @Test
+    void rosterPagesThroughTiedProgressWithoutSkippingOrRepeating() {
+        InMemoryEnrollmentRepository enrollmentRepository = new InMemoryEnrollmentRepository(courseRepository,
+                userRepository);
+        courseService = courseService(enrollmentRepository);
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            expected.add(enroll(enrollmentRepository, "s" + i, T0, 50).getId());
+        }
+        expected.sort(null);
+
+        assertThat(walkRoster("progress", "asc", 3)).containsExactlyElementsOf(expected);
+        List<String> descending = new ArrayList<>(expected);
+        descending.sort(Comparator.reverseOrder());
+        assertThat(walkRoster("progress", "desc", 3)).containsExactlyElementsOf(descending);
+    }
+
+    @Test
+    void rosterCursorKeepsFractionalProgressAndSubSecondDates() {
+        InMemoryEnrollmentRepository enrollmentRepository = new InMemoryEnrollmentRepository(courseRepository,
+                userRepository);
+        courseService = courseService(enrollmentRepository);
+        String third = enroll(enrollmentRepository, "s1", T0.withNano(123_456_789), 100.0 / 3).getId();
+        String twoThirds = enroll(enrollmentRepository, "s2", T0.withNano(123_456_790), 200.0 / 3).getId();
+        String zero = enroll(enrollmentRepository, "s3", T0, 0).getId();
+
+        assertThat(walkRoster("progress", "asc", 1)).containsExactly(zero, third, twoThirds);
+        assertThat(walkRoster("enrolledDate", "asc", 1)).containsExactly(zero, third, twoThirds);
+        assertThat(walkRoster("enrolledDate", "desc", 1)).containsExactly(twoThirds, third, zero);
+    }
+
+    @Test
+    void rosterHasNoNextCursorWhenTheLastPageIsExactlyFull() {
+        InMemoryEnrollmentRepository enrollmentRepository = new InMemoryEnrollmentRepository(courseRepository,
+                userRepository);
+        courseService = courseService(enrollmentRepository);
+        for (int i = 0; i < 4; i++) {
+            enroll(enrollmentRepository, "s" + i, T0.plusMinutes(i), 0);
+        }
+
+        RosterPage first = courseService.getCourseRoster(course.getId(), "enrolledDate", "asc", null, null, null, 2);
+        RosterPage second = courseService.getCourseRoster(course.getId(), "enrolledDate", "asc", null, null,
+                first.getNextCursor(), 2);
+
+        assertThat(first.getNextCursor()).isNotNull();
+        assertThat(second.getItems()).hasSize(2);
+        assertThat(second.getNextCursor()).isNull();
+        assertThat(courseService.getCourseRoster(course.getId(), "enrolledDate", "asc", null, null, null, 4)
+                .getNextCursor()).isNull();
+    }
+
+    @Test
+    void rosterCursorAppliesWithProgressFiltersAndSurvivesChangesToOtherEntries() {
+        InMemoryEnrollmentRepository enrollmentRepository = new InMemoryEnrollmentRepository(courseRepository,
+                userRepository);
+        courseService = courseService(enrollmentRepository);
+        Enrollment low = enroll(enrollmentRepository, "s1", T0, 10);
+        Enrollment mid = enroll(enrollmentRepository, "s2", T0, 40);
+        Enrollment high = enroll(enrollmentRepository, "s3", T0, 60);
+        enroll(enrollmentRepository, "s4", T0, 90);
+
+        RosterPage first = courseService.getCourseRoster(course.getId(), "progress", "asc", 20.0, 80.0, null, 1);
+        // An entry already shown moves past the cursor and another one is added behind it
+        mid.setProgress(70);
+        enrollmentRepository.save(mid);
+        low.setProgress(50);
+        enrollmentRepository.save(low);
+        RosterPage second = courseService.getCourseRoster(course.getId(), "progress", "asc", 20.0, 80.0,
+                first.getNextCursor(), 10);
+
+        assertThat(first.getItems()).extracting(RosterEntry::getEnrollmentId).containsExactly(mid.getId());
+        assertThat(second.getItems()).extracting(RosterEntry::getEnrollmentId)
+                .containsExactly(low.getId(), high.getId(), mid.getId());
+    }
+
+    @Test
+    void rosterRejectsCursorsForAnotherSortDirectionOrMalformedOnes() {
+        InMemoryEnrollmentRepository enrollmentRepository = new InMemoryEnrollmentRepository(courseRepository,
+                userRepository);
+        courseService = courseService(enrollmentRepository);
+        enroll(enrollmentRepository, "s1", T0, 10);
+        enroll(enrollmentRepository, "s2", T0, 20);
+        String cursor = courseService.getCourseRoster(course.getId(), "progress", "asc", null, null, null, 1)
+                .getNextCursor();
+
+        for (String[] request : new String[][] {
+                {"progress", "desc", cursor},
+                {"enrolledDate", "asc", cursor},
+                {"progress", "asc", "not a cursor"},
+                {"progress", "asc", encode("progress|asc|ten|" + new ObjectId().toHexString())},
+                {"progress", "asc", encode("progress|asc|10.0|not-an-id")},
+                {"enrolledDate", "asc", encode("enrolledDate|asc|yesterday|" + new ObjectId().toHexString())},
+                {"progress", "asc", encode("progress|asc|10.0")}}) {
+            assertThatThrownBy(() -> courseService.getCourseRoster(course.getId(), request[0], request[1], null, null,
+                    request[2], 1)).hasMessage("Invalid roster cursor");
+        }
+    }
+
+    // Runs the concurrent change right after the edit has read the course's modules
+    private void useRacingRepository(Consumer<String> concurrentChange) {
+        courseRepository = new InMemoryCourseRepository() {
+            @Override
+            public Optional<List<String>> findModuleIds(String courseId) {
+                Optional<List<String>> moduleIds = super.findModuleIds(courseId);
+                concurrentChange.accept(courseId);
+                return moduleIds;
+            }
+        };
+        course = courseRepository.save(course);
+    }
+
+    private Course details(String title) {
+        return new Course(null, title, "", "", "", "", course.getModules(), null, null);
+    }
+
+    private CourseService courseService(EnrollmentRepository enrollmentRepository) {
+        CourseCache courseCache = new CourseCache(courseRepository,
+                new StaticListableBeanFactory().getBeanProvider(MongoTemplate.class));
+        ReflectionTestUtils.setField(courseCache, "enabled", true);
+        ReflectionTestUtils.setField(courseCache, "maxStalenessMs", 60_000L);
+        courseCache.warmUp();
+        CourseService service = new CourseService();
+        ReflectionTestUtils.setField(service, "courseRepository", courseRepository);
+        ReflectionTestUtils.setField(service, "enrollmentRepository", enrollmentRepository);
+        ReflectionTestUtils.setField(service, "userService",
+                new UserService(userRepository, NoOpPasswordEncoder.getInstance()));
+        ReflectionTestUtils.setField(service, "liveUpdateService", new LiveUpdateService(new ObjectMapper()));
+        ReflectionTestUtils.setField(service, "courseCache", courseCache);
+        ReflectionTestUtils.setField(service, "activityRecorder",
+                new ActivityRecorder(new InMemoryActivityEventRepository(), new SimpleMeterRegistry()));
+        return service;
+    }
+
+    private List<String> walkRoster(String sortBy, String direction, int limit) {
+        List<String> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            RosterPage page = courseService.getCourseRoster(course.getId(), sortBy, direction, null, null, cursor, limit);
+            page.getItems().forEach(entry -> ids.add(entry.getEnrollmentId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return ids;
+    }
+
+    private Enrollment enroll(EnrollmentRepository enrollmentRepository, String studentId, LocalDateTime enrolledDate,
+                              double progress) {
+        return enrollmentRepository.save(new Enrollment(null, course.getId(), studentId, enrolledDate, progress,
+                new ArrayList<>(), enrolledDate));
+    }
+
+    private static String encode(String cursor) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+}
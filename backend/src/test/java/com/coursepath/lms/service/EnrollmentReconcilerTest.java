@@ -0,0 +1,127 @@
+package com.coursepath.lms.service;
+
+import com.coursepath.lms.model.Course;
+import com.coursepath.lms.model.Enrollment;
+import com.coursepath.lms.model.ReconcilerCheckpoint;
+import com.coursepath.lms.model.ReconcilerLease;
+import com.coursepath.lms.model.Role;
+import com.coursepath.lms.model.User;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Testcontainers(disabledWithoutDocker = true)
+class EnrollmentReconcilerTest {
+
+    @Container
+    private static final MongoDBContainer MONGO = new MongoDBContainer("mongo:6.0");
+
+    private MongoClient client;
+    private MongoTemplate template;
+    private Course course;
+    private User student;
+
+    @BeforeEach
+    void setUp() {
+        client = MongoClients.create(MONGO.getReplicaSetUrl());
+        template = new MongoTemplate(client, "reconciler_test");
+        template.getDb().drop();
+        MongoPersistentEntityIndexResolver resolver = new MongoPersistentEntityIndexResolver(template.getConverter()
+                .getMappingContext());
+        resolver.resolveIndexFor(Enrollment.class).forEach(index -> template.indexOps(Enrollment.class).ensureIndex(index));
+
+        student = template.insert(new User(null, "student", "secret", "Student", "student@example.com", Role.STUDENT,
+                new ArrayList<>()));
+        // Enrolled on the course and the user, but the enrollment document was never written
+        course = template.insert(new Course(null, "Java", "", "", "", "", new ArrayList<>(),
+                new ArrayList<>(List.of(student.getId())), null));
+        student.getEnrolledCourses().add(course.getId());
+        template.save(student);
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+    }
+
+    @Test
+    void courseStudentIndexRejectsDuplicates() {
+        template.insert(enrollment());
+
+        assertThatThrownBy(() -> template.insert(enrollment())).isInstanceOf(DuplicateKeyException.class);
+    }
+
+    @Test
+    void skipsTheRunWhileAnotherNodeHoldsTheLease() {
+        template.save(new ReconcilerLease("enrollments", "other-node", Instant.now().plusSeconds(60)));
+
+        reconciler().reconcile();
+
+        assertThat(template.findAll(Enrollment.class)).isEmpty();
+        assertThat(template.findAll(ReconcilerCheckpoint.class)).isEmpty();
+        assertThat(template.findById("enrollments", ReconcilerLease.class).getOwner()).isEqualTo("other-node");
+    }
+
+    @Test
+    void takesOverALapsedLeaseAndReleasesItAfterwards() {
+        template.save(new ReconcilerLease("enrollments", "other-node", Instant.now().minusSeconds(1)));
+
+        reconciler().reconcile();
+
+        assertThat(template.findAll(Enrollment.class)).hasSize(1);
+        assertThat(template.findById("enrollments", ReconcilerLease.class).getOwner()).isNull();
+    }
+
+    @Test
+    void repeatedRunsCreateTheMissingEnrollmentOnce() {
+        EnrollmentReconciler first = reconciler();
+        EnrollmentReconciler second = reconciler();
+
+        first.reconcile();
+        second.reconcile();
+
+        assertThat(template.findAll(Enrollment.class)).hasSize(1);
+    }
+
+    @Test
+    void existingEnrollmentIsLeftAlone() {
+        template.insert(enrollment());
+
+        reconciler().reconcile();
+
+        assertThat(template.findAll(Enrollment.class)).hasSize(1);
+        assertThat(template.findAll(ReconcilerCheckpoint.class)).isEmpty();
+    }
+
+    private EnrollmentReconciler reconciler() {
+        EnrollmentReconciler reconciler = new EnrollmentReconciler(template, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(reconciler, "chunkSize", 100);
+        ReflectionTestUtils.setField(reconciler, "parallelism", 2);
+        ReflectionTestUtils.setField(reconciler, "maxWritesPerSecond", 10_000);
+        ReflectionTestUtils.setField(reconciler, "leaseMs", 60_000L);
+        return reconciler;
+    }
+
+    private Enrollment enrollment() {
+        return new Enrollment(null, course.getId(), student.getId(), LocalDateTime.now(), 0, new ArrayList<>(),
+                LocalDateTime.now());
+    }
+}
@@ -0,0 +1,170 @@
+package com.coursepath.lms.service;
+
+import com.coursepath.lms.model.Enrollment;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LiveUpdateServiceTest {
+
+    private LiveUpdateService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new LiveUpdateService(new ObjectMapper().findAndRegisterModules());
+        ReflectionTestUtils.setField(service, "timeoutMs", 60_000L);
+        ReflectionTestUtils.setField(service, "maxQueuedEvents", 16);
+        ReflectionTestUtils.setField(service, "sendTimeoutMs", 10_000L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void studentsReceiveOnlyTheirOwnEnrollments() throws IOException {
+        Connection alice = subscribeStudent("alice");
+        Connection bob = subscribeStudent("bob");
+
+        service.enrollmentChanged(enrollment("alice"));
+
+        assertThat(alice.out.content()).contains("event:enrollment", "\"progress\":50");
+        assertThat(bob.out.content()).contains("event:connected").doesNotContain("event:enrollment");
+    }
+
+    @Test
+    void disconnectedStudentIsForgotten() throws IOException {
+        Connection first = subscribeStudent("alice");
+        Connection second = subscribeStudent("alice");
+
+        // The container reports a connection the client dropped as an error
+        first.listener().onError(new AsyncEvent(first.context, new IOException("Broken pipe")));
+
+        assertThat(studentClients().get("alice")).hasSize(1);
+        service.enrollmentChanged(enrollment("alice"));
+        assertThat(first.out.content()).doesNotContain("event:enrollment");
+        assertThat(second.out.content()).contains("event:enrollment");
+
+        second.listener().onComplete(new AsyncEvent(second.context));
+
+        assertThat(studentClients()).isEmpty();
+    }
+
+    @Test
+    void timedOutAdminIsForgotten() throws IOException {
+        Connection admin = connect();
+        service.subscribeAdmin(admin.request, admin.response);
+
+        admin.listener().onTimeout(new AsyncEvent(admin.context));
+
+        assertThat((Set<?>) ReflectionTestUtils.getField(service, "adminClients")).isEmpty();
+    }
+
+    @Test
+    void stalledConnectionIsClosedAndForgotten() throws Exception {
+        ReflectionTestUtils.setField(service, "sendTimeoutMs", 0L);
+        Connection alice = subscribeStudent("alice");
+        alice.out.ready = false;
+
+        service.enrollmentChanged(enrollment("alice"));
+        Thread.sleep(1);
+        service.closeStalledClients();
+
+        assertThat(studentClients()).isEmpty();
+        assertThat(alice.request.isAsyncStarted()).isFalse();
+    }
+
+    private Connection subscribeStudent(String studentId) throws IOException {
+        Connection connection = connect();
+        service.subscribeStudent(connection.request, connection.response, studentId);
+        return connection;
+    }
+
+    private Connection connect() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/courses/events");
+        request.setAsyncSupported(true);
+        return new Connection(request, new EventStream());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Set<?>> studentClients() {
+        return (Map<String, Set<?>>) ReflectionTestUtils.getField(service, "studentClients");
+    }
+
+    private static Enrollment enrollment(String studentId) {
+        return new Enrollment("e-" + studentId, "c1", studentId, LocalDateTime.now(), 50,
+                new ArrayList<>(List.of("m1")), LocalDateTime.now());
+    }
+
+    // The mock response does not support non-blocking output, so the stream can also be made to stop accepting data
+    private static final class EventStream extends ServletOutputStream {
+
+        private final ByteArrayOutputStream written = new ByteArrayOutputStream();
+        private boolean ready = true;
+
+        @Override
+        public boolean isReady() {
+            return ready;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+        }
+
+        @Override
+        public void write(int b) {
+            written.write(b);
+        }
+
+        private String content() {
+            return written.toString(StandardCharsets.UTF_8);
+        }
+    }
+
+    private static final class Connection {
+
+        private final MockHttpServletRequest request;
+        private final MockHttpServletResponse response;
+        private final EventStream out;
+        private MockAsyncContext context;
+
+        private Connection(MockHttpServletRequest request, EventStream out) {
+            this.request = request;
+            this.out = out;
+            this.response = new MockHttpServletResponse() {
+                @Override
+                public ServletOutputStream getOutputStream() {
+                    return out;
+                }
+            };
+        }
+
+        private AsyncListener listener() {
+            if (context == null) {
+                context = (MockAsyncContext) request.getAsyncContext();
+            }
+            return context.getListeners().get(0);
+        }
+    }
+}
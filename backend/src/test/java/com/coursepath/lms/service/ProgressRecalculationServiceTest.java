@@ -0,0 +1,119 @@
+package com.coursepath.lms.service;
+
+import com.coursepath.lms.model.Course;
+import com.coursepath.lms.model.Enrollment;
+import com.coursepath.lms.model.Module;
+import com.coursepath.lms.model.ProgressRecalculation;
+import com.coursepath.lms.repository.inmemory.InMemoryCourseRepository;
+import com.coursepath.lms.repository.inmemory.InMemoryEnrollmentRepository;
+import com.coursepath.lms.repository.inmemory.InMemoryProgressRecalculationRepository;
+import com.coursepath.lms.repository.inmemory.InMemoryUserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProgressRecalculationServiceTest {
+
+    private InMemoryCourseRepository courseRepository;
+    private InMemoryEnrollmentRepository enrollmentRepository;
+    private InMemoryProgressRecalculationRepository jobRepository;
+    private ProgressRecalculationService service;
+    private Course course;
+
+    @BeforeEach
+    void setUp() {
+        courseRepository = new InMemoryCourseRepository();
+        enrollmentRepository = new InMemoryEnrollmentRepository(courseRepository, new InMemoryUserRepository());
+        jobRepository = new InMemoryProgressRecalculationRepository();
+        // m2 was removed; m3 was added
+        course = courseRepository.save(new Course(null, "Java", "", "", "", "",
+                new ArrayList<>(List.of(new Module("m1", "Intro", "", null), new Module("m3", "Records", "", null))),
+                new ArrayList<>(), null));
+        for (int i = 0; i < 5; i++) {
+            enrollmentRepository.save(new Enrollment(null, course.getId(), "s" + i, LocalDateTime.now(), 100,
+                    new ArrayList<>(List.of("m1", "m2")), LocalDateTime.now()));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void dropsRemovedModulesAndCompletesTheJob() {
+        service = service();
+        jobRepository.request(course.getId());
+
+        process();
+
+        assertThat(enrollmentRepository.findAll()).allSatisfy(enrollment -> {
+            assertThat(enrollment.getCompletedModules()).containsExactly("m1");
+            assertThat(enrollment.getProgress()).isEqualTo(50);
+        });
+        ProgressRecalculation job = jobRepository.findById(course.getId()).orElseThrow();
+        assertThat(job.isPending()).isFalse();
+        assertThat(job.getEnrollmentsUpdated()).isEqualTo(5);
+        assertThat(job.getOwner()).isNull();
+    }
+
+    @Test
+    void completesWithoutTouchingEnrollmentsOfADeletedCourse() {
+        course.setDeletedAt(LocalDateTime.now());
+        courseRepository.save(course);
+        service = service();
+        jobRepository.request(course.getId());
+
+        process();
+
+        assertThat(enrollmentRepository.findAll()).allSatisfy(enrollment ->
+                assertThat(enrollment.getCompletedModules()).containsExactly("m1", "m2"));
+        assertThat(jobRepository.findById(course.getId()).orElseThrow().isPending()).isFalse();
+    }
+
+    @Test
+    void stopsWithoutOverwritingTheNodeThatTookTheLeaseOver() {
+        jobRepository = new InMemoryProgressRecalculationRepository() {
+            @Override
+            public synchronized boolean checkpoint(String id, String owner, long pass, String lastStudentId,
+                                                   long enrollmentsUpdated, Instant leaseUntil) {
+                // Another node claims the job after this node's lease lapsed
+                ProgressRecalculation taken = findById(id).orElseThrow();
+                taken.setOwner("other-node");
+                save(taken);
+                return super.checkpoint(id, owner, pass, lastStudentId, enrollmentsUpdated, leaseUntil);
+            }
+        };
+        service = service();
+        jobRepository.request(course.getId());
+
+        process();
+
+        ProgressRecalculation job = jobRepository.findById(course.getId()).orElseThrow();
+        assertThat(job.getOwner()).isEqualTo("other-node");
+        assertThat(job.isPending()).isTrue();
+        assertThat(job.getLastStudentId()).isNull();
+        assertThat(job.getEnrollmentsUpdated()).isZero();
+    }
+
+    private ProgressRecalculationService service() {
+        ProgressRecalculationService recalculationService =
+                new ProgressRecalculationService(jobRepository, courseRepository, enrollmentRepository);
+        ReflectionTestUtils.setField(recalculationService, "batchSize", 2);
+        ReflectionTestUtils.setField(recalculationService, "leaseMs", 60_000L);
+        ReflectionTestUtils.setField(recalculationService, "maxWritesPerSecond", 100_000);
+        return recalculationService;
+    }
+
+    private void process() {
+        ReflectionTestUtils.invokeMethod(service, "process", course.getId());
+    }
+}
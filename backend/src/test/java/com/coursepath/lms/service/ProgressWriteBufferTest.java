@@ -0,0 +1,143 @@
+package com.coursepath.lms.service;
+
+import com.coursepath.lms.model.Course;
+import com.coursepath.lms.model.Enrollment;
+import com.coursepath.lms.model.Module;
+import com.coursepath.lms.repository.inmemory.InMemoryCourseRepository;
+import com.coursepath.lms.repository.inmemory.InMemoryEnrollmentRepository;
+import com.coursepath.lms.repository.inmemory.InMemoryUserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProgressWriteBufferTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2026, 1, 1, 9, 0);
+
+    private InMemoryCourseRepository courseRepository;
+    private InMemoryEnrollmentRepository enrollmentRepository;
+    private ProgressWriteBuffer buffer;
+    private Course course;
+    private Enrollment enrollment;
+
+    @BeforeEach
+    void setUp() {
+        courseRepository = new InMemoryCourseRepository();
+        enrollmentRepository = new InMemoryEnrollmentRepository(courseRepository, new InMemoryUserRepository());
+        buffer = new ProgressWriteBuffer(enrollmentRepository, courseRepository,
+                new StaticListableBeanFactory().getBeanProvider(MongoTemplate.class), 4);
+        ReflectionTestUtils.setField(buffer, "maxPending", 1000);
+        course = courseRepository.save(new Course(null, "Java", "", "", "", "", modules("m1", "m2"),
+                new ArrayList<>(List.of("s1")), null));
+        enrollment = enrollmentRepository.save(new Enrollment(null, course.getId(), "s1", T0, 0, new ArrayList<>(), T0));
+    }
+
+    @AfterEach
+    void tearDown() {
+        buffer.shutdown();
+    }
+
+    @Test
+    void flushWritesTheLatestBufferedProgress() {
+        buffer.put(progress(List.of("m1"), 50));
+        buffer.put(progress(List.of("m1", "m2"), 100));
+
+        buffer.flush();
+
+        Enrollment stored = enrollmentRepository.findById(enrollment.getId()).orElseThrow();
+        assertThat(stored.getCompletedModules()).containsExactly("m1", "m2");
+        assertThat(stored.getProgress()).isEqualTo(100);
+        assertThat(buffer.pendingCount()).isZero();
+    }
+
+    @Test
+    void flushDoesNotUndoARecalculationForChangedModules() {
+        buffer.put(progress(List.of("m1", "m2"), 100));
+        // m1 is removed and the recalculation reaches the stored enrollment before the buffer flushes
+        course.setModules(modules("m2", "m3", "m4", "m5"));
+        courseRepository.save(course);
+        enrollmentRepository.recalculateProgressBatch(course.getId(), List.of("m2", "m3", "m4", "m5"), null, 100);
+
+        buffer.flush();
+
+        Enrollment stored = enrollmentRepository.findById(enrollment.getId()).orElseThrow();
+        assertThat(stored.getCompletedModules()).containsExactly("m2");
+        assertThat(stored.getProgress()).isEqualTo(25);
+    }
+
+    @Test
+    void flushDropsProgressOfDeletedCourses() {
+        buffer.put(progress(List.of("m1"), 50));
+        courseRepository.markDeleted(course.getId(), T0);
+
+        buffer.flush();
+
+        assertThat(enrollmentRepository.findById(enrollment.getId()).orElseThrow().getCompletedModules()).isEmpty();
+        assertThat(buffer.pendingCount()).isZero();
+    }
+
+    @Test
+    void flushReadsTheModulesOfEveryCourseInOneQuery() {
+        AtomicInteger queries = new AtomicInteger();
+        courseRepository = new InMemoryCourseRepository() {
+            @Override
+            public Optional<List<String>> findModuleIds(String courseId) {
+                queries.incrementAndGet();
+                return super.findModuleIds(courseId);
+            }
+
+            @Override
+            public Map<String, List<String>> findModuleIds(Collection<String> courseIds) {
+                queries.incrementAndGet();
+                return super.findModuleIds(courseIds);
+            }
+        };
+        enrollmentRepository = new InMemoryEnrollmentRepository(courseRepository, new InMemoryUserRepository());
+        buffer.shutdown();
+        buffer = new ProgressWriteBuffer(enrollmentRepository, courseRepository,
+                new StaticListableBeanFactory().getBeanProvider(MongoTemplate.class), 4);
+        ReflectionTestUtils.setField(buffer, "maxPending", 1000);
+        for (int i = 0; i < 3; i++) {
+            Course other = courseRepository.save(new Course(null, "Course " + i, "", "", "", "", modules("m1", "m2"),
+                    new ArrayList<>(List.of("s1")), null));
+            Enrollment stored = enrollmentRepository.save(new Enrollment(null, other.getId(), "s1", T0, 0,
+                    new ArrayList<>(), T0));
+            buffer.put(new Enrollment(stored.getId(), other.getId(), "s1", T0, 50, new ArrayList<>(List.of("m1")),
+                    T0.plusMinutes(1)));
+        }
+
+        buffer.flush();
+
+        assertThat(queries).hasValue(1);
+        assertThat(enrollmentRepository.findAll()).allSatisfy(stored -> {
+            assertThat(stored.getCompletedModules()).containsExactly("m1");
+            assertThat(stored.getProgress()).isEqualTo(50);
+        });
+    }
+
+    private Enrollment progress(List<String> completed, double progress) {
+        return new Enrollment(enrollment.getId(), course.getId(), "s1", T0, progress, new ArrayList<>(completed),
+                T0.plusMinutes(1));
+    }
+
+    private static List<Module> modules(String... ids) {
+        List<Module> modules = new ArrayList<>();
+        for (String id : ids) {
+            modules.add(new Module(id, "Module " + id, "content", null));
+        }
+        return modules;
+    }
+}
@@ -0,0 +1,104 @@
+package com.coursepath.lms.service;
+
+import com.coursepath.lms.model.RefreshToken;
+import com.coursepath.lms.repository.inmemory.InMemoryRefreshTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RefreshTokenServiceTest {
+
+    private InMemoryRefreshTokenRepository repository;
+    private RefreshTokenService service;
+
+    @BeforeEach
+    void setUp() {
+        repository = new InMemoryRefreshTokenRepository();
+        service = new RefreshTokenService(repository);
+        ReflectionTestUtils.setField(service, "refreshExpirationInMs", 60_000L);
+    }
+
+    @Test
+    void rotateIssuesNewTokenAndConsumesOldOne() {
+        RefreshToken first = service.createRefreshToken("user-1");
+
+        RefreshToken second = service.rotate(first.getToken());
+
+        assertThat(second.getToken()).isNotEqualTo(first.getToken());
+        assertThat(second.getUserId()).isEqualTo("user-1");
+        assertThat(repository.findByToken(first.getToken())).get()
+                .extracting(RefreshToken::getUsedAt).isNotNull();
+    }
+
+    @Test
+    void replayRevokesEveryTokenOfTheUser() {
+        RefreshToken first = service.createRefreshToken("user-1");
+        RefreshToken second = service.rotate(first.getToken());
+        RefreshToken otherDevice = service.createRefreshToken("user-1");
+        RefreshToken otherUser = service.createRefreshToken("user-2");
+
+        assertThatThrownBy(() -> service.rotate(first.getToken())).hasMessage("Invalid refresh token");
+
+        assertThat(repository.findByToken(second.getToken())).isEmpty();
+        assertThat(repository.findByToken(otherDevice.getToken())).isEmpty();
+        assertThat(repository.findByToken(otherUser.getToken())).isPresent();
+        assertThatThrownBy(() -> service.rotate(second.getToken())).hasMessage("Invalid refresh token");
+    }
+
+    @Test
+    void unknownTokenIsRejected() {
+        assertThatThrownBy(() -> service.rotate("missing")).hasMessage("Invalid refresh token");
+    }
+
+    @Test
+    void expiredTokenIsRejected() {
+        ReflectionTestUtils.setField(service, "refreshExpirationInMs", -1_000L);
+        RefreshToken expired = service.createRefreshToken("user-1");
+
+        assertThatThrownBy(() -> service.rotate(expired.getToken())).hasMessage("Refresh token has expired");
+    }
+
+    @Test
+    void concurrentExchangesOfOneTokenSucceedAtMostOnce() throws Exception {
+        RefreshToken token = service.createRefreshToken("user-1");
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<RefreshToken>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                Callable<RefreshToken> exchange = () -> {
+                    start.await();
+                    try {
+                        return service.rotate(token.getToken());
+                    } catch (RuntimeException e) {
+                        return null;
+                    }
+                };
+                results.add(executor.submit(exchange));
+            }
+            start.countDown();
+
+            int issued = 0;
+            for (Future<RefreshToken> result : results) {
+                if (result.get() != null) {
+                    issued++;
+                }
+            }
+            assertThat(issued).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.coursepath.lms.service;
+
+import com.coursepath.lms.dto.ProvisioningError;
+import com.coursepath.lms.dto.ProvisioningReport;
+import com.coursepath.lms.model.Role;
+import com.coursepath.lms.model.User;
+import com.coursepath.lms.repository.inmemory.InMemoryUserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class UserProvisioningServiceTest {
+
+    private static final String HEADER = "username,password,name,email,role\n";
+
+    private InMemoryUserRepository userRepository;
+    private UserProvisioningService service;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = new InMemoryUserRepository();
+        // The lowest BCrypt cost keeps the tests fast
+        service = new UserProvisioningService(userRepository, new BCryptPasswordEncoder(4),
+                Validation.buildDefaultValidatorFactory().getValidator(), new ObjectMapper(), 2);
+        ReflectionTestUtils.setField(service, "batchSize", 500);
+        ReflectionTestUtils.setField(service, "maxReportedErrors", 1000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void csvFieldsMayBeQuotedAroundCommasAndDoubledQuotes() throws IOException {
+        ProvisioningReport report = csv(HEADER
+                + "alice,\"pass,word\",\"Smith, Alice \"\"Al\"\"\",alice@example.com,instructor\n");
+
+        assertThat(report.getCreated()).isEqualTo(1);
+        User alice = userRepository.findByUsername("alice").orElseThrow();
+        assertThat(alice.getName()).isEqualTo("Smith, Alice \"Al\"");
+        assertThat(alice.getRole()).isEqualTo(Role.INSTRUCTOR);
+        assertThat(new BCryptPasswordEncoder().matches("pass,word", alice.getPassword())).isTrue();
+    }
+
+    @Test
+    void malformedAndInvalidLinesAreReportedWithoutStoppingTheUpload() throws IOException {
+        ProvisioningReport report = csv(HEADER
+                + "alice,secret123,Alice,alice@example.com,wizard\n"
+                + "bob,secret123,Bob,not-an-email,student\n"
+                + "carol,secret123,Carol,carol@example.com,\n");
+
+        assertThat(report.getReceived()).isEqualTo(3);
+        assertThat(report.getCreated()).isEqualTo(1);
+        assertThat(report.getErrors()).extracting(ProvisioningError::getLine, ProvisioningError::getUsername)
+                .containsExactly(tuple(2L, null), tuple(3L, "bob"));
+        assertThat(report.getErrors().get(0).getMessage()).isEqualTo("Malformed row");
+        assertThat(report.getErrors().get(1).getMessage()).startsWith("email ");
+    }
+
+    @Test
+    void malformedNdjsonLinesAreReported() throws IOException {
+        ProvisioningReport report = service.provision(stream(
+                "{\"username\":\"alice\",\"password\":\"secret123\",\"name\":\"Alice\",\"email\":\"alice@example.com\"}\n"
+                        + "{\"username\":\"bob\",\n"), UserProvisioningService.Format.NDJSON);
+
+        assertThat(report.getCreated()).isEqualTo(1);
+        assertThat(report.getErrors()).extracting(ProvisioningError::getLine, ProvisioningError::getMessage)
+                .containsExactly(tuple(2L, "Malformed row"));
+    }
+
+    @Test
+    void duplicatesWithinTheUploadAndAgainstExistingUsersAreReportedInLineOrder() throws IOException {
+        userRepository.save(new User(null, "existing", "secret", "Existing", "taken@example.com", Role.STUDENT,
+                new ArrayList<>()));
+
+        // The duplicates only fail when the batch is inserted, after the malformed row on line 5 was reported
+        ProvisioningReport report = csv(HEADER
+                + "alice,secret123,Alice,alice@example.com,\n"
+                + "alice,secret123,Alice Again,alice2@example.com,\n"
+                + "bob,secret123,Bob,taken@example.com,\n"
+                + "carol,secret123,Carol,carol@example.com,wizard\n");
+
+        assertThat(report.getCreated()).isEqualTo(1);
+        assertThat(report.getFailed()).isEqualTo(3);
+        assertThat(report.getErrors()).extracting(ProvisioningError::getLine, ProvisioningError::getMessage)
+                .containsExactly(
+                        tuple(3L, "Username is already taken"),
+                        tuple(4L, "Email is already in use"),
+                        tuple(5L, "Malformed row"));
+    }
+
+    @Test
+    void cappedErrorsKeepTheFirstLines() throws IOException {
+        ReflectionTestUtils.setField(service, "maxReportedErrors", 1);
+
+        ProvisioningReport report = csv(HEADER
+                + "alice,secret123,Alice,alice@example.com,\n"
+                + "alice,secret123,Alice,alice2@example.com,\n"
+                + "bob,secret123,Bob,bob@example.com,wizard\n");
+
+        assertThat(report.getFailed()).isEqualTo(2);
+        assertThat(report.getErrors()).extracting(ProvisioningError::getLine).containsExactly(3L);
+    }
+
+    @Test
+    void duplicateMessagesNameTheConflictingIndex() {
+        assertThat(UserService.duplicateMessage("E11000 duplicate key error collection: lms.users index: username "
+                + "dup key: { username: \"alice\" }")).isEqualTo("Username is already taken");
+        assertThat(UserService.duplicateMessage("E11000 duplicate key error collection: lms.users index: email "
+                + "dup key: { email: \"alice@example.com\" }")).isEqualTo("Email is already in use");
+        assertThat(UserService.duplicateMessage("Duplicate key for index email: alice@example.com"))
+                .isEqualTo("Email is already in use");
+        assertThat(UserService.duplicateMessage("Duplicate key for _id: 1")).isEqualTo("User already exists");
+        assertThat(UserService.duplicateMessage(null)).isEqualTo("User already exists");
+    }
+
+    private ProvisioningReport csv(String content) throws IOException {
+        return service.provision(stream(content), UserProvisioningService.Format.CSV);
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
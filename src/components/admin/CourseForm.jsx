@@ -25,17 +25,24 @@ const CourseForm = ({ courseId = null }) => {
   const [errors, setErrors] = useState({});
   
   useEffect(() => {
-    if (courseId) {
-      const course = getCourseById(courseId);
-      if (course) {
+    if (!courseId) return;
+    let cancelled = false;
+    // Fetched by id: only that returns the module content, which the course list leaves out
+    const loadCourse = async () => {
+      const course = await getCourseById(courseId);
+      if (course && !cancelled) {
         setFormData({
           ...course,
           // Create a deep copy of modules to prevent reference issues
-          modules: course.modules.map(module => ({ ...module }))
+          modules: (course.modules || []).map(module => ({ ...module }))
         });
       }
-    }
-  }, [courseId, getCourseById]);
+    };
+    loadCourse();
+    return () => {
+      cancelled = true;
+    };
+  }, [courseId]);
   
   const handleChange = (e) => {
     const { name, value } = e.target;
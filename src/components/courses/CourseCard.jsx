@@ -57,7 +57,7 @@ const CourseCard = ({ course, enrolled = false, progress = 0, admin = false, onE
           </div>
           <div className="flex items-center">
             <Users className="h-4 w-4 mr-1" />
-            <span>{course.enrolledStudents?.length || 0} students</span>
+            <span>{course.enrolledCount || 0} students</span>
           </div>
         </div>
       </CardContent>
@@ -63,7 +63,7 @@ const CourseHeader = ({ course, isEnrolled, enrollment, handleEnroll, enrolling,
           </div>
           <div className="flex items-center">
             <Users className="h-4 w-4 mr-1 text-gray-500" />
-            <span>{course.enrolledStudents?.length || 0} students enrolled</span>
+            <span>{course.enrolledCount || 0} students enrolled</span>
           </div>
           <div className="flex items-center">
             <Award className="h-4 w-4 mr-1 text-gray-500" />
@@ -9,15 +9,14 @@ import { Separator } from '../ui/separator';
 import { Progress } from '../ui/progress';
 import { toast } from 'sonner';
 
-const ModuleProgress = ({ courseId, activeModule, setActiveModule }) => {
+// Takes the course fetched by id: the course list has no module content
+const ModuleProgress = ({ course, courseId, activeModule, setActiveModule }) => {
   const { user } = useAuth();
   const { 
-    getCourseById, 
     getEnrollmentByCourseAndStudent, 
     updateProgress 
   } = useData();
   
-  const course = getCourseById(courseId);
   const enrollment = user ? getEnrollmentByCourseAndStudent(courseId, user.id) : null;
   const completedModules = enrollment?.completedModules || [];
   const progress = enrollment?.progress || 0;
@@ -37,6 +36,8 @@ const ModuleProgress = ({ courseId, activeModule, setActiveModule }) => {
   
   if (!course) return null;
   
+  const modules = Array.isArray(course.modules) ? course.modules : [];
+  
   return (
     <Card>
       <CardHeader className="pb-3">
@@ -49,7 +50,7 @@ const ModuleProgress = ({ courseId, activeModule, setActiveModule }) => {
       
       <CardContent className="pt-1">
         <div className="space-y-1">
-          {course.modules.map((module, index) => {
+          {modules.map((module, index) => {
             const isCompleted = completedModules.includes(module.id);
             const isCurrent = activeModule === index;
             
@@ -92,13 +93,13 @@ const ModuleProgress = ({ courseId, activeModule, setActiveModule }) => {
                     </Button>
                   )}
                 </div>
-                {index < course.modules.length - 1 && <Separator className="my-1" />}
+                {index < modules.length - 1 && <Separator className="my-1" />}
               </div>
             );
           })}
         </div>
         
-        {course.modules.length === 0 && (
+        {modules.length === 0 && (
           <p className="text-center py-4 text-muted-foreground">
             This course has no modules yet.
           </p>
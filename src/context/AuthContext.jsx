@@ -1,6 +1,6 @@
 import React, { createContext, useContext, useState, useEffect } from 'react';
 import { toast } from 'sonner';
-import { authAPI } from '../services/api';
+import { authAPI, clearSession } from '../services/api';
 
 const AuthContext = createContext();
 
@@ -22,9 +22,15 @@ export const AuthProvider = ({ children }) => {
         console.error('Failed to parse stored user', error);
         localStorage.removeItem('lmsUser');
         localStorage.removeItem('lmsUserToken');
+        localStorage.removeItem('lmsRefreshToken');
       }
     }
     setLoading(false);
+
+    // Fired by the API client when the session can no longer be refreshed
+    const handleExpired = () => setUser(null);
+    window.addEventListener('lms:session-expired', handleExpired);
+    return () => window.removeEventListener('lms:session-expired', handleExpired);
   }, []);
   
   const login = async (credentials) => {
@@ -46,6 +52,7 @@ export const AuthProvider = ({ children }) => {
         setUser(userData);
         localStorage.setItem('lmsUser', JSON.stringify(userData));
         localStorage.setItem('lmsUserToken', response.data.token);
+        localStorage.setItem('lmsRefreshToken', response.data.refreshToken);
         toast.success(`Logged in as ${userData.role}`);
         return { success: true };
       } else {
@@ -98,10 +105,16 @@ export const AuthProvider = ({ children }) => {
     }
   };
   
-  const logout = () => {
+  const logout = async () => {
+    const refreshToken = localStorage.getItem('lmsRefreshToken');
+    try {
+      // Revokes the access token and the refresh token on the server
+      await authAPI.logout(refreshToken);
+    } catch (error) {
+      console.error('Logout error:', error);
+    }
     setUser(null);
-    localStorage.removeItem('lmsUser');
-    localStorage.removeItem('lmsUserToken');
+    clearSession();
     toast.info('Logged out successfully');
   };
   
@@ -5,6 +5,8 @@ import { courseAPI } from '../../services/api';
 import { MOCK_COURSES } from './mockData';
 import { createCourseService } from './courseService';
 import { createEnrollmentService } from './enrollmentService';
+import { useAuth } from '../AuthContext';
+import { useLiveUpdates } from '../../hooks/useLiveUpdates';
 
 const DataContext = createContext();
 
@@ -48,6 +50,16 @@ export const DataProvider = ({ children }) => {
     }
   };
 
+  // Admins see enrollment counts change as students enroll
+  const { user } = useAuth();
+  useLiveUpdates({
+    'course-enrollments': ({ courseId, enrolledCount }) => {
+      setCourses((current) => current.map((course) =>
+        course.id === courseId ? { ...course, enrolledCount } : course));
+    },
+    onReconnect: fetchCourses,
+  }, !usingMockData && user?.role === 'ADMIN');
+
   // Create services
   const courseService = createCourseService(courses, setCourses, usingMockData);
   const enrollmentService = createEnrollmentService(
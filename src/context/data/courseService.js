@@ -12,7 +12,8 @@ export const createCourseService = (courses, setCourses, usingMockData) => {
           const mockCourse = {
             ...newCourse,
             id: `mock-${Date.now()}`,
-            enrolledStudents: []
+            enrolledStudents: [],
+            enrolledCount: 0
           };
           setCourses(prev => [...prev, mockCourse]);
           toast.success('Course added (Demo Mode)');
@@ -71,7 +72,7 @@ export const createCourseService = (courses, setCourses, usingMockData) => {
           return true;
         } else {
           const response = await courseAPI.deleteCourse(courseId);
-          if (response.status === 200) {
+          if (response.status >= 200 && response.status < 300) {
             setCourses(prev => prev.filter(course => course.id !== courseId));
             toast.success('Course deleted successfully');
             return true;
@@ -98,17 +99,15 @@ export const createCourseService = (courses, setCourses, usingMockData) => {
     getCourseById: async (courseId) => {
       if (!courseId) return null;
       
-      // First check if we have it in state
-      const courseArray = Array.isArray(courses) ? courses : [];
-      const cachedCourse = courseArray.find(course => course && course.id === courseId);
-        
-      if (cachedCourse) {
-        console.log('Found course in cache:', cachedCourse);
-        return cachedCourse;
-      }
-      
-      // If using mock data, check mock courses
+      // If using mock data, check state first, then mock courses
       if (usingMockData) {
+        const courseArray = Array.isArray(courses) ? courses : [];
+        const cachedCourse = courseArray.find(course => course && course.id === courseId);
+        if (cachedCourse) {
+          console.log('Found course in cache:', cachedCourse);
+          return cachedCourse;
+        }
+        
         const mockCourse = MOCK_COURSES.find(course => course.id === courseId);
         if (mockCourse) {
           console.log('Found course in mock data:', mockCourse);
@@ -125,17 +124,18 @@ export const createCourseService = (courses, setCourses, usingMockData) => {
         return null;
       }
       
-      // If not, fetch from API
+      // Always fetch from the API: the course list has no module content, which the API only
+      // returns by id, to admins and to students enrolled in the course
       try {
         const response = await courseAPI.getCourseById(courseId);
         if (response && response.status === 200) {
-          // Add to cache
+          // Add to or refresh the cached entry
           setCourses(prev => {
             const prevArray = Array.isArray(prev) ? prev : [];
             if (!prevArray.some(c => c && c.id === response.data.id)) {
               return [...prevArray, response.data];
             }
-            return prevArray;
+            return prevArray.map(c => (c && c.id === response.data.id ? response.data : c));
           });
           return response.data;
         }
@@ -29,7 +29,8 @@ export const createEnrollmentService = (
                 if (!course.enrolledStudents.includes(studentId)) {
                   return {
                     ...course,
-                    enrolledStudents: [...course.enrolledStudents, studentId]
+                    enrolledStudents: [...course.enrolledStudents, studentId],
+                    enrolledCount: course.enrolledStudents.length + 1
                   };
                 }
               }
@@ -43,20 +44,13 @@ export const createEnrollmentService = (
         } else {
           const response = await courseAPI.enrollInCourse(courseId);
           if (response.status === 200) {
-            // Update courses state to reflect enrollment
-            setCourses(prev => 
-              prev.map(course => {
-                if (course.id === courseId) {
-                  if (!course.enrolledStudents.includes(studentId)) {
-                    return {
-                      ...course,
-                      enrolledStudents: [...course.enrolledStudents, studentId]
-                    };
-                  }
-                }
-                return course;
-              })
-            );
+            // Re-fetch the course so its enrolled count reflects the enrollment
+            const courseResponse = await courseAPI.getCourseById(courseId);
+            if (courseResponse.status === 200) {
+              setCourses(prev => 
+                prev.map(course => course.id === courseId ? courseResponse.data : course)
+              );
+            }
             
             // Add enrollment record
             const newEnrollment = response.data;
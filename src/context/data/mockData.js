@@ -12,7 +12,8 @@ export const MOCK_COURSES = [
       { id: '1-1', title: 'Getting Started', content: 'React basics', videoUrl: 'https://www.youtube.com/watch?v=dQw4w9WgXcQ' },
       { id: '1-2', title: 'Components', content: 'Creating components', videoUrl: '' }
     ],
-    enrolledStudents: ['101', '102']
+    enrolledStudents: ['101', '102'],
+    enrolledCount: 2
   },
   {
     id: '2',
@@ -25,7 +26,8 @@ export const MOCK_COURSES = [
       { id: '2-1', title: 'Closures', content: 'Understanding closures', videoUrl: '' },
       { id: '2-2', title: 'Promises', content: 'Async programming', videoUrl: '' }
     ],
-    enrolledStudents: ['101']
+    enrolledStudents: ['101'],
+    enrolledCount: 1
   },
   {
     id: '3',
@@ -38,6 +40,7 @@ export const MOCK_COURSES = [
       { id: '3-1', title: 'Frontend Basics', content: 'HTML, CSS, JS', videoUrl: '' },
       { id: '3-2', title: 'Backend Development', content: 'Node.js, Express', videoUrl: '' }
     ],
-    enrolledStudents: []
+    enrolledStudents: [],
+    enrolledCount: 0
   }
 ];
@@ -109,7 +109,7 @@ export const useCourseDetail = (courseId) => {
           setIsEnrolled(true);
           setEnrollment(newEnrollment);
           toast.success('Successfully enrolled in the course');
-          // Re-fetch course to update enrolledStudents count
+          // Re-fetch course to update its enrolled count
           if (getCourseById) {
             const updatedCourse = await getCourseById(courseId);
             if (updatedCourse) {
@@ -0,0 +1,18 @@
+import { useEffect, useRef } from 'react';
+import { subscribeToLiveUpdates } from '../services/liveUpdates';
+
+// Subscribes to the live update stream while `enabled`; handlers always see the latest render's state
+export const useLiveUpdates = (handlers, enabled) => {
+  const handlersRef = useRef(handlers);
+  handlersRef.current = handlers;
+
+  useEffect(() => {
+    if (!enabled) return undefined;
+
+    const delegates = {};
+    Object.keys(handlersRef.current).forEach((name) => {
+      delegates[name] = (...args) => handlersRef.current[name]?.(...args);
+    });
+    return subscribeToLiveUpdates(delegates);
+  }, [enabled]);
+};
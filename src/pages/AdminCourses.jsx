@@ -97,7 +97,7 @@ const AdminCourses = () => {
                       <TableCell>
                         <div className="flex items-center">
                           <Users className="h-4 w-4 mr-1 text-gray-500" />
-                          <span>{course.enrolledStudents?.length || 0}</span>
+                          <span>{course.enrolledCount || 0}</span>
                         </div>
                       </TableCell>
                       <TableCell>{course.modules?.length || 0} modules</TableCell>
@@ -12,7 +12,7 @@ const Analytics = () => {
   // Calculate enrollment data for chart
   const enrollmentData = courses.map(course => ({
     name: course.title.length > 20 ? course.title.substring(0, 20) + '...' : course.title,
-    students: course.enrolledStudents?.length || 0,
+    students: course.enrolledCount || 0,
   })).sort((a, b) => b.students - a.students);
   
   // Calculate progress data for pie chart
@@ -52,7 +52,7 @@ const Analytics = () => {
   const COLORS = ['#FF8042', '#FFBB28', '#00C49F', '#0088FE', '#8884d8'];
   
   // Calculate overall metrics
-  const totalStudents = courses.reduce((sum, course) => sum + (course.enrolledStudents?.length || 0), 0);
+  const totalStudents = courses.reduce((sum, course) => sum + (course.enrolledCount || 0), 0);
   const totalModules = courses.reduce((sum, course) => sum + (course.modules?.length || 0), 0);
   const completedModules = enrollments.reduce((sum, enrollment) => sum + (enrollment.completedModules?.length || 0), 0);
   const moduleCompletionRate = totalModules > 0 ? (completedModules / totalModules) * 100 : 0;
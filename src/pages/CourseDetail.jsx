@@ -122,6 +122,7 @@ const CourseDetail = () => {
           
           <div>
             <ModuleProgress 
+              course={course}
               courseId={courseId} 
               activeModule={activeModule}
               setActiveModule={setActiveModule}
@@ -162,7 +162,7 @@ const Index = () => {
                       </div>
                       <div className="flex items-center">
                         <Users className="h-4 w-4 mr-1" />
-                        <span>{course.enrolledStudents?.length || 0} students</span>
+                        <span>{course.enrolledCount || 0} students</span>
                       </div>
                     </div>
                     <Button 
@@ -11,8 +11,11 @@ import { BookOpen, Clock, Award, CalendarDays } from 'lucide-react';
 import ConnectionStatus from '../components/auth/ConnectionStatus';
 import { useQuery } from '@tanstack/react-query';
 import { courseAPI, checkBackendConnection } from '../services/api';
+import { useLiveUpdates } from '../hooks/useLiveUpdates';
 import { toast } from 'sonner';
 
+const DASHBOARD_PAGE_SIZE = 20;
+
 const StudentDashboard = () => {
   const navigate = useNavigate();
   const { user } = useAuth();
@@ -24,9 +27,10 @@ const StudentDashboard = () => {
   const [apiError, setApiError] = useState('');
   const [isLoading, setIsLoading] = useState(false);
   
-  // Dashboard data
-  const [enrolledCourses, setEnrolledCourses] = useState([]);
-  const [enrollments, setEnrollments] = useState([]);
+  // Dashboard data: one entry per enrolled course with its progress, most recently active first
+  const [dashboardItems, setDashboardItems] = useState([]);
+  const [totalCourses, setTotalCourses] = useState(0);
+  const [nextPage, setNextPage] = useState(null);
   const [recentActivity, setRecentActivity] = useState([]);
   
   // Check backend connection
@@ -50,37 +54,53 @@ const StudentDashboard = () => {
   };
 
   // Fetch dashboard data
-  const fetchDashboardData = async () => {
+  const fetchDashboardData = async (page = 0) => {
     if (!user) return;
     
     try {
-      let courseData = [];
-      let enrollmentData = [];
+      let items = [];
+      let total = 0;
+      let hasMore = false;
       
       if (!usingMockData) {
-        // Fetch from real API
-        const coursesResponse = await courseAPI.getEnrolledCourses();
-        courseData = coursesResponse.data;
-        
-        const enrollmentsResponse = await courseAPI.getEnrollments();
-        enrollmentData = enrollmentsResponse.data;
+        // One request returns course headers and progress together
+        const response = await courseAPI.getDashboard(page, DASHBOARD_PAGE_SIZE);
+        items = response.data.items;
+        total = response.data.total;
+        hasMore = (page + 1) * DASHBOARD_PAGE_SIZE < total;
       } else {
         // Use mock data
-        courseData = await getEnrolledCourses(user.id);
-        enrollmentData = await getEnrollments(user.id);
+        const courseData = await getEnrolledCourses(user.id);
+        const enrollmentData = await getEnrollments(user.id);
+        items = courseData.map(course => {
+          const enrollment = enrollmentData.find(e => e.courseId === course.id);
+          return {
+            enrollmentId: enrollment?.id,
+            courseId: course.id,
+            title: course.title,
+            thumbnail: course.thumbnail,
+            duration: course.duration,
+            progress: enrollment ? enrollment.progress : 0,
+            enrolledDate: enrollment?.enrolledDate,
+            lastActivity: enrollment?.lastActivity,
+          };
+        });
+        total = items.length;
       }
       
-      setEnrolledCourses(courseData);
-      setEnrollments(enrollmentData);
+      const loaded = page === 0 ? items : [...dashboardItems, ...items];
+      setDashboardItems(loaded);
+      setTotalCourses(total);
+      setNextPage(hasMore ? page + 1 : null);
       
       // Generate recent activity based on enrollments
       // This would typically come from a separate API endpoint
-      const activity = enrollmentData.slice(0, 3).map(e => ({
-        id: e.id,
-        courseId: e.courseId,
-        date: new Date(e.enrolledDate || Date.now()),
+      const activity = loaded.slice(0, 3).map(item => ({
+        id: item.enrollmentId,
+        courseId: item.courseId,
+        date: new Date(item.lastActivity || item.enrolledDate || Date.now()),
         type: 'progress_update',
-        details: `Updated progress to ${Math.round(e.progress)}%`
+        details: `Updated progress to ${Math.round(item.progress)}%`
       }));
       setRecentActivity(activity);
       
@@ -102,12 +122,27 @@ const StudentDashboard = () => {
     }
   }, [connected, user]);
   
+  // Progress made in other tabs or on other devices arrives over the live update stream
+  useLiveUpdates({
+    enrollment: (changed) => {
+      setDashboardItems((current) => current.map((item) => (item.enrollmentId === changed.id
+        ? {
+          ...item,
+          progress: changed.progress,
+          completedModuleCount: changed.completedModules.length,
+          lastActivity: changed.lastActivity,
+        }
+        : item)));
+    },
+    onReconnect: () => fetchDashboardData(),
+  }, connected && !usingMockData && user?.role === 'STUDENT');
+  
   // Calculate overall progress across all courses
   const calculateOverallProgress = () => {
-    if (enrollments.length === 0) return 0;
+    if (dashboardItems.length === 0) return 0;
     
-    const totalProgress = enrollments.reduce((sum, enrollment) => sum + enrollment.progress, 0);
-    return totalProgress / enrollments.length;
+    const totalProgress = dashboardItems.reduce((sum, item) => sum + item.progress, 0);
+    return totalProgress / dashboardItems.length;
   };
   
   const overallProgress = calculateOverallProgress();
@@ -146,7 +181,7 @@ const StudentDashboard = () => {
               <CardDescription>Total enrolled courses</CardDescription>
             </CardHeader>
             <CardContent className="pt-2">
-              <p className="text-3xl font-bold">{enrolledCourses.length}</p>
+              <p className="text-3xl font-bold">{totalCourses}</p>
             </CardContent>
           </Card>
           
@@ -170,7 +205,7 @@ const StudentDashboard = () => {
             </CardHeader>
             <CardContent className="pt-2">
               <p className="text-3xl font-bold">
-                {enrollments.filter(e => e.progress === 100).length}
+                {dashboardItems.filter(item => item.progress === 100).length}
               </p>
             </CardContent>
           </Card>
@@ -180,7 +215,7 @@ const StudentDashboard = () => {
           <div className="lg:col-span-2">
             <h2 className="text-xl font-bold mb-4">My Enrolled Courses</h2>
             
-            {enrolledCourses.length === 0 ? (
+            {dashboardItems.length === 0 ? (
               <Card className="text-center py-12">
                 <CardContent>
                   <BookOpen className="h-12 w-12 mx-auto text-gray-400 mb-4" />
@@ -193,12 +228,11 @@ const StudentDashboard = () => {
               </Card>
             ) : (
               <div className="grid grid-cols-1 md:grid-cols-2 gap-6">
-                {enrolledCourses.map(course => {
-                  const enrollment = enrollments.find(e => e.courseId === course.id);
-                  const progress = enrollment ? enrollment.progress : 0;
+                {dashboardItems.map(course => {
+                  const progress = course.progress;
                   
                   return (
-                    <Card key={course.id} className="overflow-hidden hover:shadow-md transition-shadow">
+                    <Card key={course.courseId} className="overflow-hidden hover:shadow-md transition-shadow">
                       <div className="h-40 overflow-hidden relative">
                         <img 
                           src={course.thumbnail} 
@@ -229,7 +263,7 @@ const StudentDashboard = () => {
                       <CardFooter className="pt-0 pb-4">
                         <Button 
                           className="w-full" 
-                          onClick={() => navigate(`/courses/${course.id}`)}
+                          onClick={() => navigate(`/courses/${course.courseId}`)}
                         >
                           {progress === 0 ? 'Start Learning' : 'Continue Learning'}
                         </Button>
@@ -239,6 +273,14 @@ const StudentDashboard = () => {
                 })}
               </div>
             )}
+            
+            {nextPage !== null && (
+              <div className="text-center mt-6">
+                <Button variant="outline" onClick={() => fetchDashboardData(nextPage)}>
+                  Show more courses
+                </Button>
+              </div>
+            )}
           </div>
           
           <div>
@@ -37,10 +37,66 @@ api.interceptors.request.use(
   }
 );
 
+// Clears the stored session; AuthContext listens for the event and signs the user out
+export const clearSession = () => {
+  localStorage.removeItem('lmsUser');
+  localStorage.removeItem('lmsUserToken');
+  localStorage.removeItem('lmsRefreshToken');
+  window.dispatchEvent(new Event('lms:session-expired'));
+};
+
+// One refresh at a time: requests that fail with 401 while it runs wait for the same new token.
+// Tabs share the stored tokens, so the refresh also holds a Web Lock across tabs; refresh tokens
+// are single use and a second tab presenting the one just rotated would be treated as reuse.
+let refreshing = null;
+
+const REFRESH_LOCK = 'lms-token-refresh';
+
+const withRefreshLock = (task) =>
+  navigator.locks ? navigator.locks.request(REFRESH_LOCK, task) : task();
+
+const refreshAccessToken = (staleToken) => {
+  if (!refreshing) {
+    refreshing = withRefreshLock(async () => {
+      // Another tab may have refreshed while this one waited for the lock
+      const current = localStorage.getItem('lmsUserToken');
+      if (current && current !== staleToken) {
+        return current;
+      }
+      const refreshToken = localStorage.getItem('lmsRefreshToken');
+      if (!refreshToken) {
+        throw new Error('No refresh token');
+      }
+      const response = await api.post('/auth/refresh', { refreshToken });
+      localStorage.setItem('lmsUserToken', response.data.token);
+      localStorage.setItem('lmsRefreshToken', response.data.refreshToken);
+      return response.data.token;
+    }).finally(() => {
+      refreshing = null;
+    });
+  }
+  return refreshing;
+};
+
 // Add response interceptor for better error handling
 api.interceptors.response.use(
   (response) => response,
-  (error) => {
+  async (error) => {
+    const original = error.config;
+    // An expired access token is replaced once using the refresh token, then the request is retried
+    if (error.response?.status === 401 && original && !original._retried && !original.url?.startsWith('/auth/')) {
+      original._retried = true;
+      try {
+        const staleToken = original.headers.Authorization?.replace('Bearer ', '');
+        const token = await refreshAccessToken(staleToken);
+        original.headers.Authorization = `Bearer ${token}`;
+        return api(original);
+      } catch (refreshError) {
+        clearSession();
+        return Promise.reject(error);
+      }
+    }
+
     // Log the error for debugging
     if (error.response) {
       // The server responded with a status code outside the 2xx range
@@ -84,6 +140,12 @@ export const authAPI = {
     
   register: (userData) => 
     api.post('/auth/register', userData),
+
+  refresh: (refreshToken) =>
+    api.post('/auth/refresh', { refreshToken }),
+
+  logout: (refreshToken) =>
+    api.post('/auth/logout', { refreshToken }),
 };
 
 // Course endpoints
@@ -114,6 +176,9 @@ export const courseAPI = {
   getEnrollments: () => 
     api.get('/courses/enrollments'),
     
+  getDashboard: (page = 0, size = 20) => 
+    api.get('/courses/dashboard', { params: { page, size } }),
+    
   getEnrollment: (courseId) => 
     api.get(`/courses/enrollment/${courseId}`),
     
@@ -0,0 +1,62 @@
+import api from './api';
+
+const MAX_RETRY_DELAY = 30000;
+
+// Opens the live update stream and keeps it open until the returned function is called.
+// EventSource cannot send the access token, so a short-lived stream ticket is fetched
+// first, and again for every reconnect. `handlers` maps event names ('enrollment',
+// 'course-enrollments') to callbacks taking the parsed payload; `onReconnect` is called
+// after a dropped stream is back, since events sent in between are lost.
+export const subscribeToLiveUpdates = ({ onReconnect, ...handlers }) => {
+  let source = null;
+  let retryTimer = null;
+  let retryDelay = 1000;
+  let connectedBefore = false;
+  let closed = false;
+
+  const scheduleReconnect = () => {
+    if (closed) return;
+    retryTimer = setTimeout(connect, retryDelay);
+    retryDelay = Math.min(retryDelay * 2, MAX_RETRY_DELAY);
+  };
+
+  const connect = async () => {
+    let ticket;
+    try {
+      const response = await api.post('/courses/events/ticket');
+      ticket = response.data.ticket;
+    } catch (error) {
+      console.error('Could not get a live update ticket:', error);
+      scheduleReconnect();
+      return;
+    }
+    if (closed) return;
+
+    source = new EventSource(`${api.defaults.baseURL}/courses/events?ticket=${encodeURIComponent(ticket)}`);
+    source.addEventListener('connected', () => {
+      retryDelay = 1000;
+      if (connectedBefore && onReconnect) {
+        onReconnect();
+      }
+      connectedBefore = true;
+    });
+    Object.entries(handlers).forEach(([name, handler]) => {
+      source.addEventListener(name, (event) => handler(JSON.parse(event.data)));
+    });
+    // The ticket in the URL has expired by the time EventSource would retry, so reconnect with a new one
+    source.onerror = () => {
+      source.close();
+      scheduleReconnect();
+    };
+  };
+
+  connect();
+
+  return () => {
+    closed = true;
+    clearTimeout(retryTimer);
+    if (source) {
+      source.close();
+    }
+  };
+};